@@ -0,0 +1,14 @@
+#!/bin/bash
+
+# Compares all backends in one JVM (build the modules with 'mvn package' first).
+# FXGraphics2D needs a JDK with JavaFX, see test-zulu17.sh.
+
+source ./test-jdk17.sh
+
+CP=""
+for jar in $(ls g2d-*/target/g2d-*-jar-with-dependencies.jar)
+do
+    CP="${CP}:${jar}"
+done
+
+java -Xms1g -Xmx1g -Dsun.java2d.uiScale=1.0 -cp "${CP}" org.jfree.graphics2d.ComparisonRunner "$@"
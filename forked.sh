@@ -0,0 +1,15 @@
+#!/bin/bash
+
+# Runs each backend in child JVMs over a matrix of JDKs and JVM flag sets
+# (build the modules with 'mvn package' first), for example:
+#   ./forked.sh --jdk=/opt/jdk-17 --jdk=/opt/jdk-21 --flags="-XX:+UseG1GC -Xmx1g" jfreesvg skija
+
+source ./test-jdk17.sh
+
+CP=""
+for jar in $(ls g2d-*/target/g2d-*-jar-with-dependencies.jar)
+do
+    CP="${CP}:${jar}"
+done
+
+java -cp "${CP}" org.jfree.graphics2d.ForkedRunner "$@"
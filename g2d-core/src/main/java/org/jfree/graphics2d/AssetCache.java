@@ -0,0 +1,282 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A file cache for the decoded images used by the test sheet (the motorcycle
+ * image and the QR code).  The images are stored as raw pixel data (a small
+ * header followed by the raster data elements in native byte order), so that
+ * a later JVM can memory-map the file and copy the pixels into a new
+ * {@code BufferedImage} of the same type without decoding (the bulk copy keeps
+ * the image managed, unlike wrapping an array in a new raster).  The entries are
+ * keyed by a SHA-256 hash of the content they are created from, so a changed
+ * source creates a new entry.  Several entries of one kind can be in use at
+ * the same time (the QR code depends on the backend), so an entry is only
+ * removed when it has not been used for {@link #MAX_AGE_DAYS} days.
+ * <p>
+ * The cache directory is set with the system property "tester.assetCache"
+ * (default: "g2d-tester-cache" in the temporary directory), the value "off"
+ * disables the cache.
+ */
+final class AssetCache {
+
+    /** The system property for the cache directory. */
+    static final String DIRECTORY_PROPERTY = "tester.assetCache";
+
+    /** The file header magic ("G2DR"). */
+    private static final int MAGIC = 0x47324452;
+
+    /** The file format version (part of the key, bump when the format changes). */
+    private static final int VERSION = 1;
+
+    /** The size of the header in bytes. */
+    private static final int HEADER_SIZE = 7 * 4;
+
+    /** The number of days after which an unused entry is removed. */
+    static final int MAX_AGE_DAYS = 30;
+
+    /**
+     * Returns the cache directory.
+     *
+     * @return The directory, or {@code null} if the cache is disabled.
+     */
+    static Path getDirectory() {
+        final String dir = System.getProperty(DIRECTORY_PROPERTY);
+        if ("off".equals(dir)) {
+            return null;
+        }
+        return dir != null ? Paths.get(dir) : Paths.get(System.getProperty("java.io.tmpdir"), "g2d-tester-cache");
+    }
+
+    /**
+     * Returns an image from the cache, or creates it with the loader and
+     * stores it in the cache.
+     *
+     * @param kind  the kind of asset (a file name prefix, for example "triumph").
+     * @param content  the content the image is created from (hashed for the key).
+     * @param loader  creates the image on a cache miss.
+     *
+     * @return The image.
+     *
+     * @throws Exception if the loader fails.
+     */
+    static BufferedImage getImage(String kind, byte[] content, Callable<BufferedImage> loader) throws Exception {
+        final Path dir = getDirectory();
+        if (dir == null) {
+            return loader.call();
+        }
+        final String prefix = kind + "-";
+        final Path file = dir.resolve(prefix + sha256(content) + ".raw");
+        if (Files.exists(file)) {
+            try {
+                final BufferedImage image = read(file);
+                if (image != null) {
+                    touch(file);
+                    return image;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("AssetCache: ignoring unreadable entry " + file + ": " + e);
+            }
+        }
+        final BufferedImage image = loader.call();
+        try {
+            if (write(image, dir, file)) {
+                removeStale(dir, prefix);
+                System.out.println("AssetCache: stored " + file);
+            }
+        } catch (IOException e) {
+            System.err.println("AssetCache: could not store " + file + ": " + e);
+        }
+        return image;
+    }
+
+    /**
+     * Reads an entry.
+     *
+     * @param file  the file.
+     *
+     * @return The image, or {@code null} if the file is not a valid entry.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static BufferedImage read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.nativeOrder());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            final int type = buffer.getInt();
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            final int transferType = buffer.getInt();
+            final int length = buffer.getInt();
+            final BufferedImage image = new BufferedImage(width, height, type);
+            final WritableRaster raster = image.getRaster();
+            if (raster.getTransferType() != transferType
+                    || length != width * height * raster.getNumDataElements()
+                    || buffer.remaining() != (long) length * DataBuffer.getDataTypeSize(transferType) / 8) {
+                return null;
+            }
+            final Object elements;
+            switch (transferType) {
+                case DataBuffer.TYPE_BYTE:
+                    elements = new byte[length];
+                    buffer.get((byte[]) elements);
+                    break;
+                case DataBuffer.TYPE_USHORT:
+                    elements = new short[length];
+                    buffer.asShortBuffer().get((short[]) elements);
+                    break;
+                case DataBuffer.TYPE_INT:
+                    elements = new int[length];
+                    buffer.asIntBuffer().get((int[]) elements);
+                    break;
+                default:
+                    return null;
+            }
+            raster.setDataElements(0, 0, width, height, elements);
+            return image;
+        }
+    }
+
+    /**
+     * Writes an entry (to a temporary file that is then moved, so that
+     * concurrent JVMs never see a partial entry).  Images that cannot be
+     * recreated from their type alone (custom or indexed types) are not
+     * cached.
+     *
+     * @param image  the image.
+     * @param dir  the cache directory.
+     * @param file  the entry file.
+     *
+     * @return {@code true} if the entry was written.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static boolean write(BufferedImage image, Path dir, Path file) throws IOException {
+        final int type = image.getType();
+        if (type == BufferedImage.TYPE_CUSTOM || type == BufferedImage.TYPE_BYTE_INDEXED) {
+            return false;
+        }
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final WritableRaster raster = image.getRaster();
+        final int transferType = raster.getTransferType();
+        final int length = width * height * raster.getNumDataElements();
+        // the pixels are copied with getDataElements() so that the image stays
+        // managed (DataBuffer.getData() would stop its caching by the pipelines):
+        final Object elements = raster.getDataElements(raster.getMinX(), raster.getMinY(), width, height, null);
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE
+                + length * DataBuffer.getDataTypeSize(transferType) / 8).order(ByteOrder.nativeOrder());
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(width).putInt(height)
+                .putInt(transferType).putInt(length);
+        switch (transferType) {
+            case DataBuffer.TYPE_BYTE:
+                buffer.put((byte[]) elements);
+                break;
+            case DataBuffer.TYPE_USHORT:
+                buffer.asShortBuffer().put((short[]) elements);
+                break;
+            case DataBuffer.TYPE_INT:
+                buffer.asIntBuffer().put((int[]) elements);
+                break;
+            default:
+                return false;
+        }
+        buffer.position(buffer.capacity());
+        buffer.flip();
+
+        Files.createDirectories(dir);
+        final Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the modification time of an entry to now, to record its last use
+     * (a read-only cache is still used, its entries just age).
+     */
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // the entry is still valid
+        }
+    }
+
+    /**
+     * Removes the entries of the same kind that have not been used for
+     * {@link #MAX_AGE_DAYS} days.
+     */
+    private static void removeStale(Path dir, String prefix) throws IOException {
+        final long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_AGE_DAYS);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, prefix + "*.raw")) {
+            for (Path entry : entries) {
+                if (Files.getLastModifiedTime(entry).toMillis() < cutoff) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the SHA-256 hash of the content, including the format version.
+     *
+     * @param content  the content.
+     *
+     * @return The hash (64 hex digits).
+     */
+    static String sha256(byte[] content) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((byte) VERSION);
+            final StringBuilder sb = new StringBuilder(64);
+            for (byte b : digest.digest(content)) {
+                sb.append(String.format("%02x", b & 0xFF));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private AssetCache() {
+        // no-op
+    }
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+/**
+ * Renders a sheet that is far larger than a full canvas would allow (a
+ * scaled grid, see {@link SheetGrid}, 45x23 copies is about 50000 x 50000
+ * pixels) in horizontal bands.  Each band is drawn into one reusable
+ * band-sized {@code BufferedImage} through the normal
+ * {@link Tester#drawTestOutput} path, with a translation to the band and a
+ * clip to its rows (so the copies of the sheet outside the band are skipped),
+ * and is then streamed into an incremental PNG writer
+ * ({@link ParallelPngEncoder.Session}).  The memory used is the band image
+ * plus the encoder strips, whatever the size of the sheet, and the
+ * {@link MemoryProbe} figures for each grid show whether the peak stays
+ * constant.  The report is written to {@code band-render.csv}.
+ * <p>
+ * The copies that cross a band are drawn once for each band they cross (the
+ * tiles are clipped, not skipped), so taller bands draw faster at the cost of
+ * memory.
+ */
+public final class BandRenderer {
+
+    /** The default band height in pixels. */
+    public static final int DEFAULT_BAND_HEIGHT = 256;
+
+    /**
+     * The largest channel difference accepted by {@code --verify} once hard
+     * edges that moved by one pixel are allowed for (see
+     * {@link MarlinSweep.Deviation#maxShiftedDelta}): the band translation
+     * changes the rounding of the device coordinates, so non-antialiased clip
+     * and image edges can move by a pixel and interpolated image pixels can
+     * change slightly.
+     */
+    static final int VERIFY_TOLERANCE = 64;
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    /**
+     * The timings of one rendering.
+     */
+    static final class Timing {
+
+        /** The time spent drawing the bands (nanoseconds). */
+        long draw;
+
+        /** The time spent encoding and writing the bands (nanoseconds). */
+        long encode;
+    }
+
+    private BandRenderer() {
+        // no-op
+    }
+
+    /**
+     * Renders the grid of the tester context band by band and writes it as
+     * a PNG image.
+     *
+     * @param tc  the tester context (with the grid set).
+     * @param band  the band image (its width must be the grid width, its
+     *     height is the band height).
+     * @param encoder  the PNG encoder.
+     * @param out  the output stream (not closed).
+     *
+     * @return The timings.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static Timing render(Tester.TesterContext tc, BufferedImage band, ParallelPngEncoder encoder,
+            OutputStream out) throws IOException {
+        final int width = tc.getGrid().getWidth();
+        final int height = tc.getGrid().getHeight();
+        if (band.getWidth() != width) {
+            throw new IllegalArgumentException("The band width " + band.getWidth() + " != " + width);
+        }
+        final Timing timing = new Timing();
+        final ParallelPngEncoder.Session session = encoder.begin(out, width, height,
+                band.getColorModel().hasAlpha());
+        for (int y = 0; y < height; y += band.getHeight()) {
+            final int rows = Math.min(band.getHeight(), height - y);
+            final long start = System.nanoTime();
+            final Graphics2D g2 = band.createGraphics();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                g2.setBackground(Color.WHITE);
+                g2.clearRect(0, 0, width, rows);
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.translate(0, -y);
+                g2.setClip(0, y, width, rows);
+                Tester.drawTestOutput(tc, g2);
+            } finally {
+                g2.dispose();
+            }
+            final long drawn = System.nanoTime();
+            session.writeRows(band, 0, rows);
+            timing.draw += drawn - start;
+            timing.encode += System.nanoTime() - drawn;
+        }
+        session.finish();
+        return timing;
+    }
+
+    /**
+     * Renders the grid on a full canvas and band by band, and compares the
+     * two images with {@link MarlinSweep#compare(BufferedImage, BufferedImage, int, int)}
+     * (the timestamp in the volatile region of each copy is ignored).  The
+     * banded image passes if the largest channel difference, allowing for
+     * edges that moved by one pixel, is at most {@link #VERIFY_TOLERANCE}.
+     *
+     * @param tc  the tester context (with the grid set).
+     * @param bandHeight  the band height.
+     * @param encoder  the PNG encoder.
+     *
+     * @return The deviation of the banded image.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static MarlinSweep.Deviation verify(Tester.TesterContext tc, int bandHeight, ParallelPngEncoder encoder) throws IOException {
+        final int width = tc.getGrid().getWidth();
+        final int height = tc.getGrid().getHeight();
+        final BufferedImage full = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g2 = full.createGraphics();
+        g2.setBackground(Color.WHITE);
+        g2.clearRect(0, 0, width, height);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Tester.drawTestOutput(tc, g2);
+        g2.dispose();
+        final ByteArrayOutputStream png = new ByteArrayOutputStream();
+        render(tc, new BufferedImage(width, bandHeight, BufferedImage.TYPE_INT_RGB), encoder, png);
+        final BufferedImage banded = ImageIO.read(new ByteArrayInputStream(png.toByteArray()));
+        return MarlinSweep.compare(full, banded, Tester.getTileWidth(), Tester.getTileHeight());
+    }
+
+    /**
+     * Renders the grids.  The options are {@code --grid=N[,N...]} (the grids,
+     * see {@link SheetGrid#parse(String)}; the default "4x1,4x4,4x16" grows
+     * the height at a constant band size, "45x23" is about 50000 x 50000
+     * pixels), {@code --band=N} (the band height),
+     * {@code --png=spec} (see {@link ParallelPngEncoder#parse(String)},
+     * "parallel" by default), {@code --sink=name} (see
+     * {@link OutputSink#NAMES}) and {@code --verify} (compare the first grid
+     * with a full-canvas rendering).
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        String grids = "4x1,4x4,4x16";
+        int bandHeight = DEFAULT_BAND_HEIGHT;
+        String pngSpec = System.getProperty(ParallelPngEncoder.PROPERTY, "parallel");
+        String sinkName = System.getProperty(OutputSink.PROPERTY, "file");
+        boolean verify = false;
+        for (String arg : args) {
+            if (arg.startsWith("--grid=")) {
+                grids = arg.substring("--grid=".length());
+            } else if (arg.startsWith("--band=")) {
+                bandHeight = Integer.parseInt(arg.substring("--band=".length()));
+            } else if (arg.startsWith("--png=")) {
+                pngSpec = arg.substring("--png=".length());
+            } else if (arg.startsWith("--sink=")) {
+                sinkName = arg.substring("--sink=".length());
+            } else if (arg.equals("--verify")) {
+                verify = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        final ParallelPngEncoder encoder = ParallelPngEncoder.parse(pngSpec);
+        if (encoder == null) {
+            throw new IllegalArgumentException("The band renderer needs an incremental encoder, not " + pngSpec);
+        }
+        final Tester.TesterContext tc = Tester.prepareTestOutput("Java2D/BufferedImage (bands)",
+                ComparisonRunner.LINK, false);
+        final String[] specs = grids.split(",");
+        if (verify) {
+            tc.setGrid(SheetGrid.parse(specs[0]));
+            final MarlinSweep.Deviation deviation = verify(tc, bandHeight, encoder);
+            System.out.println(String.format(Locale.ROOT,
+                    "Band vs full canvas on the %s sheet: %s, %d pixels differ (%.4f%%), max channel delta %d"
+                    + " (%d allowing one-pixel edge shifts, tolerance %d), worst tile %s", tc.getGrid(),
+                    deviation.maxShiftedDelta <= VERIFY_TOLERANCE ? "passed" : "FAILED",
+                    deviation.differentPixels, deviation.getDifferentPercent(), deviation.maxDelta,
+                    deviation.maxShiftedDelta, VERIFY_TOLERANCE, deviation.worstTile));
+        }
+        // one untimed band to load the classes and fill the caches:
+        tc.setGrid(SheetGrid.SINGLE);
+        render(tc, new BufferedImage(tc.getGrid().getWidth(), bandHeight, BufferedImage.TYPE_INT_RGB), encoder,
+                OutputStream.nullOutputStream());
+
+        final MemoryProbe probe = new MemoryProbe();
+        final List<String> rows = new ArrayList<>();
+        System.out.println(String.format(Locale.ROOT, "%-7s %-13s %8s %9s %9s %10s %13s %10s %10s %9s %6s",
+                "grid", "pixels", "band", "draw [s]", "enc [s]", "Mpx/s", "bytes", "peak [MB]", "live [MB]",
+                "band [MB]", "gc"));
+        for (String spec : specs) {
+            final SheetGrid grid = SheetGrid.parse(spec);
+            tc.setGrid(grid);
+            final OutputSink sink = OutputSink.create(sinkName);
+            System.gc();
+            probe.start();
+            final Timing timing;
+            final BufferedImage band = new BufferedImage(grid.getWidth(), bandHeight, BufferedImage.TYPE_INT_RGB);
+            try (OutputStream out = sink.open(Paths.get("band-" + grid + ".png"))) {
+                timing = render(tc, band, encoder, out);
+            } finally {
+                probe.stop();
+            }
+            final double pixels = (double) grid.getWidth() * grid.getHeight();
+            final double seconds = 1e-9d * (timing.draw + timing.encode);
+            final double bandBytes = 4.0 * grid.getWidth() * bandHeight;
+            System.out.println(String.format(Locale.ROOT,
+                    "%-7s %-13s %8d %9.2f %9.2f %10.2f %13d %10.1f %10.1f %9.1f %6d",
+                    grid, grid.getWidth() + "x" + grid.getHeight(), bandHeight, 1e-9d * timing.draw,
+                    1e-9d * timing.encode, pixels / 1e6 / seconds, sink.getAverageBytes(),
+                    probe.getPeakHeap() / MB, probe.getMaxLiveHeap() / MB, bandBytes / MB, probe.getGcCount()));
+            rows.add(String.format(Locale.ROOT, "%s,%d,%d,%d,%.4f,%.4f,%.4f,%d,%d,%d,%.0f,%d,%d", grid,
+                    grid.getWidth(), grid.getHeight(), bandHeight, 1e-9d * timing.draw, 1e-9d * timing.encode,
+                    pixels / 1e6 / seconds, sink.getAverageBytes(), probe.getPeakHeap(), probe.getMaxLiveHeap(),
+                    bandBytes, probe.getGcCount(), probe.getGcTime()));
+        }
+        encoder.close();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get("band-render.csv"),
+                StandardCharsets.UTF_8))) {
+            out.println("grid,width,height,band,draw_s,encode_s,mpixels_per_s,bytes,peak_heap,live_heap,band_bytes,"
+                    + "gc_count,gc_time");
+            rows.forEach(out::println);
+        }
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,511 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Graphics2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A generic benchmark loop that runs the test sheet against any
+ * {@link Graphics2DBackend}.  The timing boundaries are the backend lifecycle
+ * hooks, so the phase times reported for different backends cover the same
+ * work.
+ */
+public final class BenchmarkHarness {
+
+    /** The default number of warmup iterations (not included in the summary). */
+    static final int DEFAULT_WARMUPS = 5;
+
+    /** The default number of measured iterations. */
+    static final int DEFAULT_REPEATS = 20;
+
+    /** The number of tiles listed in the per-tile report. */
+    static final int TILE_REPORT_SIZE = 10;
+
+    /**
+     * Returns all available backends: the Java2D reference backend followed
+     * by the backends registered as services on the classpath.
+     *
+     * @return A list of backends (never empty).
+     */
+    public static List<Graphics2DBackend> loadBackends() {
+        final List<Graphics2DBackend> result = new ArrayList<>();
+        result.add(new Java2DBackend());
+        for (Graphics2DBackend backend : ServiceLoader.load(Graphics2DBackend.class)) {
+            result.add(backend);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the available backend with the specified name.
+     *
+     * @param name  the backend name (see {@link Graphics2DBackend#getName()}).
+     *
+     * @return The backend.
+     *
+     * @throws IllegalArgumentException if there is no backend with that name.
+     */
+    public static Graphics2DBackend findBackend(String name) {
+        for (Graphics2DBackend backend : loadBackends()) {
+            if (backend.getName().equals(name)) {
+                return backend;
+            }
+        }
+        throw new IllegalArgumentException("No backend named '" + name + "' on the classpath.");
+    }
+
+    /**
+     * Creates the backend with the specified class name.  Unlike
+     * {@link #findBackend(String)}, this does not instantiate the other
+     * providers on the classpath, so their classes are not initialised (and
+     * their native libraries are not loaded).
+     *
+     * @param type  the class name of the backend.
+     *
+     * @return The backend.
+     *
+     * @throws IllegalArgumentException if there is no provider of that class.
+     */
+    public static Graphics2DBackend createBackend(String type) {
+        if (type.equals(Java2DBackend.class.getName())) {
+            return new Java2DBackend();
+        }
+        return ServiceLoader.load(Graphics2DBackend.class).stream()
+                .filter(provider -> provider.type().getName().equals(type))
+                .findFirst()
+                .map(ServiceLoader.Provider::get)
+                .orElseThrow(() -> new IllegalArgumentException("No backend of class '" + type
+                        + "' on the classpath."));
+    }
+
+    /**
+     * Runs the test output against a backend and prints the phase times.  The
+     * output is written to the sink selected by the system property
+     * "tester.sink" (see {@link OutputSink#fromSystemProperty()}).
+     *
+     * @param backend  the backend ({@code null} not permitted).
+     * @param fileName  the base file name for the output.
+     * @param single  run the current single test?
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     *
+     * @return The timer holding the measured iterations.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static PhaseTimer run(Graphics2DBackend backend, String fileName, boolean single,
+            int warmups, int repeats) throws IOException {
+        return run(backend, fileName, single, warmups, repeats, OutputSink.fromSystemProperty());
+    }
+
+    /**
+     * Runs the test output against a backend and prints the phase times.  The
+     * test output is drawn on the grid selected by the system property
+     * "tester.grid" (see {@link SheetGrid#fromSystemProperty()}).
+     *
+     * @param backend  the backend ({@code null} not permitted).
+     * @param fileName  the base file name for the output.
+     * @param single  run the current single test?
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     * @param sink  the output sink ({@code null} not permitted).
+     *
+     * @return The timer holding the measured iterations.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static PhaseTimer run(Graphics2DBackend backend, String fileName, boolean single,
+            int warmups, int repeats, OutputSink sink) throws IOException {
+        return run(backend, fileName, single, warmups, repeats, sink, null);
+    }
+
+    /**
+     * Runs the test output against a backend and prints the phase times and,
+     * if a tile timer is given, the slowest tiles of the measured iterations.
+     *
+     * @param backend  the backend ({@code null} not permitted).
+     * @param fileName  the base file name for the output.
+     * @param single  run the current single test?
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     * @param sink  the output sink ({@code null} not permitted).
+     * @param tiles  the timer for the per-tile times ({@code null} permitted).
+     *
+     * @return The timer holding the measured iterations.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static PhaseTimer run(Graphics2DBackend backend, String fileName, boolean single,
+            int warmups, int repeats, OutputSink sink, TileTimer tiles) throws IOException {
+        final SheetGrid grid = SheetGrid.fromSystemProperty();
+        final PhaseTimer timer = new PhaseTimer(targetName(backend, sink, grid));
+        measure(backend, outputPath(backend, fileName, single, grid), single, grid, warmups, repeats, sink,
+                tiles, null, timer);
+        timer.printSummary();
+        System.out.println("Output sink: " + sink.getName() + ", " + sink.getAverageBytes() + " bytes per iteration");
+        if (tiles != null) {
+            tiles.printSummary(timer.getTarget(), TILE_REPORT_SIZE);
+        }
+        return timer;
+    }
+
+    /**
+     * Runs the test output against several instances of a backend at the
+     * same time, one per thread, each with its own test context and output
+     * sink.  The threads prepare and warm up their instance, then start the
+     * measured iterations together.  The phase times of each thread are
+     * printed, followed by the throughput of all threads (sheets per second
+     * of wall-clock time).
+     *
+     * @param name  the backend name (see {@link #findBackend(String)}).
+     * @param fileName  the base file name for the output (a thread suffix is
+     *     added).
+     * @param single  run the current single test?
+     * @param warmups  the number of warmup iterations per thread.
+     * @param repeats  the number of measured iterations per thread.
+     * @param sinkName  the output sink name (see {@link OutputSink#NAMES}).
+     * @param threads  the number of threads.
+     *
+     * @return The timers holding the measured iterations of each thread.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static List<PhaseTimer> runConcurrent(String name, String fileName, boolean single,
+            int warmups, int repeats, String sinkName, int threads) throws IOException {
+        final SheetGrid grid = SheetGrid.fromSystemProperty();
+        final CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+        final List<PhaseTimer> timers = new ArrayList<>();
+        final List<Future<?>> futures = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long wallTime;
+        try {
+            for (int t = 0; t < threads; t++) {
+                final Graphics2DBackend backend = findBackend(name);
+                final OutputSink sink = OutputSink.create(sinkName);
+                final PhaseTimer timer = new PhaseTimer(targetName(backend, sink, grid) + "#" + t, false);
+                final Path path = outputPath(backend, fileName + "-t" + t, single, grid);
+                timers.add(timer);
+                futures.add(executor.submit(() -> {
+                    try {
+                        measure(backend, path, single, grid, warmups, repeats, sink, null, barrier, timer);
+                    } catch (IOException | RuntimeException e) {
+                        // release the threads waiting at the barrier:
+                        barrier.reset();
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            try {
+                barrier.await();
+            } catch (BrokenBarrierException e) {
+                // a thread has failed, its exception is thrown below
+            }
+            final long start = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            wallTime = System.nanoTime() - start;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        double sumP50 = 0.0;
+        for (PhaseTimer timer : timers) {
+            timer.printSummary();
+            sumP50 += timer.getTotalPercentile(50);
+        }
+        System.out.println(String.format(Locale.ROOT,
+                "Concurrent %s: %d threads, %d sheets in %.1f ms = %.2f sheets/s (mean p50 per sheet %.3f ms)",
+                name, threads, threads * repeats, 1e-6d * wallTime, 1e9d * threads * repeats / wallTime,
+                sumP50 / threads));
+        return timers;
+    }
+
+    /**
+     * Prepares a test context and the backend, runs the warmup and the
+     * measured iterations and disposes the backend.
+     *
+     * @param backend  the backend.
+     * @param path  the output file.
+     * @param single  run the current single test?
+     * @param grid  the sheet grid.
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     * @param sink  the output sink.
+     * @param tiles  the timer for the per-tile times of the measured
+     *     iterations ({@code null} permitted).
+     * @param barrier  a barrier to wait for between the warmup and the
+     *     measured iterations ({@code null} permitted).
+     * @param timer  the timer for the measured iterations.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    private static void measure(Graphics2DBackend backend, Path path, boolean single, SheetGrid grid,
+            int warmups, int repeats, OutputSink sink, TileTimer tiles, CyclicBarrier barrier,
+            PhaseTimer timer) throws IOException {
+        // Prepare context:
+        timer.start();
+        final Tester.TesterContext tc = Tester.prepareTestOutput(backend.getDescription(),
+                backend.getLink(), single);
+        tc.setGrid(grid);
+        backend.create(grid.getWidth(), grid.getHeight());
+        timer.mark(PhaseTimer.Phase.PREPARE);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 * 1024);
+        try {
+            final PhaseTimer warmupTimer = new PhaseTimer(backend.getName() + " warmup", barrier == null);
+            for (int i = 0; i < warmups; i++) {
+                runIteration(backend, tc, bytes, sink, path, warmupTimer);
+            }
+            if (barrier != null) {
+                barrier.await();
+            }
+            tc.tileTimer = tiles;
+            for (int i = 0; i < repeats; i++) {
+                runIteration(backend, tc, bytes, sink, path, timer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (BrokenBarrierException e) {
+            throw new IOException("Another thread failed before the measured iterations.", e);
+        } finally {
+            backend.dispose();
+        }
+    }
+
+    /**
+     * Returns the output file for a run.
+     *
+     * @param backend  the backend.
+     * @param fileName  the base file name.
+     * @param single  run the current single test?
+     * @param grid  the sheet grid.
+     *
+     * @return The path.
+     */
+    private static Path outputPath(Graphics2DBackend backend, String fileName, boolean single, SheetGrid grid) {
+        return Paths.get(fileName + (single ? "-single" : "")
+                + (grid.getCopies() > 1 ? "-" + grid : "") + "." + backend.getFileExtension());
+    }
+
+    /**
+     * Returns the name used for a timer: the backend name, followed by the
+     * sink name unless the output is written to a file.
+     *
+     * @param backend  the backend.
+     * @param sink  the output sink.
+     *
+     * @return The name.
+     */
+    static String targetName(Graphics2DBackend backend, OutputSink sink) {
+        return "file".equals(sink.getName()) ? backend.getName() : backend.getName() + "/" + sink.getName();
+    }
+
+    /**
+     * Returns the name used for a timer: as
+     * {@link #targetName(Graphics2DBackend, OutputSink)}, followed by the grid
+     * for a scaled-up sheet.
+     *
+     * @param backend  the backend.
+     * @param sink  the output sink.
+     * @param grid  the sheet grid.
+     *
+     * @return The name.
+     */
+    static String targetName(Graphics2DBackend backend, OutputSink sink, SheetGrid grid) {
+        final String name = targetName(backend, sink);
+        return grid.getCopies() > 1 ? name + "@" + grid : name;
+    }
+
+    /**
+     * Runs one iteration, timing each lifecycle hook as a separate phase.  The
+     * output is encoded in memory (ENCODE) and then written to the sink (WRITE).
+     *
+     * @param backend  the backend.
+     * @param tc  the tester context.
+     * @param bytes  a reusable buffer for the encoded output.
+     * @param sink  the output sink.
+     * @param path  the output file.
+     * @param timer  the timer.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static void runIteration(Graphics2DBackend backend, Tester.TesterContext tc,
+            ByteArrayOutputStream bytes, OutputSink sink, Path path, PhaseTimer timer) throws IOException {
+        timer.start();
+        final Graphics2D g2 = backend.reset();
+        timer.mark(PhaseTimer.Phase.CLEAR);
+
+        Tester.drawTestOutput(tc, g2);
+        timer.mark(PhaseTimer.Phase.DRAW);
+        timer.split(PhaseTimer.Phase.DRAW, PhaseTimer.Phase.SWING, tc.getSwingPaintNanos());
+
+        backend.flush();
+        timer.mark(PhaseTimer.Phase.FLUSH);
+
+        backend.snapshotPixels();
+        timer.mark(PhaseTimer.Phase.SNAPSHOT);
+
+        bytes.reset();
+        backend.encode(bytes);
+        timer.mark(PhaseTimer.Phase.ENCODE);
+
+        sink.write(bytes, path);
+        timer.mark(PhaseTimer.Phase.WRITE);
+        timer.endIteration();
+    }
+
+    /**
+     * Writes a CSV report for a run: comment lines with the JVM properties
+     * and the garbage collection totals, followed by the phase rows written by
+     * {@link PhaseTimer#writeCsv(PrintWriter)}.
+     *
+     * @param timer  the timer.
+     * @param path  the report file.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static void writeReport(PhaseTimer timer, Path path) throws IOException {
+        long gcCount = 0L;
+        long gcTime = 0L;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0L, gc.getCollectionCount());
+            gcTime += Math.max(0L, gc.getCollectionTime());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("# java.runtime.version=" + System.getProperty("java.runtime.version"));
+            out.println("# java.vm.name=" + System.getProperty("java.vm.name"));
+            out.println("# gc.count=" + gcCount);
+            out.println("# gc.time=" + gcTime);
+            out.println("# heap.max=" + Runtime.getRuntime().maxMemory());
+            timer.writeCsv(out);
+        }
+    }
+
+    private BenchmarkHarness() {
+        // no-op
+    }
+
+    /**
+     * Runs the test sheet against the selected backends, one after the other.
+     * The arguments are backend names (all available backends if none are
+     * given) and the options {@code --warmup=N}, {@code --repeats=N},
+     * {@code --single}, {@code --sink=name} (see {@link OutputSink#NAMES}, or
+     * "all" to repeat the run for each sink), {@code --grid=N} or
+     * {@code --grid=CxR} (a scaled-up sheet, see {@link SheetGrid}),
+     * {@code --report=file} (a CSV report, only valid for a single backend and
+     * sink), {@code --tiles} (report the slowest tiles and write the per-tile
+     * times to "&lt;backend&gt;-tiles.csv") and {@code --threads=N} (run N
+     * instances of each backend at the same time, see
+     * {@link #runConcurrent(String, String, boolean, int, int, String, int)}).
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int warmups = DEFAULT_WARMUPS;
+        int repeats = DEFAULT_REPEATS;
+        boolean single = false;
+        boolean tiles = false;
+        int threads = 1;
+        String report = null;
+        final List<String> sinks = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--sink=")) {
+                final String sink = arg.substring("--sink=".length());
+                sinks.addAll(sink.equals("all") ? OutputSink.NAMES : Arrays.asList(sink));
+            } else if (arg.startsWith("--grid=")) {
+                System.setProperty(SheetGrid.PROPERTY, SheetGrid.parse(arg.substring("--grid=".length())).toString());
+            } else if (arg.startsWith("--report=")) {
+                report = arg.substring("--report=".length());
+            } else if (arg.startsWith("--warmup=")) {
+                warmups = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--repeats=")) {
+                repeats = Integer.parseInt(arg.substring("--repeats=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.equals("--tiles")) {
+                tiles = true;
+            } else if (arg.equals("--single")) {
+                single = true;
+            } else {
+                names.add(arg);
+            }
+        }
+        final List<Graphics2DBackend> backends = new ArrayList<>();
+        if (names.isEmpty()) {
+            backends.addAll(loadBackends());
+        } else {
+            for (String name : names) {
+                backends.add(findBackend(name));
+            }
+        }
+        if (sinks.isEmpty()) {
+            sinks.add(System.getProperty(OutputSink.PROPERTY, "file"));
+        }
+        if (report != null && (backends.size() != 1 || sinks.size() != 1)) {
+            throw new IllegalArgumentException("A report requires exactly one backend and one sink.");
+        }
+        if (threads > 1 && (report != null || tiles)) {
+            throw new IllegalArgumentException("A report and the tile times require a single thread.");
+        }
+        for (Graphics2DBackend backend : backends) {
+            for (String sink : sinks) {
+                System.out.println("Running " + backend.getName() + " (" + backend.getDescription() + ") with the "
+                        + sink + " sink" + (threads > 1 ? " on " + threads + " threads" : ""));
+                if (threads > 1) {
+                    runConcurrent(backend.getName(), backend.getName(), single, warmups, repeats, sink, threads);
+                    continue;
+                }
+                final TileTimer tileTimer = tiles ? new TileTimer() : null;
+                final PhaseTimer timer = run(backend, backend.getName(), single, warmups, repeats,
+                        OutputSink.create(sink), tileTimer);
+                if (report != null) {
+                    writeReport(timer, Paths.get(report));
+                }
+                if (tileTimer != null) {
+                    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(
+                            Paths.get(backend.getName() + "-tiles.csv"), StandardCharsets.UTF_8))) {
+                        tileTimer.writeCsv(out);
+                    }
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+}
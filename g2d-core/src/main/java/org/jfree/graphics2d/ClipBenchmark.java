@@ -0,0 +1,259 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A clip complexity suite, scaled up from the {@link ClippingTests}: chart
+ * panels (a background, a line series and a row of bars) drawn under clips
+ * of growing complexity - no clip, one rectangle, nested {@code clip()}
+ * intersections of rectangles and of ellipses from depth 1 to 32, single
+ * non-rectangular clips (an ellipse, an {@code Area} XOR and {@code Path2D}
+ * outlines with thousands of segments) and a {@code getClip()} /
+ * {@code clip()} / {@code setClip()} cycle for every bar.  A summary shows
+ * the time per panel of each level for each backend, relative to the panel
+ * with one rectangular clip (the unclipped panel draws more pixels), to find
+ * where the clip handling of a backend (path intersection, stencils) stops
+ * scaling.
+ */
+public final class ClipBenchmark {
+
+    /** The default number of panels drawn per iteration. */
+    static final int DEFAULT_PANELS = 100;
+
+    /** The nesting depths. */
+    static final int[] DEPTHS = {1, 2, 4, 8, 16, 32};
+
+    /** The panel width. */
+    static final int PANEL_WIDTH = 180;
+
+    /** The panel height. */
+    static final int PANEL_HEIGHT = 120;
+
+    private static final int BARS = 24;
+
+    /**
+     * Draws chart panels under a clip.
+     */
+    static final class ClipWorkload implements Workload {
+
+        private final String name;
+
+        /** The clips intersected for each panel (none for an unclipped panel). */
+        private final List<Shape> clips;
+
+        /** Clip each bar to its slot (with a save and restore of the clip). */
+        private final boolean clipBars;
+
+        private final int panels;
+
+        private final Path2D series;
+
+        /**
+         * Creates a workload.
+         *
+         * @param name  the name.
+         * @param clips  the clips intersected for each panel, in panel
+         *     coordinates.
+         * @param clipBars  clip each bar to its slot.
+         * @param panels  the number of panels per iteration.
+         */
+        ClipWorkload(String name, List<Shape> clips, boolean clipBars, int panels) {
+            this.name = name;
+            this.clips = clips;
+            this.clipBars = clipBars;
+            this.panels = panels;
+            this.series = new Path2D.Double();
+            for (int i = 0; i <= 100; i++) {
+                final double x = i * PANEL_WIDTH / 100.0;
+                final double y = PANEL_HEIGHT / 2.0 + 40 * Math.sin(i / 8.0) * Math.cos(i / 23.0);
+                if (i == 0) {
+                    this.series.moveTo(x, y);
+                } else {
+                    this.series.lineTo(x, y);
+                }
+            }
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getUnit() {
+            return "panels";
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            final int columns = Math.max(1, width / (PANEL_WIDTH + 10));
+            final int rows = Math.max(1, height / (PANEL_HEIGHT + 10));
+            final AffineTransform savedTransform = g2.getTransform();
+            final Shape savedClip = g2.getClip();
+            g2.setStroke(new BasicStroke(1.5f));
+            final double barWidth = (double) PANEL_WIDTH / BARS;
+            for (int i = 0; i < this.panels; i++) {
+                g2.setTransform(savedTransform);
+                g2.translate(5 + (i % columns) * (PANEL_WIDTH + 10),
+                        5 + ((i / columns) % rows) * (PANEL_HEIGHT + 10));
+                for (Shape clip : this.clips) {
+                    g2.clip(clip);
+                }
+                // the background overlaps the panel, so the clip has work to do:
+                g2.setPaint(Color.LIGHT_GRAY);
+                g2.fill(new Rectangle2D.Double(-20, -20, PANEL_WIDTH + 40, PANEL_HEIGHT + 40));
+                g2.setPaint(Color.BLUE);
+                for (int b = 0; b < BARS; b++) {
+                    final double h = 10 + (b * 37 + i * 11) % (PANEL_HEIGHT - 20);
+                    final Rectangle2D bar = new Rectangle2D.Double(b * barWidth + 1, PANEL_HEIGHT - h,
+                            barWidth - 2, h + 20);
+                    if (this.clipBars) {
+                        final Shape saved = g2.getClip();
+                        g2.clip(new Rectangle2D.Double(b * barWidth, 0, barWidth, PANEL_HEIGHT));
+                        g2.fill(bar);
+                        g2.setClip(saved);
+                    } else {
+                        g2.fill(bar);
+                    }
+                }
+                g2.setPaint(Color.RED);
+                g2.draw(this.series);
+                // the saved clip is in the coordinates of the saved transform:
+                g2.setTransform(savedTransform);
+                g2.setClip(savedClip);
+            }
+            return this.panels;
+        }
+    }
+
+    private ClipBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Returns a closed wavy outline around the centre of the panel.
+     *
+     * @param segments  the number of line segments.
+     *
+     * @return The outline.
+     */
+    static Path2D createWavyPath(int segments) {
+        final Path2D result = new Path2D.Double();
+        for (int i = 0; i < segments; i++) {
+            final double theta = 2 * Math.PI * i / segments;
+            final double r = 0.9 + 0.1 * Math.sin(24 * theta);
+            final double x = PANEL_WIDTH / 2.0 + r * PANEL_WIDTH / 2.0 * Math.cos(theta);
+            final double y = PANEL_HEIGHT / 2.0 + r * PANEL_HEIGHT / 2.0 * Math.sin(theta);
+            if (i == 0) {
+                result.moveTo(x, y);
+            } else {
+                result.lineTo(x, y);
+            }
+        }
+        result.closePath();
+        return result;
+    }
+
+    /**
+     * Creates the workloads of the suite.
+     *
+     * @param panels  the number of panels per iteration.
+     *
+     * @return The workloads.
+     */
+    static List<Workload> createWorkloads(int panels) {
+        final List<Workload> result = new ArrayList<>();
+        final Rectangle2D bounds = new Rectangle2D.Double(0, 0, PANEL_WIDTH, PANEL_HEIGHT);
+        result.add(new ClipWorkload("none", new ArrayList<>(), false, panels));
+        result.add(new ClipWorkload("rect", List.of(bounds), false, panels));
+        for (int depth : DEPTHS) {
+            final List<Shape> rects = new ArrayList<>();
+            final List<Shape> ellipses = new ArrayList<>();
+            for (int j = 0; j < depth; j++) {
+                rects.add(new Rectangle2D.Double(j, j * 0.5, PANEL_WIDTH - 2 * j, PANEL_HEIGHT - j));
+                // overlapping ellipses around the centre, so that each intersection changes the clip:
+                final double angle = 2 * Math.PI * j / depth;
+                ellipses.add(new Ellipse2D.Double(-20 + 10 * Math.cos(angle), -15 + 10 * Math.sin(angle),
+                        PANEL_WIDTH + 40, PANEL_HEIGHT + 30));
+            }
+            result.add(new ClipWorkload("nested-rect-" + depth, rects, false, panels));
+            result.add(new ClipWorkload("nested-ellipse-" + depth, ellipses, false, panels));
+        }
+        result.add(new ClipWorkload("ellipse", List.of(new Ellipse2D.Double(0, 0, PANEL_WIDTH, PANEL_HEIGHT)),
+                false, panels));
+        result.add(new ClipWorkload("area-xor", List.of(ShapeTests.createCombinedArea("exclusiveOr", bounds, 5.0)),
+                false, panels));
+        for (int segments : new int[] {100, 1000, 5000}) {
+            result.add(new ClipWorkload("path-" + segments, List.of(createWavyPath(segments)), false, panels));
+        }
+        result.add(new ClipWorkload("bars-restore", List.of(bounds), true, panels));
+        result.add(new ClipWorkload("bars-restore-ellipse",
+                List.of(new Ellipse2D.Double(0, 0, PANEL_WIDTH, PANEL_HEIGHT)), true, panels));
+        return result;
+    }
+
+    /**
+     * Prints the time per panel of each workload (rows) for each backend
+     * (columns), and its ratio to the panel with one rectangular clip.
+     *
+     * @param results  the suite results.
+     */
+    static void printClipSummary(List<WorkloadRunner.Result> results) {
+        final Map<String, WorkloadRunner.Result> rect = new HashMap<>();
+        for (WorkloadRunner.Result r : results) {
+            if (r.workload.equals("rect")) {
+                rect.put(r.backend, r);
+            }
+        }
+        System.out.println("Time per panel in microseconds (relative to one rectangle):");
+        WorkloadRunner.printPivot(results, "clip", r -> {
+            final double micros = 1000.0 * r.render / r.units;
+            final WorkloadRunner.Result base = rect.get(r.backend);
+            return base == null ? String.format(Locale.ROOT, "%.1f", micros)
+                    : String.format(Locale.ROOT, "%.1f (%.1fx)", micros, r.render / base.render);
+        });
+    }
+
+    /**
+     * Runs the clip suite.  The options are {@code --panels=N} (panels per
+     * iteration) and those of {@link WorkloadRunner#runSuite}; the report is
+     * written to {@code clips.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int panels = DEFAULT_PANELS;
+        final List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--panels=")) {
+                panels = Integer.parseInt(arg.substring("--panels=".length()));
+            } else {
+                rest.add(arg);
+            }
+        }
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("clips", createWorkloads(panels), rest);
+        printClipSummary(results);
+        System.exit(0);
+    }
+
+}
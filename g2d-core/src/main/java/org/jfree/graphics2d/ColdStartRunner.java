@@ -0,0 +1,344 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the time from JVM start to the first completed test sheet for
+ * each backend, in fresh child JVMs.  The child reports a breakdown of the
+ * startup (JVM boot, AWT init, font system init, backend creation including
+ * the native library load for Skija and Skiko, test preparation and the first
+ * sheet) with the number of classes loaded in each step; the parent measures
+ * the latency from process launch.  The runs can be repeated without CDS,
+ * with the default CDS archive and with an AppCDS archive that is built from
+ * a training run of the tester.
+ */
+public final class ColdStartRunner {
+
+    /** The startup steps reported by the child, in order. */
+    static final List<String> STEPS = Arrays.asList("jvm", "awt", "fonts", "backend", "prepare", "first-sheet");
+
+    /** The default number of fresh JVMs per backend and mode. */
+    static final int DEFAULT_RUNS = 5;
+
+    /**
+     * Records the startup steps in the child JVM.
+     */
+    private static final class StepRecorder {
+
+        private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+        private final Map<String, long[]> steps = new LinkedHashMap<>();
+
+        private long last;
+
+        private long lastClasses;
+
+        StepRecorder() {
+            // the JVM start time is only available in milliseconds
+            final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+            this.lastClasses = this.classLoading.getTotalLoadedClassCount();
+            this.steps.put("jvm", new long[]{(System.currentTimeMillis() - jvmStart) * 1000000L,
+                    this.lastClasses});
+            this.last = System.nanoTime();
+        }
+
+        void mark(String step) {
+            final long now = System.nanoTime();
+            final long classes = this.classLoading.getTotalLoadedClassCount();
+            this.steps.put(step, new long[]{now - this.last, classes - this.lastClasses});
+            this.lastClasses = classes;
+            this.last = System.nanoTime();
+        }
+    }
+
+    /**
+     * Runs the child side: starts up, draws the first test sheet with the
+     * specified backends (one after the other, so a training run can cover
+     * all backends) and writes a report for each backend.  Only the provider
+     * of each backend is instantiated, so the "backend" step does not include
+     * the class and native library loading of the other backends.
+     *
+     * @param backends  the backend names and class names.
+     * @param reportPrefix  the prefix for the report files.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static void runChild(Map<String, String> backends, String reportPrefix) throws IOException {
+        final StepRecorder recorder = new StepRecorder();
+
+        Toolkit.getDefaultToolkit();
+        final GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
+        recorder.mark("awt");
+
+        ge.getAvailableFontFamilyNames();
+        final BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g2 = scratch.createGraphics();
+        final FontMetrics fm = g2.getFontMetrics(new Font(Font.SERIF, Font.BOLD, 32));
+        fm.stringWidth("Graphics2D Tester");
+        g2.dispose();
+        recorder.mark("fonts");
+
+        for (Map.Entry<String, String> entry : backends.entrySet()) {
+            final String name = entry.getKey();
+            final Graphics2DBackend backend = BenchmarkHarness.createBackend(entry.getValue());
+            backend.create(Tester.getTestSheetWidth(), Tester.getTestSheetHeight());
+            recorder.mark("backend");
+
+            final Tester.TesterContext tc = Tester.prepareTestOutput(backend.getDescription(),
+                    backend.getLink(), false);
+            recorder.mark("prepare");
+
+            final PhaseTimer timer = new PhaseTimer(name, false);
+            BenchmarkHarness.runIteration(backend, tc, new ByteArrayOutputStream(1024 * 1024),
+                    OutputSink.fromSystemProperty(), Paths.get(name + "-coldstart." + backend.getFileExtension()),
+                    timer);
+            recorder.mark("first-sheet");
+            final long firstSheet = System.currentTimeMillis();
+            backend.dispose();
+
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(
+                    Paths.get(reportPrefix + name + ".csv"), StandardCharsets.UTF_8))) {
+                out.println("# java.runtime.version=" + System.getProperty("java.runtime.version"));
+                out.println("# first.sheet.epoch=" + firstSheet);
+                for (Map.Entry<String, long[]> step : recorder.steps.entrySet()) {
+                    out.println(String.format(Locale.ROOT, "%s,%s,%.3f,%d", name, step.getKey(),
+                            1e-6d * step.getValue()[0], step.getValue()[1]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs one fresh child JVM.
+     *
+     * @return The result, or {@code null} if the child failed.
+     */
+    private static ForkedRunner.Result launchChild(String jdk, List<String> flags, String classPath,
+            Map<String, String> backends, String prefix, Path workDir) throws IOException, InterruptedException {
+        final List<String> names = new ArrayList<>(backends.keySet());
+        final List<String> childArgs = new ArrayList<>();
+        for (Map.Entry<String, String> entry : backends.entrySet()) {
+            childArgs.add(entry.getKey() + ":" + entry.getValue());
+        }
+        final List<String> command = new ArrayList<>();
+        command.add(ForkedRunner.javaCommand(jdk));
+        command.addAll(flags);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(ColdStartRunner.class.getName());
+        command.add("--child=" + String.join(",", childArgs));
+        command.add("--report-prefix=" + prefix);
+
+        final Path log = workDir.resolve(prefix + "log");
+        final long launch = System.currentTimeMillis();
+        final int exitCode = ForkedRunner.launch(command, workDir, log);
+        final Path report = workDir.resolve(prefix + names.get(0) + ".csv");
+        if (exitCode != 0 || !Files.exists(report)) {
+            System.err.println("Child " + prefix + " failed (exit code " + exitCode + "), see " + log);
+            return null;
+        }
+        final ForkedRunner.Result result = ForkedRunner.readReport(
+                new ForkedRunner.Result(jdk, String.join(" ", flags), names.get(0)), report);
+        final long firstSheet = Long.parseLong(result.properties.get("first.sheet.epoch"));
+        result.properties.put("launch.latency", String.valueOf(firstSheet - launch));
+        return result;
+    }
+
+    /**
+     * Builds an AppCDS archive from a training run that draws the first
+     * sheet with all the specified backends.
+     *
+     * @return {@code true} if the archive was created.
+     */
+    private static boolean buildArchive(String jdk, List<String> flags, String classPath,
+            Map<String, String> backends, Path archive, Path workDir) throws IOException, InterruptedException {
+        System.out.println("Training run for the AppCDS archive " + archive);
+        final List<String> trainingFlags = new ArrayList<>(flags);
+        trainingFlags.add("-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath());
+        launchChild(jdk, trainingFlags, classPath, backends, "training-", workDir);
+        return Files.exists(archive);
+    }
+
+    private static double median(List<Double> values) {
+        final double[] sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        return sorted.length == 0 ? Double.NaN : sorted[(sorted.length - 1) / 2];
+    }
+
+    private ColdStartRunner() {
+        // no-op
+    }
+
+    /**
+     * Runs the cold-start benchmark.  The arguments are backend names (all
+     * backends on the classpath if none are given) and the options
+     * {@code --runs=N} (fresh JVMs per backend and mode), {@code --appcds=file}
+     * (an AppCDS archive, built with a training run if the file does not
+     * exist), {@code --jdk=path}, {@code --flags="..."}, {@code --cp=classpath}
+     * and {@code --out=dir} (default "coldstart").
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws Exception if there is a problem.
+     */
+    public static void main(String[] args) throws Exception {
+        String child = null;
+        String reportPrefix = "";
+        int runs = DEFAULT_RUNS;
+        String appCds = null;
+        String jdk = System.getProperty("java.home");
+        String flagSet = ForkedRunner.COMMON_FLAGS;
+        String classPath = System.getProperty("java.class.path");
+        Path workDir = Paths.get("coldstart");
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--child=")) {
+                child = arg.substring("--child=".length());
+            } else if (arg.startsWith("--report-prefix=")) {
+                reportPrefix = arg.substring("--report-prefix=".length());
+            } else if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--appcds=")) {
+                appCds = arg.substring("--appcds=".length());
+            } else if (arg.startsWith("--jdk=")) {
+                jdk = arg.substring("--jdk=".length());
+            } else if (arg.startsWith("--flags=")) {
+                flagSet = arg.substring("--flags=".length());
+            } else if (arg.startsWith("--cp=")) {
+                classPath = arg.substring("--cp=".length());
+            } else if (arg.startsWith("--out=")) {
+                workDir = Paths.get(arg.substring("--out=".length()));
+            } else {
+                names.add(arg);
+            }
+        }
+        if (child != null) {
+            final Map<String, String> backends = new LinkedHashMap<>();
+            for (String pair : child.split(",")) {
+                final int colon = pair.indexOf(':');
+                backends.put(pair.substring(0, colon), pair.substring(colon + 1));
+            }
+            runChild(backends, reportPrefix);
+            System.exit(0);
+        }
+
+        // the child JVMs create each backend from its class name:
+        final Map<String, String> types = new LinkedHashMap<>();
+        if (names.isEmpty()) {
+            for (Graphics2DBackend backend : BenchmarkHarness.loadBackends()) {
+                names.add(backend.getName());
+                types.put(backend.getName(), backend.getClass().getName());
+            }
+        } else {
+            for (String name : names) {
+                types.put(name, BenchmarkHarness.findBackend(name).getClass().getName());
+            }
+        }
+        classPath = ForkedRunner.absoluteClassPath(classPath);
+        Files.createDirectories(workDir);
+        final List<String> flags = ForkedRunner.splitFlags(flagSet);
+
+        // the modes (name to extra JVM options):
+        final Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("no-cds", Arrays.asList("-Xshare:off"));
+        modes.put("cds", new ArrayList<>());
+        if (appCds != null) {
+            final Path archive = Paths.get(appCds).toAbsolutePath();
+            if (Files.exists(archive) || buildArchive(jdk, flags, classPath, types, archive, workDir)) {
+                modes.put("appcds", Arrays.asList("-XX:SharedArchiveFile=" + archive));
+            } else {
+                System.err.println("The AppCDS archive " + archive + " could not be built, skipping.");
+            }
+        }
+
+        final String format = "%-14s %-8s %5s %10s" + " %10s".repeat(STEPS.size()) + " %8s";
+        final List<Object> header = new ArrayList<>(Arrays.asList("backend", "mode", "runs", "launch"));
+        header.addAll(STEPS);
+        header.add("classes");
+        final List<String> table = new ArrayList<>();
+        table.add(String.format(Locale.ROOT, format, header.toArray()));
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(workDir.resolve("coldstart-report.csv"),
+                StandardCharsets.UTF_8))) {
+            out.println("backend,mode,run,java.runtime.version,launch.latency," + String.join(",", STEPS)
+                    + ",classes");
+            for (String name : names) {
+                for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                    final List<String> modeFlags = new ArrayList<>(flags);
+                    modeFlags.addAll(mode.getValue());
+                    final List<Double> latencies = new ArrayList<>();
+                    final Map<String, List<Double>> stepTimes = new LinkedHashMap<>();
+                    final List<Double> classes = new ArrayList<>();
+                    for (int run = 0; run < runs; run++) {
+                        final String prefix = mode.getKey() + "-" + run + "-";
+                        System.out.println("Cold start " + name + " (" + mode.getKey() + ") #" + run);
+                        final ForkedRunner.Result result = launchChild(jdk, modeFlags, classPath,
+                                Collections.singletonMap(name, types.get(name)), prefix, workDir);
+                        if (result == null) {
+                            continue;
+                        }
+                        final double latency = Double.parseDouble(result.properties.get("launch.latency"));
+                        latencies.add(latency);
+                        final StringBuilder row = new StringBuilder();
+                        row.append(name).append(',').append(mode.getKey()).append(',').append(run).append(',')
+                                .append(result.properties.get("java.runtime.version")).append(',')
+                                .append(latency);
+                        long classCount = 0L;
+                        for (String step : STEPS) {
+                            final String[] stepRow = result.getRow(step);
+                            final double ms = stepRow != null ? Double.parseDouble(stepRow[2]) : Double.NaN;
+                            stepTimes.computeIfAbsent(step, k -> new ArrayList<>()).add(ms);
+                            classCount += stepRow != null ? Long.parseLong(stepRow[3]) : 0L;
+                            row.append(',').append(stepRow != null ? stepRow[2] : "");
+                        }
+                        classes.add((double) classCount);
+                        out.println(row.append(',').append(classCount));
+                    }
+                    final List<Object> cells = new ArrayList<>(Arrays.asList(name, mode.getKey(),
+                            latencies.size(), format(median(latencies))));
+                    for (String step : STEPS) {
+                        cells.add(format(median(stepTimes.getOrDefault(step, new ArrayList<>()))));
+                    }
+                    cells.add(String.format(Locale.ROOT, "%.0f", median(classes)));
+                    table.add(String.format(Locale.ROOT, format, cells.toArray()));
+                }
+            }
+        }
+        System.out.println("Median time to first sheet [ms] (launch = process launch to first sheet):");
+        for (String line : table) {
+            System.out.println(line);
+        }
+        System.out.println("Report written to " + workDir.resolve("coldstart-report.csv"));
+        System.exit(0);
+    }
+
+    private static String format(double ms) {
+        return Double.isNaN(ms) ? "-" : String.format(Locale.ROOT, "%.1f", ms);
+    }
+
+}
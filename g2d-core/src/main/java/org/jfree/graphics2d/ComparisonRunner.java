@@ -0,0 +1,187 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares all the backends on the classpath within one JVM.  The test
+ * context (QR code, charts, image and Swing UI) is prepared once and shared,
+ * and the backends are run in interleaved rounds (with a rotating start
+ * backend) so that thermal and CPU frequency drift affect all of them alike.
+ * The result is a single table of median phase times.
+ */
+public final class ComparisonRunner {
+
+    /** The default number of warmup iterations per backend. */
+    static final int DEFAULT_WARMUPS = 5;
+
+    /** The default number of rounds. */
+    static final int DEFAULT_ROUNDS = 10;
+
+    /** The default number of iterations per backend in each round. */
+    static final int DEFAULT_ITERATIONS = 2;
+
+    /** The link for the shared QR code. */
+    static final String LINK = "https://github.com/jfree/graphics2d-tester";
+
+    /** The phases shown in the comparison table. */
+    private static final PhaseTimer.Phase[] TABLE_PHASES = {
+        PhaseTimer.Phase.CLEAR, PhaseTimer.Phase.DRAW, PhaseTimer.Phase.SWING, PhaseTimer.Phase.FLUSH,
+        PhaseTimer.Phase.SNAPSHOT, PhaseTimer.Phase.ENCODE, PhaseTimer.Phase.WRITE
+    };
+
+    /**
+     * Runs the comparison.
+     *
+     * @param backends  the backends ({@code null} not permitted).
+     * @param single  run the current single test?
+     * @param warmups  the number of warmup iterations per backend.
+     * @param rounds  the number of rounds.
+     * @param iterations  the number of iterations per backend in each round.
+     * @param sink  the output sink.
+     *
+     * @return The timers (one per backend, in the same order as the backends).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static List<PhaseTimer> compare(List<Graphics2DBackend> backends, boolean single,
+            int warmups, int rounds, int iterations, OutputSink sink) throws IOException {
+        final long startTime = System.nanoTime();
+        final Tester.TesterContext shared = Tester.prepareTestOutput("(shared)", LINK, single);
+        System.out.println("Shared preparation = " + 1e-6d * (System.nanoTime() - startTime) + " ms.");
+        shared.setGrid(SheetGrid.fromSystemProperty());
+
+        final int n = backends.size();
+        final List<Tester.TesterContext> contexts = new ArrayList<>(n);
+        final List<PhaseTimer> timers = new ArrayList<>(n);
+        final List<Path> paths = new ArrayList<>(n);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 * 1024);
+        try {
+            for (Graphics2DBackend backend : backends) {
+                final PhaseTimer timer = new PhaseTimer(BenchmarkHarness.targetName(backend, sink, shared.getGrid()), false);
+                timer.start();
+                backend.create(shared.getGrid().getWidth(), shared.getGrid().getHeight());
+                timer.mark(PhaseTimer.Phase.PREPARE);
+                timers.add(timer);
+                contexts.add(shared.forTarget(backend.getDescription()));
+                paths.add(Paths.get(backend.getName() + "-compare" + (single ? "-single." : ".")
+                        + backend.getFileExtension()));
+            }
+            for (int i = 0; i < n; i++) {
+                final PhaseTimer warmupTimer = new PhaseTimer(backends.get(i).getName() + " warmup", false);
+                for (int w = 0; w < warmups; w++) {
+                    BenchmarkHarness.runIteration(backends.get(i), contexts.get(i), bytes, sink, paths.get(i),
+                            warmupTimer);
+                }
+            }
+            for (int r = 0; r < rounds; r++) {
+                for (int k = 0; k < n; k++) {
+                    final int i = (r + k) % n;
+                    for (int j = 0; j < iterations; j++) {
+                        BenchmarkHarness.runIteration(backends.get(i), contexts.get(i), bytes, sink, paths.get(i),
+                                timers.get(i));
+                    }
+                }
+                System.out.println("Round " + (r + 1) + "/" + rounds + " done.");
+            }
+        } finally {
+            for (Graphics2DBackend backend : backends) {
+                backend.dispose();
+            }
+        }
+        printTable(timers);
+        return timers;
+    }
+
+    /**
+     * Prints the comparison table (median times in milliseconds) to
+     * {@code System.out}.  The last column is the median total relative to
+     * the first backend (the Java2D reference when all backends are loaded).
+     *
+     * @param timers  the timers.
+     */
+    static void printTable(List<PhaseTimer> timers) {
+        final StringBuilder header = new StringBuilder(String.format(Locale.ROOT, "%-14s %5s %9s", "backend", "n", "create"));
+        for (PhaseTimer.Phase phase : TABLE_PHASES) {
+            header.append(String.format(Locale.ROOT, " %9s", phase.getLabel()));
+        }
+        header.append(String.format(Locale.ROOT, " %9s %9s %7s", "total", "p90", "ratio"));
+        System.out.println("Comparison (median [ms]):");
+        System.out.println(header);
+        final double reference = timers.get(0).getTotalPercentile(50);
+        for (PhaseTimer timer : timers) {
+            final StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%-14s %5d %9s",
+                    timer.getTarget(), timer.getIterationCount(), format(timer.getPercentile(PhaseTimer.Phase.PREPARE, 50))));
+            for (PhaseTimer.Phase phase : TABLE_PHASES) {
+                row.append(String.format(Locale.ROOT, " %9s", format(timer.getPercentile(phase, 50))));
+            }
+            final double total = timer.getTotalPercentile(50);
+            row.append(String.format(Locale.ROOT, " %9s %9s %7.2f", format(total),
+                    format(timer.getTotalPercentile(90)), total / reference));
+            System.out.println(row);
+        }
+    }
+
+    private static String format(double millis) {
+        return Double.isNaN(millis) ? "-" : String.format(Locale.ROOT, "%.3f", millis);
+    }
+
+    private ComparisonRunner() {
+        // no-op
+    }
+
+    /**
+     * Compares the selected backends.  The arguments are backend names (all
+     * available backends if none are given) and the options
+     * {@code --warmup=N}, {@code --rounds=N}, {@code --iterations=N},
+     * {@code --single} and {@code --sink=name} (see {@link OutputSink#NAMES}).
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int warmups = DEFAULT_WARMUPS;
+        int rounds = DEFAULT_ROUNDS;
+        int iterations = DEFAULT_ITERATIONS;
+        boolean single = false;
+        String sink = System.getProperty(OutputSink.PROPERTY, "file");
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--sink=")) {
+                sink = arg.substring("--sink=".length());
+            } else if (arg.startsWith("--warmup=")) {
+                warmups = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--rounds=")) {
+                rounds = Integer.parseInt(arg.substring("--rounds=".length()));
+            } else if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(arg.substring("--iterations=".length()));
+            } else if (arg.equals("--single")) {
+                single = true;
+            } else {
+                names.add(arg);
+            }
+        }
+        final List<Graphics2DBackend> backends = new ArrayList<>();
+        if (names.isEmpty()) {
+            backends.addAll(BenchmarkHarness.loadBackends());
+        } else {
+            for (String name : names) {
+                backends.add(BenchmarkHarness.findBackend(name));
+            }
+        }
+        compare(backends, single, warmups, rounds, iterations, OutputSink.create(sink));
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.io.IOException;
+
+/**
+ * Implemented by backends whose encoded output can be deflate-compressed at
+ * a selectable level (for example SVGZ for SVG, or the content streams of a
+ * PDF), so that the {@link CompressionRunner} can report the size against the
+ * encode and decode times for each level.
+ */
+public interface CompressedOutput {
+
+    /** The level that selects the default output of the backend. */
+    int DEFAULT_LEVEL = -1;
+
+    /**
+     * Returns the compression level.
+     *
+     * @return The level (0 to 9, or {@link #DEFAULT_LEVEL}).
+     */
+    int getCompressionLevel();
+
+    /**
+     * Sets the compression level for the following calls to
+     * {@link Graphics2DBackend#reset()} and
+     * {@link Graphics2DBackend#encode(java.io.OutputStream)}.
+     *
+     * @param level  the level (0 to 9, as for {@code java.util.zip.Deflater},
+     *     or {@link #DEFAULT_LEVEL}).
+     */
+    void setCompressionLevel(int level);
+
+    /**
+     * Decompresses encoded output, as a client has to before it can parse
+     * the document.
+     *
+     * @param encoded  the output written by
+     *     {@link Graphics2DBackend#encode(java.io.OutputStream)}.
+     *
+     * @return The number of decompressed bytes.
+     *
+     * @throws IOException if the output cannot be decompressed.
+     */
+    long decode(byte[] encoded) throws IOException;
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reports the size of the output against the encode and decode times for
+ * each compression level (0 to 9) of the backends that implement
+ * {@link CompressedOutput}, on the regular and on scaled-up sheets (see
+ * {@link SheetGrid}).  The last output for each level is written to the
+ * directory "compression" (with the report {@code compression-report.csv}),
+ * the decode time is the time a client needs to decompress the output.
+ */
+public final class CompressionRunner {
+
+    /** The default number of warmup iterations per level. */
+    static final int DEFAULT_WARMUPS = 2;
+
+    /** The default number of measured iterations per level. */
+    static final int DEFAULT_REPEATS = 5;
+
+    /**
+     * The result for one backend, grid and level.
+     */
+    static final class Result {
+
+        final String backend;
+
+        final SheetGrid grid;
+
+        final int level;
+
+        final long bytes;
+
+        final long decodedBytes;
+
+        final double encode;
+
+        final double decode;
+
+        final double total;
+
+        Result(String backend, SheetGrid grid, int level, long bytes, long decodedBytes,
+                double encode, double decode, double total) {
+            this.backend = backend;
+            this.grid = grid;
+            this.level = level;
+            this.bytes = bytes;
+            this.decodedBytes = decodedBytes;
+            this.encode = encode;
+            this.decode = decode;
+            this.total = total;
+        }
+    }
+
+    /**
+     * Runs one backend at each level on one grid.
+     *
+     * @param backend  the backend (must implement {@link CompressedOutput}).
+     * @param tc  the tester context (with the grid set).
+     * @param levels  the compression levels.
+     * @param warmups  the number of warmup iterations per level.
+     * @param repeats  the number of measured iterations per level.
+     * @param workDir  the directory for the output files.
+     *
+     * @return The results (one per level).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static List<Result> run(Graphics2DBackend backend, Tester.TesterContext tc, int[] levels,
+            int warmups, int repeats, Path workDir) throws IOException {
+        final CompressedOutput compressed = (CompressedOutput) backend;
+        final SheetGrid grid = tc.getGrid();
+        final OutputSink sink = OutputSink.create("file");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 * 1024);
+        final List<Result> results = new ArrayList<>();
+        final int saved = compressed.getCompressionLevel();
+        backend.create(grid.getWidth(), grid.getHeight());
+        try {
+            for (int level : levels) {
+                compressed.setCompressionLevel(level);
+                final Path path = workDir.resolve(backend.getName() + "-" + grid + "-L" + level + "."
+                        + backend.getFileExtension());
+                final PhaseTimer warmupTimer = new PhaseTimer(backend.getName() + " warmup", false);
+                for (int i = 0; i < warmups; i++) {
+                    BenchmarkHarness.runIteration(backend, tc, bytes, sink, path, warmupTimer);
+                }
+                final PhaseTimer timer = new PhaseTimer(backend.getName() + "@" + grid + " L" + level, false);
+                for (int i = 0; i < repeats; i++) {
+                    BenchmarkHarness.runIteration(backend, tc, bytes, sink, path, timer);
+                }
+                final byte[] encoded = bytes.toByteArray();
+                final long[] decodeTimes = new long[Math.max(1, repeats)];
+                long decoded = 0L;
+                for (int i = 0; i < decodeTimes.length; i++) {
+                    final long start = System.nanoTime();
+                    decoded = compressed.decode(encoded);
+                    decodeTimes[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(decodeTimes);
+                results.add(new Result(backend.getName(), grid, level, encoded.length, decoded,
+                        timer.getPercentile(PhaseTimer.Phase.ENCODE, 50),
+                        1e-6d * PhaseTimer.percentile(decodeTimes, 50), timer.getTotalPercentile(50)));
+            }
+        } finally {
+            compressed.setCompressionLevel(saved);
+            backend.dispose();
+        }
+        return results;
+    }
+
+    /**
+     * Prints the results as a table, with the size relative to the decoded
+     * output.
+     *
+     * @param results  the results.
+     */
+    static void printTable(List<Result> results) {
+        System.out.println(String.format(Locale.ROOT, "%-16s %-6s %5s %12s %7s %12s %12s %12s",
+                "backend", "grid", "level", "bytes", "ratio", "encode [ms]", "decode [ms]", "total [ms]"));
+        for (Result r : results) {
+            System.out.println(String.format(Locale.ROOT, "%-16s %-6s %5d %12d %7.3f %12.3f %12.3f %12.3f",
+                    r.backend, r.grid, r.level, r.bytes, r.decodedBytes > 0 ? (double) r.bytes / r.decodedBytes : 1.0,
+                    r.encode, r.decode, r.total));
+        }
+    }
+
+    /**
+     * Writes the results as CSV.
+     *
+     * @param results  the results.
+     * @param path  the report file.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static void writeReport(List<Result> results, Path path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("backend,grid,level,bytes,decoded_bytes,encode_p50,decode_p50,total_p50");
+            for (Result r : results) {
+                out.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.4f,%.4f,%.4f", r.backend, r.grid,
+                        r.level, r.bytes, r.decodedBytes, r.encode, r.decode, r.total));
+            }
+        }
+    }
+
+    /**
+     * Parses a list of levels ("0-9", or "0,1,6,9").
+     *
+     * @param spec  the specification.
+     *
+     * @return The levels.
+     */
+    static int[] parseLevels(String spec) {
+        final int dash = spec.indexOf('-');
+        if (dash > 0) {
+            final int from = Integer.parseInt(spec.substring(0, dash));
+            final int to = Integer.parseInt(spec.substring(dash + 1));
+            final int[] result = new int[to - from + 1];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = from + i;
+            }
+            return result;
+        }
+        return Arrays.stream(spec.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private CompressionRunner() {
+        // no-op
+    }
+
+    /**
+     * Runs the compression report.  The arguments are backend names (all
+     * available backends that implement {@link CompressedOutput} if none are
+     * given) and the options {@code --levels=0-9} (a range or a list),
+     * {@code --grid=1,4} (the grids, see {@link SheetGrid#parse(String)}),
+     * {@code --warmup=N} and {@code --repeats=N}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int warmups = DEFAULT_WARMUPS;
+        int repeats = DEFAULT_REPEATS;
+        int[] levels = parseLevels("0-9");
+        String grids = "1,4";
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--levels=")) {
+                levels = parseLevels(arg.substring("--levels=".length()));
+            } else if (arg.startsWith("--grid=")) {
+                grids = arg.substring("--grid=".length());
+            } else if (arg.startsWith("--warmup=")) {
+                warmups = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--repeats=")) {
+                repeats = Integer.parseInt(arg.substring("--repeats=".length()));
+            } else {
+                names.add(arg);
+            }
+        }
+        final List<Graphics2DBackend> backends = new ArrayList<>();
+        if (names.isEmpty()) {
+            for (Graphics2DBackend backend : BenchmarkHarness.loadBackends()) {
+                if (backend instanceof CompressedOutput) {
+                    backends.add(backend);
+                }
+            }
+        } else {
+            for (String name : names) {
+                final Graphics2DBackend backend = BenchmarkHarness.findBackend(name);
+                if (!(backend instanceof CompressedOutput)) {
+                    throw new IllegalArgumentException("The backend '" + name + "' has no compressed output.");
+                }
+                backends.add(backend);
+            }
+        }
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("No backend with compressed output on the classpath.");
+        }
+        final Path workDir = Paths.get("compression");
+        Files.createDirectories(workDir);
+        final Tester.TesterContext shared = Tester.prepareTestOutput("(shared)", ComparisonRunner.LINK, false);
+        final List<Result> results = new ArrayList<>();
+        for (String spec : grids.split(",")) {
+            final SheetGrid grid = SheetGrid.parse(spec);
+            for (Graphics2DBackend backend : backends) {
+                System.out.println("Running " + backend.getName() + " on the " + grid + " sheet");
+                final Tester.TesterContext tc = shared.forTarget(backend.getDescription());
+                tc.setGrid(grid);
+                results.addAll(run(backend, tc, levels, warmups, repeats, workDir));
+            }
+        }
+        printTable(results);
+        writeReport(results, workDir.resolve("compression-report.csv"));
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A dashed stroke suite, scaled up from the dashed strokes of the
+ * {@link Tester} ({@code DASHED} is 2/2, {@code DASHED_3} is 4/8) and
+ * {@link ShapeTests#drawLineCapAndDash}: serpentine polylines and grid
+ * lines drawn with one parameter of the stroke changed at a time from a
+ * base case (a 2/2 dash, width 1, butt caps and miter joins, phase 0 and a
+ * polyline of 1000 segments) - the dash period from 0.1 to 100 units, the
+ * width, the caps and joins, the phase (fixed and changing for every draw,
+ * as for "marching ants") and the path length from single lines to 100000
+ * segments.  The units are the user space length of the stroked paths, so
+ * the rate is comparable across path lengths, and a summary shows the time
+ * and the output size of each case for each backend, to find where fine
+ * dashes on long paths blow up the vertex count or the document size.
+ */
+public final class DashBenchmark {
+
+    /** The length of the segments of the polylines. */
+    static final double SEGMENT_LENGTH = 5.0;
+
+    /** The minimum number of segments drawn per iteration. */
+    static final int MIN_SEGMENTS = 10000;
+
+    /**
+     * Draws a polyline (repeated to at least {@link #MIN_SEGMENTS} segments)
+     * or a grid of separate lines with a stroke.  The geometry is built in
+     * {@link #prepare} for the size of the target of the runner (the test
+     * sheet), and again in the first run if the target has another size.
+     */
+    static final class DashWorkload implements Workload {
+
+        private final String name;
+
+        private final BasicStroke stroke;
+
+        private final int segments;
+
+        /** Draw each segment as a separate line (grid lines). */
+        private final boolean lines;
+
+        /** Change the dash phase for every draw. */
+        private final boolean animatePhase;
+
+        private Path2D path;
+
+        private List<Line2D> grid;
+
+        /** The user space length of the polyline or of all the grid lines. */
+        private double length;
+
+        /** The target width the geometry was built for. */
+        private int width;
+
+        /** The target height the geometry was built for. */
+        private int height;
+
+        /**
+         * Creates a workload.
+         *
+         * @param name  the name.
+         * @param stroke  the stroke.
+         * @param segments  the number of segments of the polyline (or the
+         *     number of grid lines).
+         * @param lines  draw separate lines instead of a polyline.
+         * @param animatePhase  change the dash phase for every draw.
+         */
+        DashWorkload(String name, BasicStroke stroke, int segments, boolean lines, boolean animatePhase) {
+            this.name = name;
+            this.stroke = stroke;
+            this.segments = segments;
+            this.lines = lines;
+            this.animatePhase = animatePhase;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getUnit() {
+            return "units";
+        }
+
+        @Override
+        public void prepare(Tester.TesterContext tc) {
+            createGeometry(Tester.getTestSheetWidth(), Tester.getTestSheetHeight());
+        }
+
+        /**
+         * Creates the polyline or the grid lines for the size of the target,
+         * and measures their length.
+         */
+        private void createGeometry(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.length = 0.0;
+            if (this.lines) {
+                this.grid = new ArrayList<>(this.segments);
+                for (int i = 0; i < this.segments; i++) {
+                    final double y = 10 + (i * 7) % (height - 20);
+                    final Line2D line = new Line2D.Double(10, y, width - 10, y);
+                    this.grid.add(line);
+                    this.length += line.getP1().distance(line.getP2());
+                }
+                return;
+            }
+            // a serpentine that stays inside the target, with a small zigzag so that the joins matter:
+            this.path = new Path2D.Double();
+            final int perRow = (int) ((width - 20) / SEGMENT_LENGTH);
+            double prevX = 10;
+            double prevY = 10;
+            this.path.moveTo(prevX, prevY);
+            for (int i = 1; i <= this.segments; i++) {
+                final int row = i / perRow;
+                final int col = i % perRow;
+                final double x = 10 + SEGMENT_LENGTH * ((row % 2 == 0) ? col : perRow - col);
+                final double y = 10 + (row * 9) % (height - 30) + ((i % 2 == 0) ? 0 : 3);
+                this.path.lineTo(x, y);
+                this.length += Math.hypot(x - prevX, y - prevY);
+                prevX = x;
+                prevY = y;
+            }
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            if (width != this.width || height != this.height) {
+                createGeometry(width, height);
+            }
+            g2.setPaint(Color.BLACK);
+            final int draws = this.lines ? 1 : Math.max(1, MIN_SEGMENTS / this.segments);
+            for (int i = 0; i < draws; i++) {
+                BasicStroke s = this.stroke;
+                if (this.animatePhase) {
+                    s = new BasicStroke(s.getLineWidth(), s.getEndCap(), s.getLineJoin(), s.getMiterLimit(),
+                            s.getDashArray(), i * 0.25f);
+                }
+                g2.setStroke(s);
+                if (this.lines) {
+                    for (Line2D line : this.grid) {
+                        g2.draw(line);
+                    }
+                } else {
+                    g2.draw(this.path);
+                }
+            }
+            return Math.round(draws * this.length);
+        }
+    }
+
+    private DashBenchmark() {
+        // no-op
+    }
+
+    private static BasicStroke dashed(float width, int cap, int join, float period, float phase) {
+        return new BasicStroke(width, cap, join, 10f, new float[] {period / 2, period / 2}, phase);
+    }
+
+    /**
+     * Creates the workloads of the suite.
+     *
+     * @return The workloads.
+     */
+    static List<Workload> createWorkloads() {
+        final int base = 1000;
+        final List<Workload> result = new ArrayList<>();
+        result.add(new DashWorkload("solid", new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER),
+                base, false, false));
+        for (float period : new float[] {0.1f, 0.5f, 1f, 4f, 20f, 100f}) {
+            result.add(new DashWorkload("period-" + period, dashed(1f, BasicStroke.CAP_BUTT,
+                    BasicStroke.JOIN_MITER, period, 0f), base, false, false));
+        }
+        for (float width : new float[] {0.5f, 3f, 10f}) {
+            result.add(new DashWorkload("width-" + width, dashed(width, BasicStroke.CAP_BUTT,
+                    BasicStroke.JOIN_MITER, 4f, 0f), base, false, false));
+        }
+        result.add(new DashWorkload("cap-round-join-round", dashed(3f, BasicStroke.CAP_ROUND,
+                BasicStroke.JOIN_ROUND, 4f, 0f), base, false, false));
+        result.add(new DashWorkload("cap-square-join-bevel", dashed(3f, BasicStroke.CAP_SQUARE,
+                BasicStroke.JOIN_BEVEL, 4f, 0f), base, false, false));
+        result.add(new DashWorkload("phase-1.3", dashed(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 4f,
+                1.3f), base, false, false));
+        result.add(new DashWorkload("phase-animated", dashed(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 4f,
+                0f), base, false, true));
+        for (int segments : new int[] {1, 10, 100, 10000, 100000}) {
+            result.add(new DashWorkload("segments-" + segments, dashed(1f, BasicStroke.CAP_BUTT,
+                    BasicStroke.JOIN_MITER, 4f, 0f), segments, false, false));
+        }
+        result.add(new DashWorkload("gridlines-1000", dashed(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 4f,
+                0f), 1000, true, false));
+        result.add(new DashWorkload("gridlines-1000-fine", dashed(1f, BasicStroke.CAP_BUTT,
+                BasicStroke.JOIN_MITER, 0.5f, 0f), 1000, true, false));
+        // the combination that explodes the dash count: 0.1 unit dashes along a 500000 unit path:
+        result.add(new DashWorkload("fine-long", dashed(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 0.1f,
+                0f), 100000, false, false));
+        return result;
+    }
+
+    /**
+     * Prints the time per 1000 units and the output size of each workload
+     * (rows) for each backend (columns).
+     *
+     * @param results  the suite results.
+     */
+    static void printDashSummary(List<WorkloadRunner.Result> results) {
+        System.out.println("Microseconds per 1000 units of path and output size:");
+        WorkloadRunner.printPivot(results, "stroke", r -> String.format(Locale.ROOT, "%.1f us %.0f KB",
+                1e6 * r.render / r.units, r.bytes / 1024.0));
+    }
+
+    /**
+     * Runs the dash suite.  The options are those of
+     * {@link WorkloadRunner#runSuite}; the report is written to
+     * {@code dashes.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("dashes", createWorkloads(),
+                Arrays.asList(args));
+        printDashSummary(results);
+        System.exit(0);
+    }
+
+}
@@ -10,8 +10,10 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
 import java.awt.font.LineMetrics;
 import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
 import java.text.AttributedString;
@@ -136,6 +138,16 @@ public class FontTests {
      * @param bounds  the cell bounds.
      */
     public static void drawAttributedString(Graphics2D g2, Rectangle2D bounds) {
+        drawLines(g2, bounds, createAttributedStrings());
+    }
+
+    /**
+     * Creates the strings for {@link #drawAttributedString(Graphics2D, Rectangle2D)}.
+     *
+     * @return The strings (superscript and bold, underline and strikethrough,
+     *     subscript and oblique).
+     */
+    static AttributedString[] createAttributedStrings() {
 
         AttributedString test1 = new AttributedString("test superscript and bold");
         test1.addAttribute(TextAttribute.SIZE, 14, 0, 25);
@@ -154,9 +166,7 @@ public class FontTests {
         test3.addAttribute(TextAttribute.POSTURE, TextAttribute.POSTURE_OBLIQUE, 19, 26);
         test3.addAttribute(TextAttribute.SUPERSCRIPT, TextAttribute.SUPERSCRIPT_SUB, 19, 26);
 
-        g2.drawString(test1.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 20f);
-        g2.drawString(test2.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 40f);
-        g2.drawString(test3.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 60f);
+        return new AttributedString[] {test1, test2, test3};
     }
 
     /**
@@ -166,6 +176,15 @@ public class FontTests {
      * @param bounds  the cell bounds.
      */
     public static void drawAttributedString2(Graphics2D g2, Rectangle2D bounds) {
+        drawLines(g2, bounds, createAttributedStrings2());
+    }
+
+    /**
+     * Creates the strings for {@link #drawAttributedString2(Graphics2D, Rectangle2D)}.
+     *
+     * @return The strings (foreground and background colors, swapped colors).
+     */
+    static AttributedString[] createAttributedStrings2() {
 
         AttributedString test1 = new AttributedString("Foreground & background");
         test1.addAttribute(TextAttribute.FAMILY, Font.SERIF);
@@ -183,8 +202,7 @@ public class FontTests {
         test2.addAttribute(TextAttribute.BACKGROUND, Color.BLUE, 20, 25);
         test2.addAttribute(TextAttribute.SWAP_COLORS, TextAttribute.SWAP_COLORS_ON, 20, 25);
 
-        g2.drawString(test1.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 20f);
-        g2.drawString(test2.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 40f);
+        return new AttributedString[] {test1, test2};
     }
 
     /**
@@ -194,6 +212,15 @@ public class FontTests {
      * @param bounds  the cell bounds.
      */
     public static void drawAttributedStringWithKerning(Graphics2D g2, Rectangle2D bounds) {
+        drawLines(g2, bounds, createKerningStrings());
+    }
+
+    /**
+     * Creates the strings for {@link #drawAttributedStringWithKerning(Graphics2D, Rectangle2D)}.
+     *
+     * @return The strings (a label, without and with kerning).
+     */
+    static AttributedString[] createKerningStrings() {
 
         AttributedString test1 = new AttributedString("Kerning:");
         test1.addAttribute(TextAttribute.FAMILY, Font.SERIF);
@@ -208,9 +235,7 @@ public class FontTests {
         test3.addAttribute(TextAttribute.SIZE, 14, 0, 24);
         test3.addAttribute(TextAttribute.KERNING, TextAttribute.KERNING_ON, 0, 24);
 
-        g2.drawString(test1.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 20f);
-        g2.drawString(test2.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 40f);
-        g2.drawString(test3.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 60f);
+        return new AttributedString[] {test1, test2, test3};
     }
 
     /**
@@ -220,6 +245,15 @@ public class FontTests {
      * @param bounds  the cell bounds.
      */
     public static void drawAttributedStringWithLigatures(Graphics2D g2, Rectangle2D bounds) {
+        drawLines(g2, bounds, createLigatureStrings());
+    }
+
+    /**
+     * Creates the strings for {@link #drawAttributedStringWithLigatures(Graphics2D, Rectangle2D)}.
+     *
+     * @return The strings (a label, with and without ligatures).
+     */
+    static AttributedString[] createLigatureStrings() {
 
         AttributedString test1 = new AttributedString("Ligatures:");
         test1.addAttribute(TextAttribute.FAMILY, Font.SERIF);
@@ -234,9 +268,60 @@ public class FontTests {
         test3.addAttribute(TextAttribute.FAMILY, Font.SERIF);
         test3.addAttribute(TextAttribute.SIZE, 14, 0, 18);
 
-        g2.drawString(test1.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 20f);
-        g2.drawString(test2.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 40f);
-        g2.drawString(test3.getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 60f);
+        return new AttributedString[] {test1, test2, test3};
+    }
+
+    /**
+     * Draws glyph vectors, one created directly from the text and one laid
+     * out with kerning.
+     *
+     * @param g2  the graphics target.
+     * @param bounds  the cell bounds.
+     */
+    public static void drawGlyphVectors(Graphics2D g2, Rectangle2D bounds) {
+        g2.setPaint(Color.BLACK);
+        Font font = new Font(Font.SERIF, Font.PLAIN, 14);
+        g2.setFont(font);
+        g2.drawString("GlyphVector:", (float) bounds.getX() + 5f, (float) bounds.getY() + 20);
+        FontRenderContext frc = g2.getFontRenderContext();
+        g2.drawGlyphVector(font.createGlyphVector(frc, "To & AWAY (created)"), (float) bounds.getX() + 5f,
+                (float) bounds.getY() + 40);
+        Map<TextAttribute, Object> attributes = new HashMap<>();
+        attributes.put(TextAttribute.KERNING, TextAttribute.KERNING_ON);
+        char[] text = "To & AWAY (laid out)".toCharArray();
+        g2.drawGlyphVector(font.deriveFont(attributes).layoutGlyphVector(frc, text, 0, text.length,
+                Font.LAYOUT_LEFT_TO_RIGHT), (float) bounds.getX() + 5f, (float) bounds.getY() + 60);
+    }
+
+    /**
+     * Draws text layouts created from the attributed strings of the kerning
+     * and the color tests.
+     *
+     * @param g2  the graphics target.
+     * @param bounds  the cell bounds.
+     */
+    public static void drawTextLayouts(Graphics2D g2, Rectangle2D bounds) {
+        g2.setPaint(Color.BLACK);
+        g2.setFont(new Font(Font.SERIF, Font.PLAIN, 14));
+        g2.drawString("TextLayout:", (float) bounds.getX() + 5f, (float) bounds.getY() + 20);
+        FontRenderContext frc = g2.getFontRenderContext();
+        new TextLayout(createKerningStrings()[2].getIterator(), frc).draw(g2, (float) bounds.getX() + 5f,
+                (float) bounds.getY() + 40);
+        new TextLayout(createAttributedStrings2()[0].getIterator(), frc).draw(g2, (float) bounds.getX() + 5f,
+                (float) bounds.getY() + 60);
+    }
+
+    /**
+     * Draws attributed strings on successive lines (20 units apart).
+     *
+     * @param g2  the graphics target.
+     * @param bounds  the cell bounds.
+     * @param strings  the strings.
+     */
+    private static void drawLines(Graphics2D g2, Rectangle2D bounds, AttributedString[] strings) {
+        for (int i = 0; i < strings.length; i++) {
+            g2.drawString(strings[i].getIterator(), (float) bounds.getX() + 5f, (float) bounds.getY() + 20f * (i + 1));
+        }
     }
 
     private FontTests() {
@@ -0,0 +1,334 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the {@link BenchmarkHarness} for each backend in child JVMs, over a
+ * matrix of JDK installations and JVM flag sets, and merges the CSV reports
+ * of the children into one report.  This replaces editing the JDK and the
+ * JVM options in the shell scripts by hand.
+ */
+public final class ForkedRunner {
+
+    /** The options shared by the default flag sets (as in the run.sh scripts). */
+    static final String COMMON_FLAGS = "-Xms1g -Xmx1g -XX:+UseCompressedOops -Dsun.java2d.uiScale=1.0";
+
+    /** The default flag sets: one per garbage collector. */
+    static final List<String> DEFAULT_FLAG_SETS = Arrays.asList(
+            "-XX:+UseG1GC " + COMMON_FLAGS,
+            "-XX:+UseParallelGC " + COMMON_FLAGS,
+            "-XX:+UseZGC " + COMMON_FLAGS);
+
+    /**
+     * The result of one child JVM run.
+     */
+    static final class Result {
+
+        /** The JDK home directory. */
+        final String jdk;
+
+        /** The JVM flags. */
+        final String flags;
+
+        /** The backend name. */
+        final String backend;
+
+        /** The properties reported by the child (from the comment lines). */
+        final Map<String, String> properties = new LinkedHashMap<>();
+
+        /** The phase rows reported by the child. */
+        final List<String[]> rows = new ArrayList<>();
+
+        Result(String jdk, String flags, String backend) {
+            this.jdk = jdk;
+            this.flags = flags;
+            this.backend = backend;
+        }
+
+        String[] getRow(String phase) {
+            for (String[] row : this.rows) {
+                if (row[1].equals(phase)) {
+                    return row;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Runs every backend once for each combination of JDK and flag set.
+     *
+     * @param jdks  the JDK home directories.
+     * @param flagSets  the JVM flag sets (options separated by spaces).
+     * @param backends  the backend names.
+     * @param classPath  the classpath for the child JVMs.
+     * @param harnessArgs  extra arguments for the harness (for example "--repeats=50").
+     * @param workDir  the directory for the child logs and reports.
+     *
+     * @return The results of the successful runs.
+     *
+     * @throws IOException if there is an I/O problem.
+     * @throws InterruptedException if interrupted while waiting for a child.
+     */
+    public static List<Result> runMatrix(List<String> jdks, List<String> flagSets, List<String> backends,
+            String classPath, List<String> harnessArgs, Path workDir) throws IOException, InterruptedException {
+        Files.createDirectories(workDir);
+        final List<Result> results = new ArrayList<>();
+        int run = 0;
+        for (String jdk : jdks) {
+            for (String flags : flagSets) {
+                for (String backend : backends) {
+                    run++;
+                    final Path log = workDir.resolve("run-" + run + ".log");
+                    final Path report = workDir.resolve("run-" + run + ".csv");
+                    final List<String> command = new ArrayList<>();
+                    command.add(javaCommand(jdk));
+                    command.addAll(splitFlags(flags));
+                    command.add("-cp");
+                    command.add(classPath);
+                    command.add(BenchmarkHarness.class.getName());
+                    command.addAll(harnessArgs);
+                    command.add("--report=" + report.toAbsolutePath());
+                    command.add(backend);
+
+                    System.out.println("Run " + run + ": " + backend + " on " + jdk + " with [" + flags + "]");
+                    final int exitCode = launch(command, workDir, log);
+                    if (exitCode != 0 || !Files.exists(report)) {
+                        System.err.println("Run " + run + " failed (exit code " + exitCode + "), see " + log);
+                        continue;
+                    }
+                    results.add(readReport(new Result(jdk, flags, backend), report));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the java launcher of a JDK.
+     *
+     * @param jdk  the JDK home directory.
+     *
+     * @return The path of the java launcher.
+     */
+    static String javaCommand(String jdk) {
+        return Paths.get(jdk, "bin", "java").toString();
+    }
+
+    /**
+     * Runs a child process in the work directory and waits for it to finish.
+     *
+     * @param command  the command.
+     * @param workDir  the work directory.
+     * @param log  the file for the output of the child.
+     *
+     * @return The exit code of the child.
+     *
+     * @throws IOException if there is an I/O problem.
+     * @throws InterruptedException if interrupted while waiting for the child.
+     */
+    static int launch(List<String> command, Path workDir, Path log) throws IOException, InterruptedException {
+        final Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return process.waitFor();
+    }
+
+    /**
+     * Makes the entries of a classpath absolute (the children run in the
+     * work directory).
+     *
+     * @param classPath  the classpath.
+     *
+     * @return The absolute classpath.
+     */
+    static String absoluteClassPath(String classPath) {
+        final List<String> entries = new ArrayList<>();
+        for (String entry : classPath.split(java.io.File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                entries.add(entry.endsWith("*") ? entry : Paths.get(entry).toAbsolutePath().toString());
+            }
+        }
+        return String.join(java.io.File.pathSeparator, entries);
+    }
+
+    /**
+     * Splits a flag set into separate options.
+     *
+     * @param flags  the options separated by spaces.
+     *
+     * @return The options.
+     */
+    static List<String> splitFlags(String flags) {
+        final List<String> result = new ArrayList<>();
+        for (String flag : flags.trim().split("\\s+")) {
+            if (!flag.isEmpty()) {
+                result.add(flag);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the garbage collector flag ({@code -XX:+Use...GC}) of a set of
+     * JVM flags, or "(default)" if there is none.
+     *
+     * @param flags  the JVM flags.
+     *
+     * @return The garbage collector flag.
+     */
+    static String gcFlag(String flags) {
+        for (String flag : splitFlags(flags)) {
+            if (flag.startsWith("-XX:+Use") && flag.endsWith("GC")) {
+                return flag;
+            }
+        }
+        return "(default)";
+    }
+
+    /**
+     * Reads a report written by {@link BenchmarkHarness#writeReport(PhaseTimer, Path)}.
+     *
+     * @param result  the result to fill.
+     * @param report  the report file.
+     *
+     * @return The result.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static Result readReport(Result result, Path report) throws IOException {
+        for (String line : Files.readAllLines(report, StandardCharsets.UTF_8)) {
+            if (line.startsWith("# ")) {
+                final int eq = line.indexOf('=');
+                if (eq > 0) {
+                    result.properties.put(line.substring(2, eq), line.substring(eq + 1));
+                }
+            } else if (!line.isEmpty()) {
+                result.rows.add(line.split(","));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the merged report: one CSV row per run and phase, prefixed with
+     * the JDK, the Java version, the flags and the garbage collection totals.
+     *
+     * @param results  the results.
+     * @param path  the report file.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static void writeMergedReport(List<Result> results, Path path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("jdk,java.runtime.version,flags,gc.count,gc.time,backend,phase,n,min,avg,p50,p90,p99,max");
+            for (Result result : results) {
+                final String prefix = result.jdk + "," + result.properties.get("java.runtime.version")
+                        + ",\"" + result.flags + "\"," + result.properties.get("gc.count")
+                        + "," + result.properties.get("gc.time") + ",";
+                for (String[] row : result.rows) {
+                    out.println(prefix + String.join(",", row));
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints a summary table (median draw and total times, p90 total and the
+     * garbage collection totals for each run) to {@code System.out}.
+     *
+     * @param results  the results.
+     */
+    static void printTable(List<Result> results) {
+        System.out.println(String.format(Locale.ROOT, "%-24s %-14s %-34s %9s %9s %9s %6s %8s",
+                "java", "backend", "gc", "draw", "total", "p90", "gcs", "gc [ms]"));
+        for (Result result : results) {
+            final String[] draw = result.getRow("draw");
+            final String[] total = result.getRow("total");
+            System.out.println(String.format(Locale.ROOT, "%-24s %-14s %-34s %9s %9s %9s %6s %8s",
+                    result.properties.get("java.runtime.version"), result.backend,
+                    gcFlag(result.flags),
+                    draw != null ? draw[5] : "-", total != null ? total[5] : "-",
+                    total != null ? total[6] : "-",
+                    result.properties.get("gc.count"), result.properties.get("gc.time")));
+        }
+    }
+
+    private ForkedRunner() {
+        // no-op
+    }
+
+    /**
+     * Runs the matrix.  The arguments are backend names (all backends on the
+     * classpath if none are given) and the options {@code --jdk=path}
+     * (repeatable, default is the running JDK), {@code --flags="..."}
+     * (repeatable, default is G1, Parallel and ZGC with the common options),
+     * {@code --cp=classpath} (default is the classpath of this JVM),
+     * {@code --out=dir} (default "forked") and the harness options
+     * {@code --warmup=N}, {@code --repeats=N} and {@code --single}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws Exception if there is a problem.
+     */
+    public static void main(String[] args) throws Exception {
+        final List<String> jdks = new ArrayList<>();
+        final List<String> flagSets = new ArrayList<>();
+        final List<String> backends = new ArrayList<>();
+        final List<String> harnessArgs = new ArrayList<>();
+        String classPath = System.getProperty("java.class.path");
+        Path workDir = Paths.get("forked");
+        for (String arg : args) {
+            if (arg.startsWith("--jdk=")) {
+                jdks.add(arg.substring("--jdk=".length()));
+            } else if (arg.startsWith("--flags=")) {
+                flagSets.add(arg.substring("--flags=".length()));
+            } else if (arg.startsWith("--cp=")) {
+                classPath = arg.substring("--cp=".length());
+            } else if (arg.startsWith("--out=")) {
+                workDir = Paths.get(arg.substring("--out=".length()));
+            } else if (arg.startsWith("--")) {
+                harnessArgs.add(arg);
+            } else {
+                backends.add(arg);
+            }
+        }
+        if (jdks.isEmpty()) {
+            jdks.add(System.getProperty("java.home"));
+        }
+        if (flagSets.isEmpty()) {
+            flagSets.addAll(DEFAULT_FLAG_SETS);
+        }
+        if (backends.isEmpty()) {
+            for (Graphics2DBackend backend : BenchmarkHarness.loadBackends()) {
+                backends.add(backend.getName());
+            }
+        }
+        final List<Result> results = runMatrix(jdks, flagSets, backends, absoluteClassPath(classPath),
+                harnessArgs, workDir);
+        final Path report = workDir.resolve("forked-report.csv");
+        writeMergedReport(results, report);
+        printTable(results);
+        System.out.println("Merged report written to " + report);
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A service interface for the Graphics2D implementations under test.  Each
+ * tester module contributes one implementation, registered in
+ * {@code META-INF/services/org.jfree.graphics2d.Graphics2DBackend} and
+ * discovered with {@link java.util.ServiceLoader} (see
+ * {@link BenchmarkHarness#loadBackends()}).
+ * <p>
+ * The lifecycle hooks define the timing boundaries used by the harness:
+ * {@link #create(int, int)} once, then for each iteration {@link #reset()},
+ * the drawing, {@link #flush()}, {@link #snapshotPixels()} and
+ * {@link #encode(OutputStream)}, and finally {@link #dispose()}.
+ * Implementations need a public no-argument constructor and are not required
+ * to be thread-safe.
+ */
+public interface Graphics2DBackend {
+
+    /**
+     * Returns a short identifier for the backend (for example "jfreesvg"),
+     * used for output file names and to select backends on the command line.
+     *
+     * @return The backend name.
+     */
+    String getName();
+
+    /**
+     * Returns a description of the Graphics2D implementation under test (this
+     * is written into the test sheet header).
+     *
+     * @return The description.
+     */
+    String getDescription();
+
+    /**
+     * Returns the link (project page) that is encoded in the test sheet QR code.
+     *
+     * @return The link.
+     */
+    String getLink();
+
+    /**
+     * Returns the file extension (without the dot) for the encoded output.
+     *
+     * @return The file extension (for example "png", "svg" or "pdf").
+     */
+    String getFileExtension();
+
+    /**
+     * Creates the drawing target and any reusable resources.  This is called
+     * once before the first call to {@link #reset()}.
+     *
+     * @param width  the target width in Java2D units.
+     * @param height  the target height in Java2D units.
+     */
+    void create(int width, int height);
+
+    /**
+     * Resets the drawing target to its initial state (or creates a fresh
+     * target for backends that cannot be reused) and returns the graphics
+     * instance to draw the next iteration with.
+     *
+     * @return The graphics target (never {@code null}).
+     */
+    Graphics2D reset();
+
+    /**
+     * Waits until all drawing operations have been completed by the device
+     * (GPU flush, toolkit sync).  Does nothing for backends that draw
+     * synchronously.
+     */
+    void flush();
+
+    /**
+     * Captures the result of the last iteration so that it can be encoded.
+     * Backends that draw into a {@code BufferedImage} return the pixels (the
+     * returned image may be reused by later calls).  Vector backends capture
+     * their document, and backends that draw into native memory capture
+     * their surface without building an image; these return {@code null}.
+     *
+     * @return The rendered pixels, or {@code null}.
+     */
+    BufferedImage snapshotPixels();
+
+    /**
+     * Encodes the result captured by the last call to {@link #snapshotPixels()}
+     * in the backend's output format.
+     *
+     * @param out  the output stream ({@code null} not permitted).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    void encode(OutputStream out) throws IOException;
+
+    /**
+     * Releases the drawing target and all native resources.
+     */
+    void dispose();
+
+}
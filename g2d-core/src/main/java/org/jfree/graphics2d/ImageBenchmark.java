@@ -0,0 +1,330 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An image drawing throughput suite, scaled up from the {@link ImageTests}:
+ * the motorcycle image converted to each common {@code BufferedImage} type
+ * (and the QR code, a {@code TYPE_BYTE_BINARY} image) drawn at several scale
+ * factors, with each {@code KEY_INTERPOLATION} hint, and through each of the
+ * {@code drawImage()} overloads and {@code drawRenderedImage()} with an
+ * {@code AffineTransform} (including a rotation).  The units are the source
+ * pixels of each draw, since the conversion, upload and embedding costs of
+ * the GPU and vector backends are per source pixel (at scale 1 they equal
+ * the pixels drawn), and a summary shows the megapixels per second of each
+ * workload for each backend, with and without the encode time.
+ */
+public final class ImageBenchmark {
+
+    /** The default number of images drawn per iteration. */
+    static final int DEFAULT_DRAWS = 10;
+
+    /** The ways of drawing the images. */
+    enum Overload {
+
+        /** {@code drawImage(img, x, y, observer)} (at scale 1 only). */
+        XY("xy"),
+
+        /** {@code drawImage(img, x, y, width, height, observer)}. */
+        XYWH("xywh"),
+
+        /** {@code drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer)}. */
+        SOURCE_RECT("srcdst"),
+
+        /** {@code drawImage(img, transform, observer)}. */
+        TRANSFORM("transform"),
+
+        /** {@code drawRenderedImage(img, transform)}. */
+        RENDERED("rendered");
+
+        private final String id;
+
+        Overload(String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * The source images, converted once from the images of the tester
+     * context and shared by the workloads.
+     */
+    static final class Sources {
+
+        private final Map<String, BufferedImage> images = new LinkedHashMap<>();
+
+        /**
+         * Converts the images (the first call only).
+         *
+         * @param tc  the tester context.
+         */
+        void prepare(Tester.TesterContext tc) {
+            if (!this.images.isEmpty()) {
+                return;
+            }
+            final BufferedImage triumph = tc.getTriumphImage();
+            this.images.put("argb", convert(triumph, BufferedImage.TYPE_INT_ARGB));
+            this.images.put("argb-pre", convert(triumph, BufferedImage.TYPE_INT_ARGB_PRE));
+            this.images.put("rgb", convert(triumph, BufferedImage.TYPE_INT_RGB));
+            this.images.put("3byte-bgr", convert(triumph, BufferedImage.TYPE_3BYTE_BGR));
+            this.images.put("byte-gray", convert(triumph, BufferedImage.TYPE_BYTE_GRAY));
+            this.images.put("byte-binary", convert(triumph, BufferedImage.TYPE_BYTE_BINARY));
+            this.images.put("indexed", convert(triumph, BufferedImage.TYPE_BYTE_INDEXED));
+            this.images.put("qrcode", tc.getQRCodeImage());
+        }
+
+        /**
+         * Returns a source image.
+         *
+         * @param name  the name (see {@link #SOURCES}).
+         *
+         * @return The image.
+         */
+        BufferedImage get(String name) {
+            final BufferedImage result = this.images.get(name);
+            if (result == null) {
+                throw new IllegalArgumentException("Unknown source image " + name);
+            }
+            return result;
+        }
+    }
+
+    /** The source image names, in the order of the report. */
+    static final String[] SOURCES = {"argb", "argb-pre", "rgb", "3byte-bgr", "byte-gray", "byte-binary",
+        "indexed", "qrcode"};
+
+    /**
+     * Draws one source image repeatedly.
+     */
+    static final class ImageWorkload implements Workload {
+
+        private final String name;
+
+        private final Sources sources;
+
+        private final String source;
+
+        private final Overload overload;
+
+        private final double scale;
+
+        private final double angle;
+
+        private final Object interpolation;
+
+        private final int draws;
+
+        private BufferedImage image;
+
+        /**
+         * Creates a workload.
+         *
+         * @param name  the name.
+         * @param sources  the shared source images.
+         * @param source  the source image name.
+         * @param overload  the method used to draw the image.
+         * @param scale  the scale factor.
+         * @param angle  the rotation in radians (transform overloads only).
+         * @param interpolation  the interpolation hint ({@code null} for the
+         *     default of the backend).
+         * @param draws  the number of images drawn per iteration.
+         */
+        ImageWorkload(String name, Sources sources, String source, Overload overload, double scale, double angle,
+                Object interpolation, int draws) {
+            this.name = name;
+            this.sources = sources;
+            this.source = source;
+            this.overload = overload;
+            this.scale = scale;
+            this.angle = angle;
+            this.interpolation = interpolation;
+            this.draws = draws;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getUnit() {
+            return "pixels";
+        }
+
+        @Override
+        public void prepare(Tester.TesterContext tc) {
+            this.sources.prepare(tc);
+            this.image = this.sources.get(this.source);
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            if (this.interpolation != null) {
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, this.interpolation);
+            }
+            final int w = this.image.getWidth();
+            final int h = this.image.getHeight();
+            final int dw = (int) Math.round(w * this.scale);
+            final int dh = (int) Math.round(h * this.scale);
+            for (int i = 0; i < this.draws; i++) {
+                final int x = (i * 97) % Math.max(1, width - dw);
+                final int y = (i * 61) % Math.max(1, height - dh);
+                switch (this.overload) {
+                    case XY:
+                        g2.drawImage(this.image, x, y, null);
+                        break;
+                    case XYWH:
+                        g2.drawImage(this.image, x, y, dw, dh, null);
+                        break;
+                    case SOURCE_RECT:
+                        g2.drawImage(this.image, x, y, x + dw, y + dh, 0, 0, w, h, null);
+                        break;
+                    case TRANSFORM:
+                        g2.drawImage(this.image, createTransform(x, y, dw, dh), null);
+                        break;
+                    case RENDERED:
+                        g2.drawRenderedImage(this.image, createTransform(x, y, dw, dh));
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown overload " + this.overload);
+                }
+            }
+            return (long) this.draws * w * h;
+        }
+
+        private AffineTransform createTransform(int x, int y, int dw, int dh) {
+            final AffineTransform t = AffineTransform.getTranslateInstance(x, y);
+            t.rotate(this.angle, dw / 2.0, dh / 2.0);
+            t.scale(this.scale, this.scale);
+            return t;
+        }
+    }
+
+    private ImageBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Returns a copy of an image with the specified type.
+     *
+     * @param image  the image.
+     * @param type  the image type (for example
+     *     {@code BufferedImage.TYPE_INT_RGB}).
+     *
+     * @return The copy.
+     */
+    static BufferedImage convert(BufferedImage image, int type) {
+        final BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        final Graphics2D g2 = result.createGraphics();
+        try {
+            g2.drawImage(image, 0, 0, null);
+        } finally {
+            g2.dispose();
+        }
+        return result;
+    }
+
+    private static String scaleId(double scale) {
+        return "x" + (scale == Math.rint(scale) ? String.valueOf((int) scale) : String.valueOf(scale));
+    }
+
+    /**
+     * Creates the workloads of the suite: each source image at scales 0.5, 1
+     * and 2, each interpolation hint for a reduction, an enlargement and a
+     * rotation of the {@code TYPE_INT_RGB} image, and each overload for the
+     * {@code TYPE_INT_ARGB} image at scales 1 and 1.5 and rotated.
+     *
+     * @param draws  the number of images drawn per iteration.
+     *
+     * @return The workloads.
+     */
+    static List<Workload> createWorkloads(int draws) {
+        final Sources sources = new Sources();
+        final List<Workload> result = new ArrayList<>();
+        for (String source : SOURCES) {
+            for (double scale : new double[] {0.5, 1.0, 2.0}) {
+                result.add(new ImageWorkload("type-" + source + "-" + scaleId(scale), sources, source,
+                        Overload.XYWH, scale, 0.0, null, draws));
+            }
+        }
+        final Object[][] hints = {
+            {"nearest", RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR},
+            {"bilinear", RenderingHints.VALUE_INTERPOLATION_BILINEAR},
+            {"bicubic", RenderingHints.VALUE_INTERPOLATION_BICUBIC}
+        };
+        for (Object[] hint : hints) {
+            for (double scale : new double[] {0.5, 2.0}) {
+                result.add(new ImageWorkload("interp-" + hint[0] + "-" + scaleId(scale), sources, "rgb",
+                        Overload.XYWH, scale, 0.0, hint[1], draws));
+            }
+            result.add(new ImageWorkload("interp-" + hint[0] + "-rot", sources, "rgb", Overload.TRANSFORM, 1.0,
+                    Math.PI / 6, hint[1], draws));
+        }
+        for (Overload overload : Overload.values()) {
+            for (double scale : new double[] {1.0, 1.5}) {
+                if (overload == Overload.XY && scale != 1.0) {
+                    continue;
+                }
+                result.add(new ImageWorkload("overload-" + overload.id + "-" + scaleId(scale), sources, "argb",
+                        overload, scale, 0.0, null, draws));
+            }
+        }
+        result.add(new ImageWorkload("overload-transform-rot", sources, "argb", Overload.TRANSFORM, 1.0,
+                Math.PI / 6, null, draws));
+        result.add(new ImageWorkload("overload-rendered-rot", sources, "argb", Overload.RENDERED, 1.0,
+                Math.PI / 6, null, draws));
+        return result;
+    }
+
+    /**
+     * Prints the megapixels per second of each workload (rows) for each
+     * backend (columns), from the render time and from the render and encode
+     * time (the vector backends embed the images when the document is
+     * written, so their cost appears in the encode time).
+     *
+     * @param results  the suite results.
+     */
+    static void printMegapixelSummary(List<WorkloadRunner.Result> results) {
+        System.out.println("Source megapixels per second (render / render and encode):");
+        WorkloadRunner.printPivot(results, "workload", r -> String.format(Locale.ROOT, "%.2f / %.2f",
+                r.getRate() / 1e6, r.units / (r.render + r.encode) / 1e3));
+    }
+
+    /**
+     * Runs the image suite.  The options are {@code --draws=N} (images drawn
+     * per iteration) and those of {@link WorkloadRunner#runSuite}; the
+     * report is written to {@code images.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int draws = DEFAULT_DRAWS;
+        final List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--draws=")) {
+                draws = Integer.parseInt(arg.substring("--draws=".length()));
+            } else {
+                rest.add(arg);
+            }
+        }
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("images", createWorkloads(draws), rest);
+        printMegapixelSummary(results);
+        System.exit(0);
+    }
+
+}
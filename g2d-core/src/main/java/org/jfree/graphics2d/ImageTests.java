@@ -13,7 +13,10 @@ import java.awt.Graphics2D;
 
 import javax.imageio.ImageIO;
 import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import org.jfree.graphics2d.Tester.TesterContext;
 
 /**
@@ -22,10 +25,15 @@ import org.jfree.graphics2d.Tester.TesterContext;
 public class ImageTests {
 
     static void prepareImage(final TesterContext tc) {
-        try {
-            tc.TRIUMPH_IMAGE = ImageIO.read(ClassLoader.getSystemResource("triumph.png"));
-        } catch (IOException ioe) {
-            throw new RuntimeException(ioe);
+        try (InputStream in = ClassLoader.getSystemResourceAsStream("triumph.png")) {
+            if (in == null) {
+                throw new IOException("Resource triumph.png not found.");
+            }
+            final byte[] png = in.readAllBytes();
+            tc.TRIUMPH_IMAGE = AssetCache.getImage("triumph", png,
+                    () -> ImageIO.read(new ByteArrayInputStream(png)));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -38,14 +46,19 @@ public class ImageTests {
      * @param margin  the margin.
      */
     static void drawImage(final TesterContext tc, Graphics2D g2, Rectangle2D bounds, int margin) {
-        g2.drawImage(tc.TRIUMPH_IMAGE, (int) bounds.getX() + margin, (int) bounds.getY() + margin,
+        g2.drawImage(tc.getTriumphImage(), (int) bounds.getX() + margin, (int) bounds.getY() + margin,
                 (int) bounds.getWidth(), (int) bounds.getHeight(), null);
     }
 
     static void prepareQRCodeImage(final TesterContext tc) throws Exception {
-        final QRCodeWriter writer = new QRCodeWriter();
-        final BitMatrix matrix = writer.encode(tc.qrLink, BarcodeFormat.QR_CODE, 250, 250);
-        tc.qrCodeImage = MatrixToImageWriter.toBufferedImage(matrix);
+        // the key covers the inputs of the encoder (and its version):
+        final String content = "QR_CODE 250x250 " + BitMatrix.class.getPackage().getImplementationVersion()
+                + "\n" + tc.qrLink;
+        tc.qrCodeImage = AssetCache.getImage("qrcode", content.getBytes(StandardCharsets.UTF_8), () -> {
+            final QRCodeWriter writer = new QRCodeWriter();
+            final BitMatrix matrix = writer.encode(tc.qrLink, BarcodeFormat.QR_CODE, 250, 250);
+            return MatrixToImageWriter.toBufferedImage(matrix);
+        });
     }
 
     /**
@@ -58,7 +71,7 @@ public class ImageTests {
      * @param margin  the margin.
      */
     static void drawQRCodeImage(final TesterContext tc, Graphics2D g2, Rectangle2D bounds, int margin) {
-        g2.drawImage(tc.qrCodeImage, (int) bounds.getX() + margin, (int) bounds.getY() + margin,
+        g2.drawImage(tc.getQRCodeImage(), (int) bounds.getX() + margin, (int) bounds.getY() + margin,
                 (int) bounds.getWidth() - 2 * margin, (int) bounds.getHeight() - 2 * margin, null);
     }
 
@@ -0,0 +1,112 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.imageio.ImageIO;
+
+/**
+ * The reference backend: Java2D drawing to a {@code BufferedImage}.  This
+ * backend is always available in the harness and is therefore not registered
+ * as a service (so that the module fat jars only carry their own service file).
+ */
+public class Java2DBackend implements Graphics2DBackend {
+
+    private BufferedImage image;
+
+    private Graphics2D g2;
+
+    /** The PNG encoder ({@code null} to use ImageIO), closed by {@link #dispose()}. */
+    private ParallelPngEncoder pngEncoder;
+
+    /**
+     * Default constructor.
+     */
+    public Java2DBackend() {
+        // no-op
+    }
+
+    @Override
+    public String getName() {
+        return "java2D";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Java2D/BufferedImage";
+    }
+
+    @Override
+    public String getLink() {
+        return "https://github.com/jfree";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "png";
+    }
+
+    @Override
+    public void create(int width, int height) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        this.pngEncoder = ParallelPngEncoder.fromSystemProperty();
+    }
+
+    @Override
+    public Graphics2D reset() {
+        if (this.g2 != null) {
+            this.g2.dispose();
+        }
+        this.g2 = this.image.createGraphics();
+        this.g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        this.g2.setBackground(Color.WHITE);
+        this.g2.clearRect(0, 0, this.image.getWidth(), this.image.getHeight());
+        this.g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        return this.g2;
+    }
+
+    @Override
+    public void flush() {
+        // Sync CPU / GPU:
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    @Override
+    public BufferedImage snapshotPixels() {
+        // the image is the drawing target, no copy is needed
+        return this.image;
+    }
+
+    @Override
+    public void encode(OutputStream out) throws IOException {
+        if (this.pngEncoder != null) {
+            this.pngEncoder.encode(this.image, out);
+        } else {
+            ImageIO.write(this.image, "png", out);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (this.g2 != null) {
+            this.g2.dispose();
+            this.g2 = null;
+        }
+        this.image = null;
+        if (this.pngEncoder != null) {
+            // the encoder owns a thread pool and native deflaters:
+            this.pngEncoder.close();
+            this.pngEncoder = null;
+        }
+    }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Runs the Java2D reference backend in child JVMs over a set of Marlin
+ * renderer settings ({@code sun.java2d.renderer.*} system properties) and
+ * reports, for each setting, the sheet time, the time per tile and the
+ * deviation of the output from the output with the default settings.  The
+ * Marlin defaults are tuned for desktop Swing rather than for large sheets
+ * rendered on a server, and the properties are read once when the renderer
+ * is initialised, so every setting needs its own JVM.
+ */
+public final class MarlinSweep {
+
+    /** The prefix of the Marlin system properties. */
+    private static final String PREFIX = "-Dsun.java2d.renderer.";
+
+    /** The name of the reference setting. */
+    static final String DEFAULT_SETTING = "default";
+
+    /**
+     * Returns the settings swept by default (name to JVM options), starting
+     * with the reference setting.
+     *
+     * @return The settings.
+     */
+    static Map<String, String> defaultSettings() {
+        final Map<String, String> settings = new LinkedHashMap<>();
+        settings.put(DEFAULT_SETTING, "");
+        settings.put("float", "-Dsun.java2d.renderer=sun.java2d.marlin.MarlinRenderingEngine");
+        settings.put("subpixel-4x4", PREFIX + "subPixel_lg_X=2 " + PREFIX + "subPixel_lg_Y=2");
+        settings.put("subpixel-16x4", PREFIX + "subPixel_lg_X=4 " + PREFIX + "subPixel_lg_Y=2");
+        settings.put("subpixel-256x16", PREFIX + "subPixel_lg_X=8 " + PREFIX + "subPixel_lg_Y=4");
+        settings.put("tile-32x32", PREFIX + "tileSize_lg=5 " + PREFIX + "tileWidth_lg=5");
+        settings.put("tile-64x64", PREFIX + "tileSize_lg=6 " + PREFIX + "tileWidth_lg=6");
+        settings.put("tile-128x128", PREFIX + "tileSize_lg=7 " + PREFIX + "tileWidth_lg=7");
+        // size the renderer arrays for the whole sheet up front:
+        settings.put("pixel-size", PREFIX + "pixelWidth=" + Tester.getTestSheetWidth() + " "
+                + PREFIX + "pixelHeight=" + Tester.getTestSheetHeight());
+        settings.put("no-clip", PREFIX + "clip=false");
+        settings.put("clip-curves", PREFIX + "clip.curves=true");
+        settings.put("path-simplifier", PREFIX + "usePathSimplifier=true");
+        settings.put("curves-coarse", PREFIX + "cubic_dec_d2=2.0 " + PREFIX + "quad_dec_d2=1.0");
+        return settings;
+    }
+
+    /**
+     * The deviation of an output image from the reference image.
+     */
+    static final class Deviation {
+
+        /** The number of compared pixels. */
+        long pixels;
+
+        /** The number of pixels that differ. */
+        long differentPixels;
+
+        /** The largest difference of a color channel (0 to 255). */
+        int maxDelta;
+
+        /**
+         * The largest difference of a color channel between a pixel and the
+         * closest pixel in its 3x3 neighbourhood in the reference image (so
+         * a hard edge that moved by one pixel does not count).
+         */
+        int maxShiftedDelta;
+
+        /** The sum of the channel differences. */
+        long sumDelta;
+
+        /** The tile with the most differing pixels (null if none differ). */
+        String worstTile;
+
+        double getDifferentPercent() {
+            return this.pixels == 0 ? 0.0 : 100.0 * this.differentPixels / this.pixels;
+        }
+
+        double getMeanDelta() {
+            return this.pixels == 0 ? 0.0 : this.sumDelta / (4.0 * this.pixels);
+        }
+    }
+
+    /**
+     * Compares two images, ignoring the volatile region of the test sheet
+     * (see {@link Tester#getVolatileRegion()}) in every copy of a scaled-up
+     * sheet.
+     *
+     * @param reference  the reference image.
+     * @param image  the image to compare.
+     * @param tileWidth  the tile width (for the worst tile).
+     * @param tileHeight  the tile height (for the worst tile).
+     *
+     * @return The deviation.
+     */
+    static Deviation compare(BufferedImage reference, BufferedImage image, int tileWidth, int tileHeight) {
+        final Rectangle ignore = Tester.getVolatileRegion();
+        final int sheetWidth = Tester.getTestSheetWidth();
+        final int sheetHeight = Tester.getTestSheetHeight();
+        final int w = Math.min(reference.getWidth(), image.getWidth());
+        final int h = Math.min(reference.getHeight(), image.getHeight());
+        final int[] rowA = new int[w];
+        final int[] rowB = new int[w];
+        final Map<String, Integer> tiles = new LinkedHashMap<>();
+        final Deviation result = new Deviation();
+        for (int y = 0; y < h; y++) {
+            reference.getRGB(0, y, w, 1, rowA, 0, w);
+            image.getRGB(0, y, w, 1, rowB, 0, w);
+            for (int x = 0; x < w; x++) {
+                if (ignore.contains(x % sheetWidth, y % sheetHeight)) {
+                    continue;
+                }
+                result.pixels++;
+                final int a = rowA[x];
+                final int b = rowB[x];
+                if (a == b) {
+                    continue;
+                }
+                result.differentPixels++;
+                tiles.merge(TileTimer.key(x / tileWidth, y / tileHeight), 1, Integer::sum);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    final int delta = Math.abs(((a >>> shift) & 0xFF) - ((b >>> shift) & 0xFF));
+                    result.sumDelta += delta;
+                    result.maxDelta = Math.max(result.maxDelta, delta);
+                }
+                int shifted = channelDelta(a, b);
+                for (int ny = Math.max(0, y - 1); ny <= Math.min(h - 1, y + 1); ny++) {
+                    for (int nx = Math.max(0, x - 1); nx <= Math.min(w - 1, x + 1); nx++) {
+                        shifted = Math.min(shifted, channelDelta(reference.getRGB(nx, ny), b));
+                    }
+                }
+                result.maxShiftedDelta = Math.max(result.maxShiftedDelta, shifted);
+            }
+        }
+        int worst = 0;
+        for (Map.Entry<String, Integer> entry : tiles.entrySet()) {
+            if (entry.getValue() > worst) {
+                worst = entry.getValue();
+                result.worstTile = entry.getKey();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest difference of a color channel between two pixels.
+     *
+     * @param a  the first ARGB value.
+     * @param b  the second ARGB value.
+     *
+     * @return The difference (0 to 255).
+     */
+    private static int channelDelta(int a, int b) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            result = Math.max(result, Math.abs(((a >>> shift) & 0xFF) - ((b >>> shift) & 0xFF)));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the sheet in this JVM with per-tile timing (the child side of the
+     * sweep) and writes the output image, the phase report and the tile
+     * report to the current directory.
+     *
+     * @param name  the setting name (used for the file names).
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static void runChild(String name, int warmups, int repeats) throws IOException {
+        final Java2DBackend backend = new Java2DBackend();
+        final PhaseTimer timer = new PhaseTimer(name, false);
+        timer.start();
+        final Tester.TesterContext tc = Tester.prepareTestOutput(backend.getDescription(),
+                backend.getLink(), false);
+        backend.create(Tester.getTestSheetWidth(), Tester.getTestSheetHeight());
+        timer.mark(PhaseTimer.Phase.PREPARE);
+
+        final Path path = Paths.get(name + "." + backend.getFileExtension());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 * 1024);
+        // the output image is compared with the reference, so it is always written to a file:
+        final OutputSink sink = OutputSink.create("file");
+        try {
+            final PhaseTimer warmupTimer = new PhaseTimer(name + " warmup", false);
+            for (int i = 0; i < warmups; i++) {
+                BenchmarkHarness.runIteration(backend, tc, bytes, sink, path, warmupTimer);
+            }
+            tc.tileTimer = new TileTimer();
+            for (int i = 0; i < repeats; i++) {
+                BenchmarkHarness.runIteration(backend, tc, bytes, sink, path, timer);
+            }
+        } finally {
+            backend.dispose();
+        }
+        timer.printSummary();
+        BenchmarkHarness.writeReport(timer, Paths.get(name + ".csv"));
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(name + "-tiles.csv"),
+                StandardCharsets.UTF_8))) {
+            tc.tileTimer.writeCsv(out);
+        }
+    }
+
+    /**
+     * Runs the sweep: one child JVM per setting, then compares the results
+     * with the reference setting.
+     *
+     * @param jdk  the JDK home directory.
+     * @param settings  the settings (name to JVM options), the first one is
+     *     the reference.
+     * @param classPath  the classpath for the child JVMs.
+     * @param childArgs  extra arguments for the children (for example "--repeats=50").
+     * @param workDir  the directory for the child output.
+     *
+     * @throws IOException if there is an I/O problem.
+     * @throws InterruptedException if interrupted while waiting for a child.
+     */
+    public static void sweep(String jdk, Map<String, String> settings, String classPath,
+            List<String> childArgs, Path workDir) throws IOException, InterruptedException {
+        Files.createDirectories(workDir);
+        final List<String> names = new ArrayList<>();
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            final String name = setting.getKey();
+            final List<String> command = new ArrayList<>();
+            command.add(ForkedRunner.javaCommand(jdk));
+            command.addAll(ForkedRunner.splitFlags(ForkedRunner.COMMON_FLAGS));
+            command.add(PREFIX + "log=true");
+            command.addAll(ForkedRunner.splitFlags(setting.getValue()));
+            command.add("-cp");
+            command.add(classPath);
+            command.add(MarlinSweep.class.getName());
+            command.add("--child=" + name);
+            command.addAll(childArgs);
+
+            System.out.println("Setting " + name + ": [" + setting.getValue() + "]");
+            final Path log = workDir.resolve(name + ".log");
+            final int exitCode = ForkedRunner.launch(command, workDir, log);
+            if (exitCode != 0 || !Files.exists(workDir.resolve(name + ".csv"))) {
+                System.err.println("Setting " + name + " failed (exit code " + exitCode + "), see " + log);
+                continue;
+            }
+            names.add(name);
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        report(names, settings, workDir);
+    }
+
+    /**
+     * Reads the child output, prints the summary table and writes the merged
+     * reports ({@code marlin-sweep.csv} and {@code marlin-tiles.csv}).
+     */
+    private static void report(List<String> names, Map<String, String> settings, Path workDir)
+            throws IOException {
+        final BufferedImage reference = ImageIO.read(workDir.resolve(names.get(0) + ".png").toFile());
+        final String format = "%-16s %9s %9s %9s %-9s %8s %9s %6s %8s %-9s";
+        System.out.println(String.format(Locale.ROOT, format, "setting", "draw", "total", "p90",
+                "tile", "tile", "diff [%]", "max", "mean", "worst"));
+        try (PrintWriter sweepOut = new PrintWriter(Files.newBufferedWriter(
+                    workDir.resolve("marlin-sweep.csv"), StandardCharsets.UTF_8));
+                PrintWriter tilesOut = new PrintWriter(Files.newBufferedWriter(
+                    workDir.resolve("marlin-tiles.csv"), StandardCharsets.UTF_8))) {
+            sweepOut.println("setting,flags,draw.p50,total.p50,total.p90,slowest.tile,slowest.tile.p50,"
+                    + "diff.pixels,diff.percent,max.delta,mean.delta,worst.tile");
+            tilesOut.println("setting,tile,n,p50,p90");
+            for (String name : names) {
+                final ForkedRunner.Result result = ForkedRunner.readReport(
+                        new ForkedRunner.Result(null, settings.get(name), "java2D"),
+                        workDir.resolve(name + ".csv"));
+                final String[] draw = result.getRow("draw");
+                final String[] total = result.getRow("total");
+
+                // the slowest tile (by median):
+                String slowest = "-";
+                double slowestTime = 0.0;
+                for (String line : Files.readAllLines(workDir.resolve(name + "-tiles.csv"),
+                        StandardCharsets.UTF_8)) {
+                    tilesOut.println(name + "," + line);
+                    final String[] row = line.split(",");
+                    final double p50 = Double.parseDouble(row[2]);
+                    if (p50 > slowestTime) {
+                        slowestTime = p50;
+                        slowest = row[0];
+                    }
+                }
+
+                final BufferedImage image = ImageIO.read(workDir.resolve(name + ".png").toFile());
+                final Deviation deviation = compare(reference, image, Tester.getTileWidth(), Tester.getTileHeight());
+                final String worst = deviation.worstTile != null ? deviation.worstTile : "-";
+                System.out.println(String.format(Locale.ROOT,
+                        "%-16s %9s %9s %9s %-9s %8.3f %9.4f %6d %8.4f %-9s",
+                        name, draw[5], total[5], total[6], slowest, slowestTime,
+                        deviation.getDifferentPercent(), deviation.maxDelta,
+                        deviation.getMeanDelta(), worst));
+                sweepOut.println(String.format(Locale.ROOT,
+                        "%s,\"%s\",%s,%s,%s,%s,%.4f,%d,%.4f,%d,%.4f,%s",
+                        name, settings.get(name), draw[5], total[5], total[6], slowest, slowestTime,
+                        deviation.differentPixels, deviation.getDifferentPercent(),
+                        deviation.maxDelta, deviation.getMeanDelta(), worst));
+            }
+        }
+        System.out.println("Reports written to " + workDir.resolve("marlin-sweep.csv") + " and "
+                + workDir.resolve("marlin-tiles.csv"));
+    }
+
+    private MarlinSweep() {
+        // no-op
+    }
+
+    /**
+     * Runs the sweep.  The options are {@code --setting=name:options}
+     * (repeatable, replaces the default settings except the reference),
+     * {@code --jdk=path} (default is the running JDK), {@code --cp=classpath}
+     * (default is the classpath of this JVM), {@code --out=dir} (default
+     * "marlin"), {@code --warmup=N} and {@code --repeats=N}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws Exception if there is a problem.
+     */
+    public static void main(String[] args) throws Exception {
+        String child = null;
+        int warmups = BenchmarkHarness.DEFAULT_WARMUPS;
+        int repeats = BenchmarkHarness.DEFAULT_REPEATS;
+        String jdk = System.getProperty("java.home");
+        String classPath = System.getProperty("java.class.path");
+        Path workDir = Paths.get("marlin");
+        final Map<String, String> custom = new LinkedHashMap<>();
+        final List<String> childArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--child=")) {
+                child = arg.substring("--child=".length());
+            } else if (arg.startsWith("--warmup=")) {
+                warmups = Integer.parseInt(arg.substring("--warmup=".length()));
+                childArgs.add(arg);
+            } else if (arg.startsWith("--repeats=")) {
+                repeats = Integer.parseInt(arg.substring("--repeats=".length()));
+                childArgs.add(arg);
+            } else if (arg.startsWith("--setting=")) {
+                final String setting = arg.substring("--setting=".length());
+                final int colon = setting.indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Expected --setting=name:options, found " + arg);
+                }
+                custom.put(setting.substring(0, colon), setting.substring(colon + 1));
+            } else if (arg.startsWith("--jdk=")) {
+                jdk = arg.substring("--jdk=".length());
+            } else if (arg.startsWith("--cp=")) {
+                classPath = arg.substring("--cp=".length());
+            } else if (arg.startsWith("--out=")) {
+                workDir = Paths.get(arg.substring("--out=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        if (child != null) {
+            runChild(child, warmups, repeats);
+        } else {
+            Map<String, String> settings = defaultSettings();
+            if (!custom.isEmpty()) {
+                settings = new LinkedHashMap<>();
+                settings.put(DEFAULT_SETTING, "");
+                settings.putAll(custom);
+            }
+            sweep(jdk, settings, ForkedRunner.absoluteClassPath(classPath), childArgs, workDir);
+        }
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Measures the heap used by a section of code: the peak heap usage, the
+ * largest heap still in use after a garbage collection (the live data), the
+ * garbage collections and the bytes allocated by the calling thread.  The
+ * used heap only grows between collections, so the peak is the larger of the
+ * heap usage reported before each collection by the GC notifications and the
+ * heap usage at {@link #stop()} (the pool peaks are not summed, they are
+ * reached at different times).  The notifications are delivered
+ * asynchronously, so {@link #stop()} waits (up to
+ * {@link #NOTIFICATION_TIMEOUT} milliseconds) until one has arrived for each
+ * collection.  Call {@code System.gc()} before {@link #start()} for
+ * comparable results.
+ */
+public final class MemoryProbe implements NotificationListener {
+
+    /** The maximum time {@link #stop()} waits for the GC notifications (milliseconds). */
+    static final long NOTIFICATION_TIMEOUT = 1000L;
+
+    private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+
+    private long gcCount;
+
+    private long gcTime;
+
+    private long allocated;
+
+    private volatile long peakBeforeGc;
+
+    private volatile long maxAfterGc;
+
+    /** The number of GC notifications received since {@link #start()}. */
+    private long notifications;
+
+    private long peak;
+
+    private boolean running;
+
+    /**
+     * Creates a new probe.
+     */
+    public MemoryProbe() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                this.heapPools.add(pool);
+            }
+        }
+    }
+
+    /**
+     * Starts a measurement.
+     */
+    public void start() {
+        this.peakBeforeGc = 0L;
+        this.maxAfterGc = 0L;
+        synchronized (this) {
+            this.notifications = 0L;
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(this, null, null);
+            }
+        }
+        this.gcCount = -totalGcCount();
+        this.gcTime = -totalGcTime();
+        this.allocated = allocatedBytes();
+        this.running = true;
+    }
+
+    /**
+     * Ends the measurement.
+     */
+    public void stop() {
+        if (!this.running) {
+            return;
+        }
+        this.allocated = this.allocated < 0L ? -1L : allocatedBytes() - this.allocated;
+        this.gcCount += totalGcCount();
+        this.gcTime += totalGcTime();
+        awaitNotifications(this.gcCount);
+        final long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) gc).removeNotificationListener(this);
+                } catch (Exception e) {
+                    // the listener was not added to this collector
+                }
+            }
+        }
+        this.peak = Math.max(used, Math.max(this.peakBeforeGc, this.maxAfterGc));
+        this.running = false;
+    }
+
+    /**
+     * Waits until a notification has been received for each collection (or
+     * until {@link #NOTIFICATION_TIMEOUT}), so that the figures of a late
+     * collection are not lost.
+     *
+     * @param expected  the number of collections.
+     */
+    private synchronized void awaitNotifications(long expected) {
+        final long deadline = System.nanoTime() + NOTIFICATION_TIMEOUT * 1000000L;
+        long remaining = NOTIFICATION_TIMEOUT;
+        while (this.notifications < expected && remaining > 0) {
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            remaining = (deadline - System.nanoTime()) / 1000000L;
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        final GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                (CompositeData) notification.getUserData());
+        final long before = heapUsed(info.getGcInfo().getMemoryUsageBeforeGc());
+        final long after = heapUsed(info.getGcInfo().getMemoryUsageAfterGc());
+        synchronized (this) {
+            this.peakBeforeGc = Math.max(this.peakBeforeGc, before);
+            this.maxAfterGc = Math.max(this.maxAfterGc, after);
+            this.notifications++;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Returns the peak heap usage of the last measurement.
+     *
+     * @return The peak in bytes.
+     */
+    public long getPeakHeap() {
+        return this.peak;
+    }
+
+    /**
+     * Returns the largest heap usage after a garbage collection during the
+     * last measurement (0 if there was no collection).
+     *
+     * @return The live heap in bytes.
+     */
+    public long getMaxLiveHeap() {
+        return this.maxAfterGc;
+    }
+
+    /**
+     * Returns the number of garbage collections during the last measurement.
+     *
+     * @return The collection count.
+     */
+    public long getGcCount() {
+        return this.gcCount;
+    }
+
+    /**
+     * Returns the time spent in garbage collections during the last
+     * measurement.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getGcTime() {
+        return this.gcTime;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the thread that called
+     * {@link #start()} during the last measurement (-1 if the JVM does not
+     * support allocation counting).
+     *
+     * @return The allocated bytes.
+     */
+    public long getAllocatedBytes() {
+        return this.allocated;
+    }
+
+    private long heapUsed(Map<String, MemoryUsage> usage) {
+        long result = 0L;
+        for (MemoryPoolMXBean pool : this.heapPools) {
+            final MemoryUsage u = usage.get(pool.getName());
+            if (u != null) {
+                result += u.getUsed();
+            }
+        }
+        return result;
+    }
+
+    private static long totalGcCount() {
+        long result = 0L;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result += Math.max(0L, gc.getCollectionCount());
+        }
+        return result;
+    }
+
+    private static long totalGcTime() {
+        long result = 0L;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result += Math.max(0L, gc.getCollectionTime());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the calling thread so far
+     * (-1 if the JVM does not support allocation counting).
+     *
+     * @return The allocated bytes.
+     */
+    static long allocatedBytes() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) threads;
+            if (t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled()) {
+                return t.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1L;
+    }
+
+}
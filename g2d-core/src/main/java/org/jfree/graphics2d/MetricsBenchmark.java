@@ -0,0 +1,211 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A font metrics query suite: the throughput and the allocation per call of
+ * the metrics APIs that layout code (axis labelling, legends) calls far more
+ * often than it draws - {@code getFontMetrics()}, {@code getFontRenderContext()},
+ * {@code stringWidth()}, {@code getStringBounds()}, {@code getLineMetrics()}
+ * and {@code TextLayout} creation.  Each query runs with warm caches (the
+ * same few fonts) and with cold caches (a font size that has not been used
+ * before for every call, with a tenth of the calls; the fonts are derived
+ * before each run, outside the timed section).  The rate is reported in calls per second, and a
+ * summary shows whether each backend returns the same
+ * {@code FontMetrics} and {@code FontRenderContext} instances for repeated
+ * calls or creates new ones.
+ */
+public final class MetricsBenchmark {
+
+    /** The default number of queries per iteration. */
+    static final int DEFAULT_CALLS = 5000;
+
+    /**
+     * A metrics query.
+     */
+    interface Query {
+
+        /**
+         * Runs the query.
+         *
+         * @param g2  the graphics target.
+         * @param font  the font.
+         * @param text  the text.
+         *
+         * @return A value derived from the result (so the call is not elided).
+         */
+        double run(Graphics2D g2, Font font, String text);
+    }
+
+    /**
+     * Runs one query repeatedly.
+     */
+    static final class QueryWorkload implements Workload {
+
+        private final String name;
+
+        private final Query query;
+
+        private final boolean cold;
+
+        private final int calls;
+
+        private final Font[] fonts = {new Font(Font.SERIF, Font.PLAIN, 12), new Font(Font.SANS_SERIF, Font.BOLD, 10),
+            new Font(Font.SANS_SERIF, Font.PLAIN, 14)};
+
+        /** The fonts for the next cold run (one per call). */
+        private final Font[] coldFonts;
+
+        /** The number of fonts created for the cold runs so far. */
+        private int created;
+
+        QueryWorkload(String name, Query query, boolean cold, int calls) {
+            this.name = name;
+            this.query = query;
+            this.cold = cold;
+            this.coldFonts = cold ? new Font[calls] : null;
+            this.calls = calls;
+        }
+
+        @Override
+        public String getName() {
+            return this.name + (this.cold ? "-cold" : "-warm");
+        }
+
+        @Override
+        public String getUnit() {
+            return "calls";
+        }
+
+        @Override
+        public void prepareRun() {
+            if (!this.cold) {
+                return;
+            }
+            for (int i = 0; i < this.calls; i++) {
+                // a size that has not been used before, so no cached strike or metrics can be reused:
+                final float size = 10f + (this.created++ % 1000000) * 1e-5f;
+                this.coldFonts[i] = this.fonts[i % this.fonts.length].deriveFont(size);
+            }
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            final Font[] fonts = this.cold ? this.coldFonts : this.fonts;
+            double sum = 0.0;
+            for (int i = 0; i < this.calls; i++) {
+                final Font font = fonts[i % fonts.length];
+                sum += this.query.run(g2, font, TextBenchmark.LABELS[i % TextBenchmark.LABELS.length]);
+            }
+            WorkloadRunner.consume(sum);
+            return this.calls;
+        }
+    }
+
+    private MetricsBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Creates the workloads of the suite.
+     *
+     * @param calls  the number of queries per iteration.
+     *
+     * @return The workloads.
+     */
+    static List<Workload> createWorkloads(int calls) {
+        final List<String> names = new ArrayList<>();
+        final List<Query> queries = new ArrayList<>();
+        names.add("getFontMetrics");
+        queries.add((g2, font, text) -> g2.getFontMetrics(font).getAscent());
+        names.add("getFontRenderContext");
+        queries.add((g2, font, text) -> g2.getFontRenderContext().isAntiAliased() ? 1.0 : 0.0);
+        names.add("stringWidth");
+        queries.add((g2, font, text) -> g2.getFontMetrics(font).stringWidth(text));
+        names.add("fm.getStringBounds");
+        queries.add((g2, font, text) -> g2.getFontMetrics(font).getStringBounds(text, g2).getWidth());
+        names.add("getLineMetrics");
+        queries.add((g2, font, text) -> g2.getFontMetrics(font).getLineMetrics(text, g2).getAscent());
+        names.add("font.getStringBounds");
+        queries.add((g2, font, text) -> font.getStringBounds(text, g2.getFontRenderContext()).getWidth());
+        names.add("TextLayout");
+        queries.add((g2, font, text) -> new TextLayout(text, font, g2.getFontRenderContext()).getAdvance());
+        final List<Workload> result = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            result.add(new QueryWorkload(names.get(i), queries.get(i), false, calls));
+            if (!names.get(i).equals("getFontRenderContext")) {
+                // a new strike costs about 100 times a cached query:
+                result.add(new QueryWorkload(names.get(i), queries.get(i), true, Math.max(1, calls / 10)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Prints, for each backend, whether repeated calls return the same
+     * {@code FontMetrics} and {@code FontRenderContext} instances.
+     *
+     * @param backends  the backends.
+     */
+    static void printReuseSummary(List<Graphics2DBackend> backends) {
+        System.out.println("Instance reuse for repeated calls:");
+        System.out.println(String.format(Locale.ROOT, "%-14s %-14s %-18s", "backend", "FontMetrics",
+                "FontRenderContext"));
+        final Font font = new Font(Font.SERIF, Font.PLAIN, 12);
+        for (Graphics2DBackend backend : backends) {
+            backend.create(Tester.getTestSheetWidth(), Tester.getTestSheetHeight());
+            try {
+                final Graphics2D g2 = backend.reset();
+                final FontMetrics fm = g2.getFontMetrics(font);
+                final FontRenderContext frc = g2.getFontRenderContext();
+                System.out.println(String.format(Locale.ROOT, "%-14s %-14s %-18s", backend.getName(),
+                        fm == g2.getFontMetrics(font) ? "same" : "new per call",
+                        frc == g2.getFontRenderContext() ? "same" : "new per call"));
+            } finally {
+                backend.dispose();
+            }
+        }
+    }
+
+    /**
+     * Runs the metrics suite.  The options are {@code --calls=N} (queries per
+     * iteration) and those of {@link WorkloadRunner#runSuite}; the report is
+     * written to {@code metrics.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int calls = DEFAULT_CALLS;
+        final List<String> rest = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--calls=")) {
+                calls = Integer.parseInt(arg.substring("--calls=".length()));
+            } else {
+                rest.add(arg);
+                if (!arg.startsWith("--")) {
+                    names.add(arg);
+                }
+            }
+        }
+        WorkloadRunner.runSuite("metrics", createWorkloads(calls), rest);
+        printReuseSummary(WorkloadRunner.selectBackends(names));
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The destination for the encoded output of each iteration (the WRITE phase).
+ * Selecting a sink that does not touch the disk separates the cost of the
+ * backend from the cost of the file system:
+ * <ul>
+ * <li>"file" - a file written with {@code Files.newOutputStream()} (the default);</li>
+ * <li>"memory" - a retained in-memory buffer (a copy of the bytes);</li>
+ * <li>"discard" - the bytes are only counted;</li>
+ * <li>"channel" - a file written through a {@code FileChannel};</li>
+ * <li>"channel-fsync" - as "channel", followed by {@code force(true)}.</li>
+ * </ul>
+ * The default sink for all runners can be set with the system property
+ * "tester.sink".  Sinks are not thread-safe.
+ */
+public abstract class OutputSink {
+
+    /** The system property for the default sink. */
+    public static final String PROPERTY = "tester.sink";
+
+    /** The names of the available sinks. */
+    public static final List<String> NAMES = Arrays.asList("file", "memory", "discard", "channel", "channel-fsync");
+
+    /** The total number of bytes written. */
+    private long bytesWritten;
+
+    /** The number of streams opened. */
+    private int count;
+
+    /**
+     * Creates a sink.
+     *
+     * @param name  the sink name (see {@link #NAMES}).
+     *
+     * @return The sink.
+     *
+     * @throws IllegalArgumentException if there is no sink with that name.
+     */
+    public static OutputSink create(String name) {
+        switch (name) {
+            case "file":
+                return new FileSink();
+            case "memory":
+                return new MemorySink();
+            case "discard":
+                return new DiscardSink();
+            case "channel":
+                return new ChannelSink(false);
+            case "channel-fsync":
+                return new ChannelSink(true);
+            default:
+                throw new IllegalArgumentException("Unknown sink '" + name + "', expected one of " + NAMES);
+        }
+    }
+
+    /**
+     * Creates the sink selected by the system property "tester.sink"
+     * (a file sink if the property is not set).
+     *
+     * @return The sink.
+     */
+    public static OutputSink fromSystemProperty() {
+        return create(System.getProperty(PROPERTY, "file"));
+    }
+
+    /**
+     * Returns the sink name.
+     *
+     * @return The name.
+     */
+    public abstract String getName();
+
+    /**
+     * Opens the destination for one output.  The bytes written to the
+     * returned stream are counted, and closing it completes the write (for
+     * example, the fsync).
+     *
+     * @param path  the output file (ignored by sinks that do not write files).
+     *
+     * @return The output stream.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public final OutputStream open(Path path) throws IOException {
+        this.count++;
+        return new FilterOutputStream(openStream(path)) {
+            @Override
+            public void write(int b) throws IOException {
+                this.out.write(b);
+                bytesWritten++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                this.out.write(b, off, len);
+                bytesWritten += len;
+            }
+        };
+    }
+
+    /**
+     * Writes one output.
+     *
+     * @param bytes  the encoded output.
+     * @param path  the output file (ignored by sinks that do not write files).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public void write(ByteArrayOutputStream bytes, Path path) throws IOException {
+        try (OutputStream out = open(path)) {
+            bytes.writeTo(out);
+        }
+    }
+
+    /**
+     * Returns the average number of bytes per output.
+     *
+     * @return The average number of bytes (0 if nothing was written).
+     */
+    public long getAverageBytes() {
+        return this.count == 0 ? 0L : this.bytesWritten / this.count;
+    }
+
+    /**
+     * Opens the underlying stream.
+     *
+     * @param path  the output file.
+     *
+     * @return The stream.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    protected abstract OutputStream openStream(Path path) throws IOException;
+
+    private static final class FileSink extends OutputSink {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        protected OutputStream openStream(Path path) throws IOException {
+            return Files.newOutputStream(path);
+        }
+    }
+
+    private static final class MemorySink extends OutputSink {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024 * 1024);
+
+        @Override
+        public String getName() {
+            return "memory";
+        }
+
+        @Override
+        protected OutputStream openStream(Path path) {
+            this.buffer.reset();
+            return this.buffer;
+        }
+    }
+
+    private static final class DiscardSink extends OutputSink {
+
+        @Override
+        public String getName() {
+            return "discard";
+        }
+
+        @Override
+        protected OutputStream openStream(Path path) {
+            return OutputStream.nullOutputStream();
+        }
+    }
+
+    private static final class ChannelSink extends OutputSink {
+
+        private final boolean fsync;
+
+        ChannelSink(boolean fsync) {
+            this.fsync = fsync;
+        }
+
+        @Override
+        public String getName() {
+            return this.fsync ? "channel-fsync" : "channel";
+        }
+
+        @Override
+        protected OutputStream openStream(Path path) throws IOException {
+            final FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        if (fsync) {
+                            channel.force(true);
+                        }
+                    } finally {
+                        channel.close();
+                    }
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,689 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A PNG writer that filters and deflates horizontal strips of the image
+ * concurrently and stitches the results into one valid PNG file (8 bits per
+ * channel, RGB or RGBA).  Each strip is compressed as a raw deflate block
+ * sequence ending with a sync flush, using the last 32K of the previous
+ * strip as the preset dictionary, so the compression ratio stays close to a
+ * single-threaded encoder; the Adler-32 checksums of the strips are combined
+ * for the zlib trailer.  The {@code Deflater} instances and the strip buffers
+ * are reused from one image to the next.
+ * <p>
+ * The rows can also be written incrementally (see {@link #begin}), so an
+ * image can be encoded band by band without holding all of it in memory.
+ * <p>
+ * The backends that write PNG files use this encoder instead of
+ * {@code ImageIO} when the system property "tester.png" is set (see
+ * {@link #parse(String)}).  Instances are thread-safe, but only one image can
+ * be encoded at a time.
+ */
+public final class ParallelPngEncoder implements Closeable {
+
+    /** The system property that selects the PNG encoder. */
+    public static final String PROPERTY = "tester.png";
+
+    /** The default number of rows per strip. */
+    public static final int DEFAULT_STRIP_ROWS = 64;
+
+    /** The default compression level (the same as the ImageIO PNG writer). */
+    public static final int DEFAULT_LEVEL = 4;
+
+    /** The size of the deflate window (the longest useful dictionary). */
+    private static final int WINDOW = 32 * 1024;
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The row filter strategies.  {@code ADAPTIVE} selects the filter with the
+     * smallest sum of absolute differences for each row (as ImageIO does).
+     */
+    public enum Filter {
+        NONE, SUB, UP, AVERAGE, PAETH, ADAPTIVE
+    }
+
+    private final int threads;
+
+    private final int stripRows;
+
+    private final int level;
+
+    private final Filter filter;
+
+    private final ExecutorService executor;
+
+    private final ConcurrentLinkedQueue<Worker> workers = new ConcurrentLinkedQueue<>();
+
+    /** The strips, reused by each session. */
+    private final List<Strip> strips = new ArrayList<>();
+
+    /**
+     * Creates an encoder with the default settings: one thread per processor,
+     * {@link #DEFAULT_STRIP_ROWS}, {@link #DEFAULT_LEVEL} and adaptive
+     * filtering.
+     */
+    public ParallelPngEncoder() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_STRIP_ROWS, DEFAULT_LEVEL, Filter.ADAPTIVE);
+    }
+
+    /**
+     * Creates an encoder.
+     *
+     * @param threads  the number of threads (1 encodes on the calling thread).
+     * @param stripRows  the number of rows per strip.
+     * @param level  the deflate level (0 to 9).
+     * @param filter  the filter strategy ({@code null} not permitted).
+     */
+    public ParallelPngEncoder(int threads, int stripRows, int level, Filter filter) {
+        if (threads < 1 || stripRows < 1) {
+            throw new IllegalArgumentException("Require threads >= 1 and stripRows >= 1.");
+        }
+        if (level < 0 || level > 9) {
+            throw new IllegalArgumentException("Invalid level " + level + ", expected 0 to 9.");
+        }
+        if (filter == null) {
+            throw new IllegalArgumentException("Null 'filter' argument.");
+        }
+        this.threads = threads;
+        this.stripRows = stripRows;
+        this.level = level;
+        this.filter = filter;
+        this.executor = threads == 1 ? null : Executors.newFixedThreadPool(threads, r -> {
+            final Thread t = new Thread(r, "png-encoder");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Parses an encoder specification: "imageio" (no encoder, the result is
+     * {@code null}) or "parallel" with optional settings, for example
+     * "parallel:filter=paeth,threads=4,rows=32,level=6".
+     *
+     * @param spec  the specification.
+     *
+     * @return The encoder (possibly {@code null}).
+     */
+    public static ParallelPngEncoder parse(String spec) {
+        if (spec == null || spec.equals("imageio")) {
+            return null;
+        }
+        if (!spec.startsWith("parallel")) {
+            throw new IllegalArgumentException("Unknown PNG encoder '" + spec + "', expected imageio or parallel.");
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int rows = DEFAULT_STRIP_ROWS;
+        int level = DEFAULT_LEVEL;
+        Filter filter = Filter.ADAPTIVE;
+        final int colon = spec.indexOf(':');
+        if (colon > 0) {
+            for (String option : spec.substring(colon + 1).split(",")) {
+                final int eq = option.indexOf('=');
+                final String key = eq > 0 ? option.substring(0, eq) : option;
+                final String value = eq > 0 ? option.substring(eq + 1) : "";
+                switch (key) {
+                    case "filter":
+                        filter = Filter.valueOf(value.toUpperCase(Locale.ROOT));
+                        break;
+                    case "threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "rows":
+                        rows = Integer.parseInt(value);
+                        break;
+                    case "level":
+                        level = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown PNG encoder option '" + option + "'.");
+                }
+            }
+        }
+        return new ParallelPngEncoder(threads, rows, level, filter);
+    }
+
+    /**
+     * Returns the encoder selected by the system property "tester.png"
+     * ({@code null}, for ImageIO, if the property is not set).
+     *
+     * @return The encoder (possibly {@code null}).
+     */
+    public static ParallelPngEncoder fromSystemProperty() {
+        return parse(System.getProperty(PROPERTY));
+    }
+
+    /**
+     * Returns a short description of the settings.
+     *
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        return "parallel:filter=" + this.filter.name().toLowerCase(Locale.ROOT) + ",threads=" + this.threads
+                + ",rows=" + this.stripRows + ",level=" + this.level;
+    }
+
+    /**
+     * Encodes an image.
+     *
+     * @param image  the image.
+     * @param out  the output stream (not closed).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public void encode(BufferedImage image, OutputStream out) throws IOException {
+        final Session session = begin(out, image.getWidth(), image.getHeight(), image.getColorModel().hasAlpha());
+        session.writeRows(image, 0, image.getHeight());
+        session.finish();
+    }
+
+    /**
+     * Starts an image that is written incrementally: the header is written
+     * immediately and the rows are then added in order with
+     * {@link Session#writeRows(BufferedImage, int, int)}.
+     *
+     * @param out  the output stream (not closed).
+     * @param width  the image width.
+     * @param height  the image height.
+     * @param alpha  write an alpha channel?
+     *
+     * @return The session.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public Session begin(OutputStream out, int width, int height, boolean alpha) throws IOException {
+        return new Session(out, width, height, alpha);
+    }
+
+    /**
+     * Stops the threads and releases the deflaters.
+     */
+    @Override
+    public void close() {
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+        Worker w;
+        while ((w = this.workers.poll()) != null) {
+            w.deflater.end();
+        }
+    }
+
+    /**
+     * An image being written.
+     */
+    public final class Session {
+
+        private final OutputStream out;
+
+        private final int width;
+
+        private final int height;
+
+        private final int bpp;
+
+        private final CRC32 crc = new CRC32();
+
+        private final byte[] word = new byte[4];
+
+        /** The raw bytes of the last row written (the "up" row for the next call). */
+        private final byte[] lastRow;
+
+        /** The end of the last strip written (the dictionary for the next call). */
+        private final byte[] tail = new byte[WINDOW];
+
+        private int tailLength;
+
+        private long adler = 1L;
+
+        private int rowsWritten;
+
+        private Session(OutputStream out, int width, int height, boolean alpha) throws IOException {
+            if (width < 1 || height < 1) {
+                throw new IllegalArgumentException("Require width >= 1 and height >= 1.");
+            }
+            this.out = out;
+            this.width = width;
+            this.height = height;
+            this.bpp = alpha ? 4 : 3;
+            this.lastRow = new byte[width * this.bpp];
+            out.write(SIGNATURE);
+            final byte[] header = new byte[13];
+            putInt(header, 0, width);
+            putInt(header, 4, height);
+            header[8] = 8; // bit depth
+            header[9] = (byte) (alpha ? 6 : 2); // RGBA or RGB
+            writeChunk("IHDR", header, 0, header.length);
+            // the zlib header (deflate, 32K window, no dictionary, level hint):
+            final int flags = level < 2 ? 0x01 : level < 6 ? 0x5E : level == 6 ? 0x9C : 0xDA;
+            writeChunk("IDAT", new byte[] {0x78, (byte) flags}, 0, 2);
+        }
+
+        /**
+         * Writes the next rows of the image.
+         *
+         * @param image  the image holding the rows (its width must match).
+         * @param y  the first row to write (in image coordinates).
+         * @param rows  the number of rows (0 writes nothing).
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        public void writeRows(BufferedImage image, int y, int rows) throws IOException {
+            if (image.getWidth() != this.width) {
+                throw new IllegalArgumentException("The image width " + image.getWidth() + " != " + this.width);
+            }
+            if (rows < 0) {
+                throw new IllegalArgumentException("Negative row count " + rows);
+            }
+            if (rows == 0) {
+                return;
+            }
+            if (rows > this.height - this.rowsWritten) {
+                throw new IllegalArgumentException("Too many rows for the image height " + this.height);
+            }
+            final int count = (rows + stripRows - 1) / stripRows;
+            synchronized (strips) {
+                while (strips.size() < count) {
+                    strips.add(new Strip());
+                }
+                for (int i = 0; i < count; i++) {
+                    final Strip s = strips.get(i);
+                    s.y = y + i * stripRows;
+                    s.rows = Math.min(stripRows, y + rows - s.y);
+                    s.first = i == 0;
+                }
+                // the filtered bytes of each strip are needed as the dictionary of the next:
+                runAll(count, i -> strips.get(i).filter(this, image));
+                runAll(count, i -> strips.get(i).deflate(this, i == 0 ? null : strips.get(i - 1)));
+                for (int i = 0; i < count; i++) {
+                    final Strip s = strips.get(i);
+                    writeChunk("IDAT", s.compressed, 0, s.compressedLength);
+                    this.adler = combineAdler32(this.adler, s.adler, s.filteredLength);
+                }
+                final Strip last = strips.get(count - 1);
+                this.tailLength = Math.min(WINDOW, last.filteredLength);
+                System.arraycopy(last.filtered, last.filteredLength - this.tailLength, this.tail, 0,
+                        this.tailLength);
+                last.rawRow(this, image, y + rows - 1, this.lastRow);
+            }
+            this.rowsWritten += rows;
+        }
+
+        /**
+         * Ends the deflate stream and writes the trailer.
+         *
+         * @throws IOException if there is an I/O problem, or if not all the
+         *     rows have been written.
+         */
+        public void finish() throws IOException {
+            if (this.rowsWritten != this.height) {
+                throw new IOException("Only " + this.rowsWritten + " of " + this.height + " rows written.");
+            }
+            // an empty final block (fixed Huffman, end of block), then the checksum:
+            final byte[] end = {0x03, 0x00, (byte) (this.adler >>> 24), (byte) (this.adler >>> 16),
+                    (byte) (this.adler >>> 8), (byte) this.adler};
+            writeChunk("IDAT", end, 0, end.length);
+            writeChunk("IEND", end, 0, 0);
+            this.out.flush();
+        }
+
+        private void writeChunk(String type, byte[] data, int offset, int length) throws IOException {
+            final byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+            putInt(this.word, 0, length);
+            this.out.write(this.word);
+            this.crc.reset();
+            this.crc.update(typeBytes);
+            this.crc.update(data, offset, length);
+            this.out.write(typeBytes);
+            this.out.write(data, offset, length);
+            putInt(this.word, 0, (int) this.crc.getValue());
+            this.out.write(this.word);
+        }
+    }
+
+    private interface StripTask {
+        void run(int index) throws IOException;
+    }
+
+    private void runAll(int count, StripTask task) throws IOException {
+        if (this.executor == null || count == 1) {
+            for (int i = 0; i < count; i++) {
+                task.run(i);
+            }
+            return;
+        }
+        final List<Callable<Void>> calls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            calls.add(() -> {
+                task.run(index);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : this.executor.invokeAll(calls)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private Worker acquire(int width, int bpp) {
+        Worker w = this.workers.poll();
+        if (w == null) {
+            w = new Worker(new Deflater(this.level, true));
+        }
+        w.ensureCapacity(width, bpp);
+        return w;
+    }
+
+    /**
+     * The per-thread state: a deflater and the row buffers.
+     */
+    private static final class Worker {
+
+        final Deflater deflater;
+
+        final Adler32 adler = new Adler32();
+
+        int[] argb = new int[0];
+
+        byte[] previous = new byte[0];
+
+        byte[] current = new byte[0];
+
+        /** The candidate rows for the adaptive filter (one per filter type). */
+        byte[][] candidates = new byte[5][0];
+
+        Worker(Deflater deflater) {
+            this.deflater = deflater;
+        }
+
+        void ensureCapacity(int width, int bpp) {
+            final int length = width * bpp;
+            if (this.current.length < length) {
+                this.argb = new int[width];
+                this.previous = new byte[length];
+                this.current = new byte[length];
+                for (int i = 0; i < this.candidates.length; i++) {
+                    this.candidates[i] = new byte[length + 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * A strip of rows and its filtered and compressed bytes.
+     */
+    private final class Strip {
+
+        int y;
+
+        int rows;
+
+        /** Is this the first strip of a {@code writeRows()} call? */
+        boolean first;
+
+        byte[] filtered = new byte[0];
+
+        int filteredLength;
+
+        long adler;
+
+        byte[] compressed = new byte[0];
+
+        int compressedLength;
+
+        void filter(Session session, BufferedImage image) {
+            final int rowLength = session.width * session.bpp;
+            this.filteredLength = this.rows * (rowLength + 1);
+            if (this.filtered.length < this.filteredLength) {
+                this.filtered = new byte[this.filteredLength];
+            }
+            final Worker w = acquire(session.width, session.bpp);
+            try {
+                if (!this.first) {
+                    rawRow(session, image, this.y - 1, w.previous);
+                } else if (session.rowsWritten > 0) {
+                    System.arraycopy(session.lastRow, 0, w.previous, 0, rowLength);
+                } else {
+                    Arrays.fill(w.previous, 0, rowLength, (byte) 0);
+                }
+                int offset = 0;
+                for (int r = 0; r < this.rows; r++) {
+                    rawRow(session, image, this.y + r, w.current, w.argb);
+                    filterRow(w, rowLength, session.bpp, this.filtered, offset);
+                    offset += rowLength + 1;
+                    final byte[] swap = w.previous;
+                    w.previous = w.current;
+                    w.current = swap;
+                }
+                w.adler.reset();
+                w.adler.update(this.filtered, 0, this.filteredLength);
+                this.adler = w.adler.getValue();
+            } finally {
+                workers.add(w);
+            }
+        }
+
+        void deflate(Session session, Strip previous) {
+            final Worker w = acquire(session.width, session.bpp);
+            try {
+                final Deflater d = w.deflater;
+                d.reset();
+                if (previous != null) {
+                    final int n = Math.min(WINDOW, previous.filteredLength);
+                    d.setDictionary(previous.filtered, previous.filteredLength - n, n);
+                } else if (session.tailLength > 0) {
+                    d.setDictionary(session.tail, 0, session.tailLength);
+                }
+                d.setInput(this.filtered, 0, this.filteredLength);
+                if (this.compressed.length < 64) {
+                    this.compressed = new byte[Math.max(64, this.filteredLength / 4)];
+                }
+                int length = 0;
+                while (true) {
+                    length += d.deflate(this.compressed, length, this.compressed.length - length,
+                            Deflater.SYNC_FLUSH);
+                    if (length < this.compressed.length) {
+                        break;
+                    }
+                    this.compressed = Arrays.copyOf(this.compressed, this.compressed.length * 2);
+                }
+                this.compressedLength = length;
+            } finally {
+                workers.add(w);
+            }
+        }
+
+        void rawRow(Session session, BufferedImage image, int row, byte[] dest) {
+            rawRow(session, image, row, dest, new int[session.width]);
+        }
+
+        void rawRow(Session session, BufferedImage image, int row, byte[] dest, int[] argb) {
+            final int type = image.getType();
+            if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) {
+                // the raster data is already non-premultiplied ARGB (no color model conversion):
+                image.getRaster().getDataElements(0, row, session.width, 1, argb);
+            } else {
+                image.getRGB(0, row, session.width, 1, argb, 0, session.width);
+            }
+            int j = 0;
+            if (session.bpp == 4) {
+                for (int i = 0; i < session.width; i++) {
+                    final int p = argb[i];
+                    dest[j++] = (byte) (p >>> 16);
+                    dest[j++] = (byte) (p >>> 8);
+                    dest[j++] = (byte) p;
+                    dest[j++] = (byte) (p >>> 24);
+                }
+            } else {
+                for (int i = 0; i < session.width; i++) {
+                    final int p = argb[i];
+                    dest[j++] = (byte) (p >>> 16);
+                    dest[j++] = (byte) (p >>> 8);
+                    dest[j++] = (byte) p;
+                }
+            }
+        }
+
+        private void filterRow(Worker w, int length, int bpp, byte[] dest, int offset) {
+            if (filter != Filter.ADAPTIVE) {
+                applyFilter(filter.ordinal(), w.current, w.previous, length, bpp, dest, offset);
+                return;
+            }
+            int best = 0;
+            long bestSum = Long.MAX_VALUE;
+            for (int f = 0; f < 5; f++) {
+                final long sum = applyFilter(f, w.current, w.previous, length, bpp, w.candidates[f], 0);
+                if (sum < bestSum) {
+                    bestSum = sum;
+                    best = f;
+                }
+            }
+            System.arraycopy(w.candidates[best], 0, dest, offset, length + 1);
+        }
+    }
+
+    /**
+     * Filters one row.
+     *
+     * @param type  the PNG filter type (0 to 4).
+     * @param cur  the raw row.
+     * @param prev  the raw row above (zeros for the first row).
+     * @param length  the row length in bytes.
+     * @param bpp  the bytes per pixel.
+     * @param dest  the destination (the filter type byte and the row).
+     * @param offset  the offset in the destination.
+     *
+     * @return The sum of the absolute (signed) filtered values.
+     */
+    static long applyFilter(int type, byte[] cur, byte[] prev, int length, int bpp, byte[] dest, int offset) {
+        dest[offset++] = (byte) type;
+        long sum = 0L;
+        // one loop per type (the first pixel has no left neighbour):
+        switch (type) {
+            case 0:
+                for (int i = 0; i < length; i++) {
+                    final byte v = cur[i];
+                    dest[offset + i] = v;
+                    sum += Math.abs(v);
+                }
+                break;
+            case 1:
+                for (int i = 0; i < length; i++) {
+                    final byte v = (byte) (cur[i] - (i >= bpp ? cur[i - bpp] : 0));
+                    dest[offset + i] = v;
+                    sum += Math.abs(v);
+                }
+                break;
+            case 2:
+                for (int i = 0; i < length; i++) {
+                    final byte v = (byte) (cur[i] - prev[i]);
+                    dest[offset + i] = v;
+                    sum += Math.abs(v);
+                }
+                break;
+            case 3:
+                for (int i = 0; i < length; i++) {
+                    final int a = i >= bpp ? cur[i - bpp] & 0xFF : 0;
+                    final byte v = (byte) (cur[i] - ((a + (prev[i] & 0xFF)) >>> 1));
+                    dest[offset + i] = v;
+                    sum += Math.abs(v);
+                }
+                break;
+            default:
+                for (int i = 0; i < length; i++) {
+                    final int a = i >= bpp ? cur[i - bpp] & 0xFF : 0;
+                    final int c = i >= bpp ? prev[i - bpp] & 0xFF : 0;
+                    final byte v = (byte) (cur[i] - paeth(a, prev[i] & 0xFF, c));
+                    dest[offset + i] = v;
+                    sum += Math.abs(v);
+                }
+                break;
+        }
+        return sum;
+    }
+
+    private static int paeth(int a, int b, int c) {
+        final int p = a + b - c;
+        final int pa = Math.abs(p - a);
+        final int pb = Math.abs(p - b);
+        final int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two consecutive blocks of data (as
+     * {@code adler32_combine()} in zlib).
+     *
+     * @param adler1  the checksum of the first block.
+     * @param adler2  the checksum of the second block.
+     * @param length2  the length of the second block.
+     *
+     * @return The checksum of the concatenated blocks.
+     */
+    static long combineAdler32(long adler1, long adler2, long length2) {
+        final long base = 65521L;
+        final long rem = length2 % base;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (rem * sum1) % base;
+        sum1 += (adler2 & 0xFFFF) + base - 1;
+        sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + base - rem;
+        if (sum1 >= base) {
+            sum1 -= base;
+        }
+        if (sum1 >= base) {
+            sum1 -= base;
+        }
+        if (sum2 >= (base << 1)) {
+            sum2 -= (base << 1);
+        }
+        if (sum2 >= base) {
+            sum2 -= base;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    private static void putInt(byte[] b, int offset, int v) {
+        b[offset] = (byte) (v >>> 24);
+        b[offset + 1] = (byte) (v >>> 16);
+        b[offset + 2] = (byte) (v >>> 8);
+        b[offset + 3] = (byte) v;
+    }
+
+}
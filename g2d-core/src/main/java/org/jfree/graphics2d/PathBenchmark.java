@@ -0,0 +1,448 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A path complexity suite, scaled up from {@link ShapeTests#createPath2D}
+ * and {@link ShapeTests#createCombinedArea}: generated {@code Path2D} shapes
+ * of 10 to 1000000 line, quadratic or cubic segments (filled with the
+ * {@code WIND_EVEN_ODD} and {@code WIND_NON_ZERO} rules, and stroked), and
+ * {@code Area} chains of add, intersect, subtract and exclusive-or
+ * operations of increasing depth.  The construction of each shape (Java-side
+ * geometry, the same for every backend) is timed once, separately from the
+ * rendering, and the {@code fill()} and {@code draw()} calls are then timed
+ * on each backend with the shapes built in advance.  The rates are in
+ * segments per second, and a summary shows whether the cost per segment
+ * stays flat as the paths grow.
+ */
+public final class PathBenchmark {
+
+    /** The segment counts of the generated paths. */
+    static final int[] SEGMENTS = {10, 100, 1000, 10000, 100000, 1000000};
+
+    /** The depths of the {@code Area} chains. */
+    static final int[] DEPTHS = {1, 2, 4, 8, 16, 32};
+
+    /** The {@code Area} operations. */
+    static final String[] OPERATIONS = {"add", "intersect", "subtract", "xor"};
+
+    /** The minimum number of segments drawn per iteration. */
+    static final int MIN_SEGMENTS = 10000;
+
+    /** The segment count that the scaling summary compares the largest paths with. */
+    private static final int REFERENCE_SEGMENTS = 1000;
+
+    /**
+     * The shapes, built once (on first use, when the runner prepares the
+     * first workload that needs them) and shared by the workloads.  The
+     * construction of each shape is timed when it is built.
+     */
+    static final class Shapes {
+
+        private final Map<String, Shape> shapes = new HashMap<>();
+
+        /** The construction report rows ("shape,segments,build_ms"). */
+        private final List<String> construction = new ArrayList<>();
+
+        /**
+         * Returns a shape, building it and timing its construction on first
+         * use.
+         *
+         * @param key  the key.
+         * @param builder  the builder.
+         *
+         * @return The shape.
+         */
+        Shape get(String key, Supplier<Shape> builder) {
+            Shape result = this.shapes.get(key);
+            if (result == null) {
+                final double ms = timeConstruction(builder);
+                result = builder.get();
+                final int segments = countSegments(result);
+                if (this.construction.isEmpty()) {
+                    System.out.println(String.format(Locale.ROOT, "%-24s %10s %12s %14s", "shape", "segments",
+                            "build [ms]", "ns/segment"));
+                }
+                this.construction.add(String.format(Locale.ROOT, "%s,%d,%.4f", key, segments, ms));
+                System.out.println(String.format(Locale.ROOT, "%-24s %10d %12.3f %14.1f", key, segments, ms,
+                        1e6 * ms / Math.max(1, segments)));
+                this.shapes.put(key, result);
+            }
+            return result;
+        }
+
+        /**
+         * Returns a shape with a winding rule: the shape itself if it is not a
+         * path or already has the rule, otherwise a copy of the path with the
+         * rule (made once, not timed since it is the same geometry), so that
+         * no workload changes a shared path.
+         *
+         * @param key  the key.
+         * @param builder  the builder.
+         * @param rule  the winding rule.
+         *
+         * @return The shape.
+         */
+        Shape get(String key, Supplier<Shape> builder, int rule) {
+            final Shape shape = get(key, builder);
+            if (!(shape instanceof Path2D) || ((Path2D) shape).getWindingRule() == rule) {
+                return shape;
+            }
+            final String variant = key + "-rule-" + rule;
+            Shape result = this.shapes.get(variant);
+            if (result == null) {
+                final Path2D copy = new Path2D.Double(shape);
+                copy.setWindingRule(rule);
+                result = copy;
+                this.shapes.put(variant, result);
+            }
+            return result;
+        }
+
+        /**
+         * Writes the construction times.
+         *
+         * @param path  the report file.
+         *
+         * @throws IOException if there is an I/O problem.
+         */
+        void writeReport(Path path) throws IOException {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+                out.println("shape,segments,build_ms");
+                this.construction.forEach(out::println);
+            }
+        }
+    }
+
+    /**
+     * Fills or strokes a shape (repeated to at least {@link #MIN_SEGMENTS}
+     * segments).
+     */
+    static final class PathWorkload implements Workload {
+
+        private final String name;
+
+        private final Shapes shapes;
+
+        private final String key;
+
+        private final Supplier<Shape> builder;
+
+        /** The winding rule for a fill, or -1 for a stroke. */
+        private final int rule;
+
+        private Shape shape;
+
+        private int segments;
+
+        /**
+         * Creates a workload.
+         *
+         * @param name  the name.
+         * @param shapes  the shared shapes.
+         * @param key  the key of the shape.
+         * @param builder  the builder of the shape.
+         * @param rule  the winding rule for a fill
+         *     ({@code Path2D.WIND_EVEN_ODD} or {@code Path2D.WIND_NON_ZERO}), or
+         *     -1 to draw the shape.
+         */
+        PathWorkload(String name, Shapes shapes, String key, Supplier<Shape> builder, int rule) {
+            this.name = name;
+            this.shapes = shapes;
+            this.key = key;
+            this.builder = builder;
+            this.rule = rule;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getUnit() {
+            return "segments";
+        }
+
+        @Override
+        public void prepare(Tester.TesterContext tc) {
+            this.shape = this.rule >= 0 ? this.shapes.get(this.key, this.builder, this.rule)
+                    : this.shapes.get(this.key, this.builder);
+            this.segments = countSegments(this.shape);
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            // an Area can be empty (for example a deep intersection), so at least one draw:
+            final int draws = Math.max(1, MIN_SEGMENTS / Math.max(1, this.segments));
+            g2.setStroke(new BasicStroke(1f));
+            for (int i = 0; i < draws; i++) {
+                if (this.rule >= 0) {
+                    g2.setPaint(i % 2 == 0 ? Color.BLUE : Color.GRAY);
+                    g2.fill(this.shape);
+                } else {
+                    g2.setPaint(i % 2 == 0 ? Color.BLACK : Color.RED);
+                    g2.draw(this.shape);
+                }
+            }
+            return (long) draws * this.segments;
+        }
+    }
+
+    private PathBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Returns the number of segments of a shape (the {@code lineTo},
+     * {@code quadTo} and {@code curveTo} segments).
+     *
+     * @param shape  the shape.
+     *
+     * @return The segment count.
+     */
+    static int countSegments(Shape shape) {
+        final double[] coords = new double[6];
+        int result = 0;
+        for (PathIterator it = shape.getPathIterator(null); !it.isDone(); it.next()) {
+            final int type = it.currentSegment(coords);
+            if (type == PathIterator.SEG_LINETO || type == PathIterator.SEG_QUADTO
+                    || type == PathIterator.SEG_CUBICTO) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a closed path that winds seven times around the centre of the
+     * sheet (so that the even-odd and non-zero fills differ), with a wavy
+     * radius.
+     *
+     * @param type  the segment type ("line", "quad" or "cubic").
+     * @param segments  the number of segments.
+     *
+     * @return The path.
+     */
+    static Path2D createPath(String type, int segments) {
+        final double cx = Tester.getTestSheetWidth() / 2.0;
+        final double cy = Tester.getTestSheetHeight() / 2.0;
+        final double radius = Math.min(cx, cy) * 0.9;
+        final Path2D result = new Path2D.Double(Path2D.WIND_NON_ZERO, segments + 2);
+        final double step = 2 * Math.PI * 7 / segments;
+        result.moveTo(cx + radius * 0.5, cy);
+        double prevX = cx + radius * 0.5;
+        double prevY = cy;
+        for (int k = 1; k <= segments; k++) {
+            final double theta = k * step;
+            final double r = radius * (0.5 + 0.4 * Math.sin(theta * 5 / 7));
+            final double x = cx + r * Math.cos(theta);
+            final double y = cy + r * Math.sin(theta);
+            switch (type) {
+                case "line":
+                    result.lineTo(x, y);
+                    break;
+                case "quad":
+                    result.quadTo((prevX + x) / 2 + (y - prevY) * 0.3, (prevY + y) / 2 - (x - prevX) * 0.3, x, y);
+                    break;
+                case "cubic":
+                    result.curveTo(prevX + (x - prevX) / 3 + (y - prevY) * 0.3,
+                            prevY + (y - prevY) / 3 - (x - prevX) * 0.3,
+                            prevX + 2 * (x - prevX) / 3 - (y - prevY) * 0.3,
+                            prevY + 2 * (y - prevY) / 3 + (x - prevX) * 0.3, x, y);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown segment type " + type);
+            }
+            prevX = x;
+            prevY = y;
+        }
+        result.closePath();
+        return result;
+    }
+
+    /**
+     * Creates an {@code Area} by applying an operation repeatedly: an
+     * ellipse combined with ellipses rotated around the centre of the sheet.
+     *
+     * @param operation  the operation ("add", "intersect", "subtract" or
+     *     "xor").
+     * @param depth  the number of operations.
+     *
+     * @return The area.
+     */
+    static Area createArea(String operation, int depth) {
+        final double cx = Tester.getTestSheetWidth() / 2.0;
+        final double cy = Tester.getTestSheetHeight() / 2.0;
+        final double w = Tester.getTestSheetWidth() * 0.8;
+        final double h = w * 0.4;
+        final Ellipse2D ellipse = new Ellipse2D.Double(cx - w / 2, cy - h / 2, w, h);
+        final Area result = new Area(ellipse);
+        for (int j = 1; j <= depth; j++) {
+            final double angle = Math.PI * j / (depth + 1);
+            // subtracting the same ellipse rotated would leave little, so the subtracted ellipses are smaller:
+            final double s = operation.equals("subtract") ? 0.3 : 1.0;
+            final AffineTransform t = AffineTransform.getRotateInstance(angle, cx, cy);
+            t.translate(cx, cy);
+            t.scale(s, s);
+            t.translate(-cx + (operation.equals("subtract") ? w * 0.4 : 0), -cy);
+            final Area other = new Area(t.createTransformedShape(ellipse));
+            switch (operation) {
+                case "add":
+                    result.add(other);
+                    break;
+                case "intersect":
+                    result.intersect(other);
+                    break;
+                case "subtract":
+                    result.subtract(other);
+                    break;
+                case "xor":
+                    result.exclusiveOr(other);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + operation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the median time of building a shape (milliseconds), with fewer
+     * repeats for the shapes that take longer than 100 milliseconds.
+     *
+     * @param builder  the builder.
+     *
+     * @return The median time.
+     */
+    static double timeConstruction(Supplier<Shape> builder) {
+        long start = System.nanoTime();
+        builder.get();
+        final long first = System.nanoTime() - start;
+        final int repeats = first > 100_000_000L ? 3 : 9;
+        final long[] times = new long[repeats];
+        for (int i = -1; i < repeats; i++) {
+            start = System.nanoTime();
+            builder.get();
+            if (i >= 0) {
+                times[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(times);
+        return 1e-6d * PhaseTimer.percentile(times, 50);
+    }
+
+    /**
+     * Prints, for each backend, the time per segment of the largest shapes
+     * relative to the shapes of 1000 segments (a ratio near 1 is linear).
+     *
+     * @param results  the suite results.
+     */
+    static void printScalingSummary(List<WorkloadRunner.Result> results) {
+        System.out.println("Time per segment at the largest size relative to " + REFERENCE_SEGMENTS
+                + " segments:");
+        final Map<String, WorkloadRunner.Result> reference = new HashMap<>();
+        final Map<String, WorkloadRunner.Result> largest = new LinkedHashMap<>();
+        for (WorkloadRunner.Result r : results) {
+            if (!r.workload.startsWith("line-") && !r.workload.startsWith("quad-")
+                    && !r.workload.startsWith("cubic-")) {
+                continue;
+            }
+            final String[] parts = r.workload.split("-", 3);
+            final String key = r.backend + " " + parts[0] + "-" + parts[2];
+            if (Integer.parseInt(parts[1]) == REFERENCE_SEGMENTS) {
+                reference.put(key, r);
+            }
+            largest.put(key, r);
+        }
+        for (Map.Entry<String, WorkloadRunner.Result> entry : largest.entrySet()) {
+            final WorkloadRunner.Result ref = reference.get(entry.getKey());
+            final WorkloadRunner.Result r = entry.getValue();
+            if (ref == null || ref == r) {
+                continue;
+            }
+            final double ratio = ref.getRate() / r.getRate();
+            System.out.println(String.format(Locale.ROOT, "%-34s %-26s %7.2f%s", entry.getKey(), r.workload, ratio,
+                    ratio > 2.0 ? "  <- not linear" : ""));
+        }
+    }
+
+    /**
+     * Runs the path suite.  The options are {@code --max-segments=N} (the
+     * largest generated path, 1000000 by default) and those of
+     * {@link WorkloadRunner#runSuite}; only the shapes of the workloads
+     * selected by {@code --only} are built and timed (when the runner
+     * prepares the workloads).  The construction times are written to
+     * {@code path-construction.csv} and the rendering report to
+     * {@code paths.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int maxSegments = SEGMENTS[SEGMENTS.length - 1];
+        final List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--max-segments=")) {
+                maxSegments = Integer.parseInt(arg.substring("--max-segments=".length()));
+            } else {
+                rest.add(arg);
+            }
+        }
+        final Shapes shapes = new Shapes();
+        final List<Workload> workloads = new ArrayList<>();
+        for (String type : new String[] {"line", "quad", "cubic"}) {
+            for (int segments : SEGMENTS) {
+                if (segments > maxSegments) {
+                    continue;
+                }
+                final String key = type + "-" + segments;
+                final Supplier<Shape> builder = () -> createPath(type, segments);
+                workloads.add(new PathWorkload(key + "-fill-evenodd", shapes, key, builder, Path2D.WIND_EVEN_ODD));
+                workloads.add(new PathWorkload(key + "-fill-nonzero", shapes, key, builder, Path2D.WIND_NON_ZERO));
+                workloads.add(new PathWorkload(key + "-draw", shapes, key, builder, -1));
+            }
+        }
+        for (String operation : OPERATIONS) {
+            for (int depth : DEPTHS) {
+                final String key = "area-" + operation + "-" + depth;
+                final Supplier<Shape> builder = () -> createArea(operation, depth);
+                workloads.add(new PathWorkload(key + "-fill", shapes, key, builder, Path2D.WIND_NON_ZERO));
+                workloads.add(new PathWorkload(key + "-draw", shapes, key, builder, -1));
+            }
+        }
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("paths", workloads, rest);
+        shapes.writeReport(Paths.get("path-construction.csv"));
+        printScalingSummary(results);
+        System.exit(0);
+    }
+
+}
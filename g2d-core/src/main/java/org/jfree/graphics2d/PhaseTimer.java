@@ -0,0 +1,349 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records the time spent in each phase of a test run so that the numbers
+ * reported by the different runners cover exactly the same work.  A runner
+ * calls {@link #start()} at the beginning of a phase sequence and
+ * {@link #mark(Phase)} at the end of each phase; the time since the previous
+ * mark is attributed to that phase.  Phases that do not apply to a backend are
+ * simply never marked and are reported as "-".
+ */
+public final class PhaseTimer {
+
+    /**
+     * The named phases of a test run.
+     */
+    public enum Phase {
+
+        /** Preparation of the test context (done once, outside the loop). */
+        PREPARE("prepare"),
+
+        /** Reset of the drawing target (clear or creation of a fresh target). */
+        CLEAR("clear"),
+
+        /** The drawTestOutput() call itself (without the Swing tile). */
+        DRAW("draw"),
+
+        /** The painting of the Swing component tile (split from DRAW). */
+        SWING("swing"),
+
+        /** Synchronisation with the device (GPU flush, toolkit sync). */
+        FLUSH("flush"),
+
+        /** Extraction of the result (pixels or document) from the target. */
+        SNAPSHOT("snapshot"),
+
+        /** Encoding of the result to bytes (PNG, SVG or PDF). */
+        ENCODE("encode"),
+
+        /** Writing of the encoded bytes to the output file. */
+        WRITE("write");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the label used in reports.
+         *
+         * @return The label.
+         */
+        public String getLabel() {
+            return this.label;
+        }
+    }
+
+    /** A description of the Graphics2D implementation under test. */
+    private final String target;
+
+    /** The recorded samples (in nanoseconds) for each phase. */
+    private final Map<Phase, long[]> samples = new EnumMap<>(Phase.class);
+
+    /** The number of samples recorded for each phase. */
+    private final Map<Phase, Integer> counts = new EnumMap<>(Phase.class);
+
+    /** The phase times for the current iteration (-1 if not marked). */
+    private final long[] current = new long[Phase.values().length];
+
+    /** The time of the last call to start() or mark(). */
+    private long last;
+
+    /** The total time (excluding PREPARE) of each completed iteration. */
+    private long[] totals = new long[16];
+
+    /** The iteration counter. */
+    private int iteration;
+
+    /** Print a report line for each iteration? */
+    private final boolean verbose;
+
+    /**
+     * Creates a new timer that reports each iteration.
+     *
+     * @param target  a description of the Graphics2D implementation under test.
+     */
+    public PhaseTimer(String target) {
+        this(target, true);
+    }
+
+    /**
+     * Creates a new timer.
+     *
+     * @param target  a description of the Graphics2D implementation under test.
+     * @param verbose  print a report line for each iteration?
+     */
+    public PhaseTimer(String target, boolean verbose) {
+        this.target = target;
+        this.verbose = verbose;
+        Arrays.fill(this.current, -1L);
+    }
+
+    /**
+     * Returns the description of the Graphics2D implementation under test.
+     *
+     * @return The target description.
+     */
+    public String getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Starts timing a new sequence of phases.
+     */
+    public void start() {
+        this.last = System.nanoTime();
+    }
+
+    /**
+     * Attributes the time elapsed since the previous call to {@link #start()}
+     * or {@code mark()} to the specified phase.
+     *
+     * @param phase  the phase that has just completed.
+     */
+    public void mark(Phase phase) {
+        final long now = System.nanoTime();
+        record(phase, now - this.last);
+        this.last = now;
+    }
+
+    /**
+     * Records a duration for a phase that was timed externally.
+     *
+     * @param phase  the phase.
+     * @param nanos  the duration in nanoseconds.
+     */
+    public void record(Phase phase, long nanos) {
+        final int i = phase.ordinal();
+        this.current[i] = (this.current[i] < 0L) ? nanos : this.current[i] + nanos;
+    }
+
+    /**
+     * Moves part of the time recorded for a phase in the current iteration
+     * to another phase (for example, the Swing tile out of the draw phase).
+     *
+     * @param from  the phase that includes the time.
+     * @param to  the phase to move the time to.
+     * @param nanos  the time in nanoseconds (nothing is moved if negative).
+     */
+    public void split(Phase from, Phase to, long nanos) {
+        final int i = from.ordinal();
+        if (nanos < 0L || this.current[i] < nanos) {
+            return;
+        }
+        this.current[i] -= nanos;
+        record(to, nanos);
+    }
+
+    /**
+     * Completes the current iteration: the phase times are stored and a
+     * single line report is written to {@code System.out}.
+     */
+    public void endIteration() {
+        final StringBuilder sb = new StringBuilder(128);
+        sb.append("drawTestOutput(").append(this.target).append(") #").append(this.iteration++)
+                .append(" phases [ms]:");
+        long total = 0L;
+        for (Phase phase : Phase.values()) {
+            final long t = this.current[phase.ordinal()];
+            if (t >= 0L) {
+                add(phase, t);
+                if (phase != Phase.PREPARE) {
+                    total += t;
+                }
+            }
+            if (phase != Phase.PREPARE || t >= 0L) {
+                sb.append(' ').append(phase.getLabel()).append(" = ").append(format(t));
+            }
+        }
+        sb.append(" total = ").append(format(total));
+        if (this.verbose) {
+            System.out.println(sb);
+        }
+        if (this.iteration > this.totals.length) {
+            this.totals = Arrays.copyOf(this.totals, this.totals.length * 2);
+        }
+        this.totals[this.iteration - 1] = total;
+        Arrays.fill(this.current, -1L);
+    }
+
+    /**
+     * Writes a summary (count, min, average, percentiles and max per phase) of
+     * all completed iterations to {@code System.out}.
+     */
+    public void printSummary() {
+        System.out.println("Phase summary for " + this.target + " [ms]:");
+        System.out.println(String.format(Locale.ROOT, "  %-10s %6s %10s %10s %10s %10s %10s %10s",
+                "phase", "n", "min", "avg", "p50", "p90", "p99", "max"));
+        for (Phase phase : Phase.values()) {
+            final int n = count(phase);
+            if (n == 0) {
+                System.out.println(String.format(Locale.ROOT, "  %-10s %6d %10s %10s %10s %10s %10s %10s",
+                        phase.getLabel(), 0, "-", "-", "-", "-", "-", "-"));
+                continue;
+            }
+            final long[] values = Arrays.copyOf(this.samples.get(phase), n);
+            Arrays.sort(values);
+            double sum = 0.0;
+            for (long value : values) {
+                sum += value;
+            }
+            System.out.println(String.format(Locale.ROOT, "  %-10s %6d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f",
+                    phase.getLabel(), n, 1e-6d * values[0], 1e-6d * sum / n,
+                    1e-6d * percentile(values, 50), 1e-6d * percentile(values, 90),
+                    1e-6d * percentile(values, 99), 1e-6d * values[n - 1]));
+        }
+    }
+
+    /**
+     * Returns a percentile of the recorded times for a phase.
+     *
+     * @param phase  the phase.
+     * @param p  the percentile (0 to 100).
+     *
+     * @return The percentile in milliseconds ({@code Double.NaN} if the phase
+     *     has no samples).
+     */
+    public double getPercentile(Phase phase, int p) {
+        final int n = count(phase);
+        if (n == 0) {
+            return Double.NaN;
+        }
+        final long[] values = Arrays.copyOf(this.samples.get(phase), n);
+        Arrays.sort(values);
+        return 1e-6d * percentile(values, p);
+    }
+
+    /**
+     * Returns a percentile of the total iteration times (all phases except
+     * {@link Phase#PREPARE}).
+     *
+     * @param p  the percentile (0 to 100).
+     *
+     * @return The percentile in milliseconds ({@code Double.NaN} if no
+     *     iteration has been completed).
+     */
+    public double getTotalPercentile(int p) {
+        if (this.iteration == 0) {
+            return Double.NaN;
+        }
+        final long[] values = Arrays.copyOf(this.totals, this.iteration);
+        Arrays.sort(values);
+        return 1e-6d * percentile(values, p);
+    }
+
+    /**
+     * Writes the summary as CSV rows (one per phase with samples, followed by
+     * a "total" row) with the columns target, phase, n, min, avg, p50, p90,
+     * p99 and max (times in milliseconds).
+     *
+     * @param out  the output.
+     */
+    public void writeCsv(PrintWriter out) {
+        for (Phase phase : Phase.values()) {
+            final int n = count(phase);
+            if (n > 0) {
+                writeCsvRow(out, phase.getLabel(), Arrays.copyOf(this.samples.get(phase), n));
+            }
+        }
+        if (this.iteration > 0) {
+            writeCsvRow(out, "total", Arrays.copyOf(this.totals, this.iteration));
+        }
+    }
+
+    private void writeCsvRow(PrintWriter out, String phase, long[] values) {
+        Arrays.sort(values);
+        double sum = 0.0;
+        for (long value : values) {
+            sum += value;
+        }
+        final int n = values.length;
+        out.println(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                this.target, phase, n, 1e-6d * values[0], 1e-6d * sum / n,
+                1e-6d * percentile(values, 50), 1e-6d * percentile(values, 90),
+                1e-6d * percentile(values, 99), 1e-6d * values[n - 1]));
+    }
+
+    /**
+     * Returns the number of completed iterations.
+     *
+     * @return The iteration count.
+     */
+    public int getIterationCount() {
+        return this.iteration;
+    }
+
+    /**
+     * Returns the percentile (nearest-rank method) of the sorted values.
+     *
+     * @param sorted  the values in ascending order (at least one).
+     * @param p  the percentile (0 to 100).
+     *
+     * @return The percentile value.
+     */
+    static long percentile(long[] sorted, int p) {
+        final int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Returns the number of samples recorded for a phase.
+     *
+     * @param phase  the phase.
+     *
+     * @return The sample count.
+     */
+    public int count(Phase phase) {
+        return this.counts.getOrDefault(phase, 0);
+    }
+
+    private void add(Phase phase, long nanos) {
+        final int n = count(phase);
+        long[] values = this.samples.get(phase);
+        if (values == null) {
+            values = new long[16];
+        } else if (n == values.length) {
+            values = Arrays.copyOf(values, n * 2);
+        }
+        values[n] = nanos;
+        this.samples.put(phase, values);
+        this.counts.put(phase, n + 1);
+    }
+
+    private static String format(long nanos) {
+        return (nanos < 0L) ? "-" : String.format(Locale.ROOT, "%.3f", 1e-6d * nanos);
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+/**
+ * Compares the encode time and the file size of the {@link ParallelPngEncoder}
+ * (for each filter strategy and thread count) with {@code ImageIO}, on the
+ * images rendered by the raster backends (Java2D by default, FXGraphics2D
+ * if it is on the classpath and named) for the regular and scaled-up sheets
+ * (see {@link SheetGrid}).  Each output is decoded with ImageIO and compared
+ * pixel by pixel with the rendered image.  The report is written to
+ * {@code png-encoders.csv}.
+ */
+public final class PngEncoderBenchmark {
+
+    private static final int DEFAULT_WARMUPS = 3;
+
+    private static final int DEFAULT_REPEATS = 10;
+
+    private PngEncoderBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Renders the test sheet with a backend.
+     *
+     * @param backend  the backend.
+     * @param tc  the tester context (with the grid set).
+     *
+     * @return The image.
+     */
+    static BufferedImage render(Graphics2DBackend backend, Tester.TesterContext tc) {
+        backend.create(tc.getGrid().getWidth(), tc.getGrid().getHeight());
+        Tester.drawTestOutput(tc, backend.reset());
+        backend.flush();
+        return backend.snapshotPixels();
+    }
+
+    /**
+     * Encodes an image repeatedly and returns the encode times.
+     *
+     * @param image  the image.
+     * @param encoder  the encoder ({@code null} for ImageIO).
+     * @param bytes  the buffer that holds the last output.
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     *
+     * @return The sorted times in nanoseconds.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static long[] time(BufferedImage image, ParallelPngEncoder encoder, ByteArrayOutputStream bytes,
+            int warmups, int repeats) throws IOException {
+        final long[] times = new long[repeats];
+        for (int i = -warmups; i < repeats; i++) {
+            bytes.reset();
+            final long start = System.nanoTime();
+            if (encoder != null) {
+                encoder.encode(image, bytes);
+            } else {
+                ImageIO.write(image, "png", bytes);
+            }
+            if (i >= 0) {
+                times[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(times);
+        return times;
+    }
+
+    /**
+     * Decodes a PNG with ImageIO and compares it with the source image.
+     *
+     * @param image  the source image.
+     * @param png  the encoded image.
+     *
+     * @return The number of pixels that differ (-1 if the PNG cannot be read).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static long verify(BufferedImage image, byte[] png) throws IOException {
+        final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+        if (decoded == null || decoded.getWidth() != image.getWidth() || decoded.getHeight() != image.getHeight()) {
+            return -1L;
+        }
+        final boolean alpha = image.getColorModel().hasAlpha();
+        final int w = image.getWidth();
+        final int[] expected = new int[w];
+        final int[] actual = new int[w];
+        long diff = 0L;
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, w, 1, expected, 0, w);
+            decoded.getRGB(0, y, w, 1, actual, 0, w);
+            for (int x = 0; x < w; x++) {
+                // fully transparent pixels have no defined color:
+                final int e = expected[x];
+                if (e != actual[x] && (alpha ? (e >>> 24) != 0 || (actual[x] >>> 24) != 0 : true)) {
+                    diff++;
+                }
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * Runs the comparison.  The arguments are backend names (default
+     * "java2D") and the options {@code --grid=1,4} (see
+     * {@link SheetGrid#parse(String)}), {@code --filters=none,sub,up,average,paeth,adaptive},
+     * {@code --threads=1,N} (N is the processor count by default),
+     * {@code --rows=N} (rows per strip), {@code --level=N}, {@code --warmup=N}
+     * and {@code --repeats=N}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int warmups = DEFAULT_WARMUPS;
+        int repeats = DEFAULT_REPEATS;
+        String grids = "1,4";
+        String filters = "none,sub,up,average,paeth,adaptive";
+        String threadCounts = "1," + Runtime.getRuntime().availableProcessors();
+        int rows = ParallelPngEncoder.DEFAULT_STRIP_ROWS;
+        int level = ParallelPngEncoder.DEFAULT_LEVEL;
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--grid=")) {
+                grids = arg.substring("--grid=".length());
+            } else if (arg.startsWith("--filters=")) {
+                filters = arg.substring("--filters=".length());
+            } else if (arg.startsWith("--threads=")) {
+                threadCounts = arg.substring("--threads=".length());
+            } else if (arg.startsWith("--rows=")) {
+                rows = Integer.parseInt(arg.substring("--rows=".length()));
+            } else if (arg.startsWith("--level=")) {
+                level = Integer.parseInt(arg.substring("--level=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmups = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--repeats=")) {
+                repeats = Integer.parseInt(arg.substring("--repeats=".length()));
+            } else {
+                names.add(arg);
+            }
+        }
+        if (names.isEmpty()) {
+            names.add("java2D");
+        }
+        final List<ParallelPngEncoder> encoders = new ArrayList<>();
+        encoders.add(null); // ImageIO
+        for (String t : new LinkedHashSet<>(Arrays.asList(threadCounts.split(",")))) {
+            for (String f : filters.split(",")) {
+                encoders.add(new ParallelPngEncoder(Integer.parseInt(t.trim()), rows, level,
+                        ParallelPngEncoder.Filter.valueOf(f.trim().toUpperCase(Locale.ROOT))));
+            }
+        }
+        final Tester.TesterContext shared = Tester.prepareTestOutput("(shared)", ComparisonRunner.LINK, false);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 * 1024 * 1024);
+        final List<String> rowsOut = new ArrayList<>();
+        System.out.println(String.format(Locale.ROOT, "%-14s %-6s %-48s %10s %10s %12s %8s %8s",
+                "backend", "grid", "encoder", "p50 [ms]", "min [ms]", "bytes", "speedup", "diff"));
+        for (String name : names) {
+            final Graphics2DBackend backend = BenchmarkHarness.findBackend(name);
+            final Tester.TesterContext tc = shared.forTarget(backend.getDescription());
+            for (String spec : grids.split(",")) {
+                tc.setGrid(SheetGrid.parse(spec));
+                final BufferedImage image = render(backend, tc);
+                if (image == null) {
+                    System.out.println(backend.getName() + " does not return an image, skipped.");
+                    backend.dispose();
+                    break;
+                }
+                double reference = Double.NaN;
+                for (ParallelPngEncoder encoder : encoders) {
+                    final long[] times = time(image, encoder, bytes, warmups, repeats);
+                    final double p50 = 1e-6d * PhaseTimer.percentile(times, 50);
+                    if (encoder == null) {
+                        reference = p50;
+                    }
+                    final byte[] png = bytes.toByteArray();
+                    final long diff = verify(image, png);
+                    final String label = encoder == null ? "imageio" : encoder.toString();
+                    System.out.println(String.format(Locale.ROOT, "%-14s %-6s %-48s %10.2f %10.2f %12d %8.2f %8d",
+                            backend.getName(), tc.getGrid(), label, p50, 1e-6d * times[0], png.length,
+                            reference / p50, diff));
+                    rowsOut.add(String.format(Locale.ROOT, "%s,%s,\"%s\",%d,%.4f,%.4f,%d,%d", backend.getName(),
+                            tc.getGrid(), label, repeats, p50, 1e-6d * times[0], png.length, diff));
+                }
+                backend.dispose();
+            }
+        }
+        for (ParallelPngEncoder encoder : encoders) {
+            if (encoder != null) {
+                encoder.close();
+            }
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get("png-encoders.csv"),
+                StandardCharsets.UTF_8))) {
+            out.println("backend,grid,encoder,n,p50,min,bytes,diff_pixels");
+            rowsOut.forEach(out::println);
+        }
+        System.exit(0);
+    }
+
+}
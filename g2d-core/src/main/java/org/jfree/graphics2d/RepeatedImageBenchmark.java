@@ -0,0 +1,244 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.imageio.ImageIO;
+
+/**
+ * A repeated image suite: the same {@code BufferedImage} instance (the
+ * motorcycle image or the QR code of the {@link Tester.TesterContext}) drawn
+ * 10 to 10000 times per iteration at different positions, sizes and
+ * rotations, as dashboards repeat logos and icons.  The growth of the output
+ * with the number of draws shows whether a vector backend embeds the image
+ * once and references it (a few bytes per extra draw) or embeds it again for
+ * every draw (more than half the size of the image as a PNG file per
+ * draw), and the time per draw shows whether a backend converts the image
+ * (for example to a native image) on every call.
+ * <p>
+ * The larger counts can take minutes per iteration on the backends that
+ * encode the image for every draw, so a count is skipped for a backend when
+ * the previous count projects an iteration longer than the time budget.
+ */
+public final class RepeatedImageBenchmark {
+
+    /** The default numbers of draws per iteration. */
+    static final String DEFAULT_COUNTS = "10,100,1000,10000";
+
+    /** The default time budget per iteration in seconds. */
+    static final double DEFAULT_BUDGET = 20.0;
+
+    /**
+     * The output added per draw, relative to the size of the image as a PNG
+     * file, above which the image is counted as embedded for every draw.
+     */
+    static final double PER_DRAW_THRESHOLD = 0.5;
+
+    /**
+     * Draws one image instance repeatedly.
+     */
+    static final class RepeatedImageWorkload implements Workload {
+
+        private final String image;
+
+        private final int count;
+
+        /** The size of each image as a PNG file (by image name, filled by {@link #prepare}). */
+        private final Map<String, Integer> pngSizes;
+
+        private BufferedImage source;
+
+        /**
+         * Creates a workload.
+         *
+         * @param image  the image ("triumph" or "qrcode").
+         * @param count  the number of draws per iteration.
+         * @param pngSizes  the size of each image as a PNG file (shared by the
+         *     workloads, the entry for the image is added by {@link #prepare}).
+         */
+        RepeatedImageWorkload(String image, int count, Map<String, Integer> pngSizes) {
+            this.image = image;
+            this.count = count;
+            this.pngSizes = pngSizes;
+        }
+
+        @Override
+        public String getName() {
+            return this.image + "-" + this.count;
+        }
+
+        @Override
+        public String getUnit() {
+            return "draws";
+        }
+
+        @Override
+        public void prepare(Tester.TesterContext tc) {
+            this.source = this.image.equals("qrcode") ? tc.getQRCodeImage() : tc.getTriumphImage();
+            if (!this.pngSizes.containsKey(this.image)) {
+                final ByteArrayOutputStream png = new ByteArrayOutputStream();
+                try {
+                    ImageIO.write(this.source, "png", png);
+                } catch (IOException ioe) {
+                    throw new RuntimeException(ioe);
+                }
+                this.pngSizes.put(this.image, png.size());
+            }
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            final int cell = 100;
+            final int columns = Math.max(1, width / cell);
+            final int rows = Math.max(1, height / cell);
+            final AffineTransform saved = g2.getTransform();
+            for (int i = 0; i < this.count; i++) {
+                // icon sized, from 80 to 40 pixels wide, every third one rotated:
+                final double scale = 80.0 / this.source.getWidth() / (1 + (i % 2));
+                final AffineTransform t = AffineTransform.getTranslateInstance((i % columns) * cell + 10,
+                        ((i / columns) % rows) * cell + 10);
+                if (i % 3 == 2) {
+                    t.rotate(Math.PI / 12 * (i % 7), 40.0, 40.0);
+                }
+                t.scale(scale, scale);
+                g2.drawImage(this.source, t, null);
+            }
+            g2.setTransform(saved);
+            return this.count;
+        }
+    }
+
+    private RepeatedImageBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Prints, for each backend and image, the time per draw for each count
+     * (the vector backends may write the images later, in the encode time),
+     * the output size added by each draw beyond the first count and, for the
+     * vector backends, whether the image is shared or embedded per draw.
+     *
+     * @param results  the results (by backend and image, in increasing count
+     *     order).
+     * @param pngSizes  the size of each image as a PNG file (by image name).
+     * @param vector  the names of the backends with a vector output.
+     */
+    static void printDeduplicationSummary(List<WorkloadRunner.Result> results, Map<String, Integer> pngSizes,
+            Set<String> vector) {
+        System.out.println("Repeated images (time per draw, output growth per draw):");
+        System.out.println(String.format(Locale.ROOT, "%-14s %-8s %8s %12s %12s %14s %16s  %s", "backend", "image",
+                "draws", "us/draw", "enc [ms]", "bytes", "bytes/extra draw", "image"));
+        WorkloadRunner.Result first = null;
+        for (WorkloadRunner.Result r : results) {
+            final String image = r.workload.substring(0, r.workload.lastIndexOf('-'));
+            if (first == null || !first.backend.equals(r.backend) || !first.workload.startsWith(image + "-")) {
+                first = r;
+            }
+            String growth = "";
+            String verdict = "";
+            final double threshold = PER_DRAW_THRESHOLD * pngSizes.get(image);
+            if (r != first && vector.contains(r.backend)) {
+                final double perDraw = (double) (r.bytes - first.bytes) / (r.units - first.units);
+                growth = String.format(Locale.ROOT, "%.1f", perDraw);
+                verdict = perDraw > threshold ? "embedded per draw" : "shared";
+            } else if (vector.contains(r.backend) && (double) r.bytes / r.units > threshold) {
+                // even the whole document per draw is enough to tell (when the larger counts were skipped):
+                verdict = "embedded per draw";
+            }
+            System.out.println(String.format(Locale.ROOT, "%-14s %-8s %8d %12.2f %12.3f %14d %16s  %s", r.backend,
+                    image, r.units, 1000.0 * r.render / r.units, r.encode, r.bytes, growth, verdict));
+        }
+    }
+
+    /**
+     * Returns {@code true} if the workload should be skipped because the
+     * last result for the same image on the backend projects an iteration
+     * longer than the budget.
+     *
+     * @param workload  the workload.
+     * @param results  the results of the backend so far.
+     * @param budget  the time budget per iteration in seconds.
+     *
+     * @return A boolean.
+     */
+    static boolean overBudget(RepeatedImageWorkload workload, List<WorkloadRunner.Result> results, double budget) {
+        for (int i = results.size() - 1; i >= 0; i--) {
+            final WorkloadRunner.Result previous = results.get(i);
+            if (previous.workload.startsWith(workload.image + "-")) {
+                final double projected = (previous.render + previous.encode) / 1000.0 * workload.count
+                        / previous.units;
+                if (projected > budget) {
+                    System.out.println(String.format(Locale.ROOT, "  skipping %s: about %.0f s per iteration",
+                            workload.getName(), projected));
+                    return true;
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the repeated image suite.  The options are
+     * {@code --counts=N[,N...]} (draws per iteration), {@code --budget=S}
+     * (the time budget per iteration in seconds) and those of
+     * {@link WorkloadRunner#runSuite} (with 1 warmup and 3 measured
+     * iterations by default); the report is written to
+     * {@code repeated-images.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        String counts = DEFAULT_COUNTS;
+        double budget = DEFAULT_BUDGET;
+        final List<String> rest = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--counts=")) {
+                counts = arg.substring("--counts=".length());
+            } else if (arg.startsWith("--budget=")) {
+                budget = Double.parseDouble(arg.substring("--budget=".length()));
+            } else {
+                rest.add(arg);
+                if (!arg.startsWith("--")) {
+                    names.add(arg);
+                }
+            }
+        }
+        final Map<String, Integer> pngSizes = new HashMap<>();
+        final List<RepeatedImageWorkload> workloads = new ArrayList<>();
+        for (String image : new String[] {"qrcode", "triumph"}) {
+            for (String count : counts.split(",")) {
+                workloads.add(new RepeatedImageWorkload(image, Integer.parseInt(count.trim()), pngSizes));
+            }
+        }
+        final double limit = budget;
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("repeated-images", workloads, rest, 1, 3,
+                (workload, previous) -> overBudget((RepeatedImageWorkload) workload, previous, limit));
+        final Set<String> vector = new HashSet<>();
+        for (Graphics2DBackend backend : WorkloadRunner.selectBackends(names)) {
+            if (backend.getFileExtension().startsWith("svg") || backend.getFileExtension().equals("pdf")) {
+                vector.add(backend.getName());
+            }
+        }
+        printDeduplicationSummary(results, pngSizes, vector);
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.io.IOException;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.text.CharacterIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A text shaping reuse suite: the same strings drawn with
+ * {@code drawString(String)}, {@code drawString(AttributedCharacterIterator)},
+ * {@code drawGlyphVector()} and {@code TextLayout.draw()}, with the glyph
+ * vectors and layouts created for every call and created once and reused.
+ * The strings are the chart labels of the {@link TextBenchmark} and the
+ * attributed strings of the {@link FontTests}.  A glyph vector has a single
+ * font, so the glyph vector modes use the font of the first run of each
+ * string (as the {@code drawString(String)} mode does), while the text
+ * layout modes keep all the attributes (as the
+ * {@code drawString(AttributedCharacterIterator)} mode does).  A summary
+ * shows, for each backend, the speedup and the output size of the cached
+ * modes relative to the plain calls, which is the benefit of caching shaped
+ * labels in a charting layer.
+ */
+public final class ShapingBenchmark {
+
+    /** The default number of strings drawn per iteration. */
+    static final int DEFAULT_STRINGS = 2000;
+
+    /** The ways of drawing the strings. */
+    enum Mode {
+
+        /** {@code drawString(String)} with the font of the first run. */
+        STRING("string"),
+
+        /** A glyph vector created for every call. */
+        GLYPH_VECTOR("glyphvector-new"),
+
+        /** A glyph vector created once. */
+        CACHED_GLYPH_VECTOR("glyphvector-cached"),
+
+        /** {@code drawString(AttributedCharacterIterator)}. */
+        ITERATOR("aci"),
+
+        /** A text layout created for every call. */
+        TEXT_LAYOUT("textlayout-new"),
+
+        /** A text layout created once. */
+        CACHED_TEXT_LAYOUT("textlayout-cached");
+
+        private final String id;
+
+        Mode(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final int CELL_WIDTH = 220;
+
+    private static final int CELL_HEIGHT = 20;
+
+    /**
+     * Draws a set of strings in one mode.
+     */
+    static final class ShapingWorkload implements Workload {
+
+        private final String set;
+
+        private final AttributedString[] text;
+
+        private final Mode mode;
+
+        private final int strings;
+
+        private final String[] plain;
+
+        private final Font[] fonts;
+
+        /** The render context of the cached glyph vectors and layouts. */
+        private FontRenderContext frc;
+
+        private GlyphVector[] glyphVectors;
+
+        private TextLayout[] layouts;
+
+        ShapingWorkload(String set, AttributedString[] text, Mode mode, int strings) {
+            this.set = set;
+            this.text = text;
+            this.mode = mode;
+            this.strings = strings;
+            this.plain = new String[text.length];
+            this.fonts = new Font[text.length];
+            for (int i = 0; i < text.length; i++) {
+                final AttributedCharacterIterator it = text[i].getIterator();
+                final StringBuilder sb = new StringBuilder();
+                for (char c = it.first(); c != CharacterIterator.DONE; c = it.next()) {
+                    sb.append(c);
+                }
+                this.plain[i] = sb.toString();
+                this.fonts[i] = new Font(text[i].getIterator().getAttributes());
+            }
+        }
+
+        @Override
+        public String getName() {
+            return this.set + "-" + this.mode.id;
+        }
+
+        @Override
+        public String getUnit() {
+            return "glyphs";
+        }
+
+        /**
+         * Creates the glyph vectors and layouts for a render context (once
+         * per backend, or again if the context changes).
+         *
+         * @param frc  the render context.
+         */
+        private void cache(FontRenderContext frc) {
+            if (frc.equals(this.frc)) {
+                return;
+            }
+            this.frc = frc;
+            this.glyphVectors = new GlyphVector[this.text.length];
+            this.layouts = new TextLayout[this.text.length];
+            for (int i = 0; i < this.text.length; i++) {
+                this.glyphVectors[i] = this.fonts[i].createGlyphVector(frc, this.plain[i]);
+                this.layouts[i] = new TextLayout(this.text[i].getIterator(), frc);
+            }
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            g2.setPaint(Color.BLACK);
+            final FontRenderContext frc = g2.getFontRenderContext();
+            if (this.mode == Mode.CACHED_GLYPH_VECTOR || this.mode == Mode.CACHED_TEXT_LAYOUT) {
+                cache(frc);
+            }
+            final int columns = Math.max(1, width / CELL_WIDTH);
+            final int rows = Math.max(1, height / CELL_HEIGHT);
+            long glyphs = 0L;
+            for (int i = 0; i < this.strings; i++) {
+                final int k = i % this.text.length;
+                final float x = 5 + (i % columns) * CELL_WIDTH;
+                final float y = CELL_HEIGHT + ((i / columns) % rows) * CELL_HEIGHT;
+                switch (this.mode) {
+                    case STRING:
+                        g2.setFont(this.fonts[k]);
+                        g2.drawString(this.plain[k], x, y);
+                        break;
+                    case GLYPH_VECTOR:
+                        g2.drawGlyphVector(this.fonts[k].createGlyphVector(frc, this.plain[k]), x, y);
+                        break;
+                    case CACHED_GLYPH_VECTOR:
+                        g2.drawGlyphVector(this.glyphVectors[k], x, y);
+                        break;
+                    case ITERATOR:
+                        g2.drawString(this.text[k].getIterator(), x, y);
+                        break;
+                    case TEXT_LAYOUT:
+                        new TextLayout(this.text[k].getIterator(), frc).draw(g2, x, y);
+                        break;
+                    case CACHED_TEXT_LAYOUT:
+                        this.layouts[k].draw(g2, x, y);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown mode " + this.mode);
+                }
+                glyphs += this.plain[k].length();
+            }
+            return glyphs;
+        }
+    }
+
+    private ShapingBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Returns the chart labels of the {@link TextBenchmark} as attributed
+     * strings in a 14pt serif font.
+     *
+     * @return The labels.
+     */
+    static AttributedString[] createLabels() {
+        final AttributedString[] result = new AttributedString[TextBenchmark.LABELS.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new AttributedString(TextBenchmark.LABELS[i]);
+            result[i].addAttribute(TextAttribute.FAMILY, Font.SERIF);
+            result[i].addAttribute(TextAttribute.SIZE, 14);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the workloads of the suite (each string set in each mode).
+     *
+     * @param strings  the number of strings per iteration.
+     *
+     * @return The workloads.
+     */
+    static List<Workload> createWorkloads(int strings) {
+        final String[] sets = {"labels", "styles", "colors", "kerning", "ligatures"};
+        final AttributedString[][] text = {createLabels(), FontTests.createAttributedStrings(),
+            FontTests.createAttributedStrings2(), FontTests.createKerningStrings(), FontTests.createLigatureStrings()};
+        final List<Workload> result = new ArrayList<>();
+        for (int i = 0; i < sets.length; i++) {
+            for (Mode mode : Mode.values()) {
+                result.add(new ShapingWorkload(sets[i], text[i], mode, strings));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the result for a backend and workload.
+     *
+     * @param results  the results.
+     * @param backend  the backend name.
+     * @param workload  the workload name.
+     *
+     * @return The result ({@code null} if the workload was not run).
+     */
+    private static WorkloadRunner.Result find(List<WorkloadRunner.Result> results, String backend,
+            String workload) {
+        for (WorkloadRunner.Result r : results) {
+            if (r.backend.equals(backend) && r.workload.equals(workload)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Prints, for each backend and string set, the rate of the glyph vector
+     * and text layout modes relative to the corresponding plain call
+     * ({@code drawString(String)} and {@code drawString(Iterator)}), and the
+     * output size of the cached modes relative to the plain calls.
+     *
+     * @param results  the suite results.
+     */
+    static void printReuseSummary(List<WorkloadRunner.Result> results) {
+        System.out.println("Speedup over the plain calls (output size ratio for the cached modes):");
+        System.out.println(String.format(Locale.ROOT, "%-14s %-10s %10s %10s %10s %10s %10s %10s", "backend", "set",
+                "gv-new", "gv-cached", "gv-size", "tl-new", "tl-cached", "tl-size"));
+        final List<String> seen = new ArrayList<>();
+        for (WorkloadRunner.Result r : results) {
+            final String set = r.workload.substring(0, r.workload.indexOf('-'));
+            if (seen.contains(r.backend + "/" + set)) {
+                continue;
+            }
+            seen.add(r.backend + "/" + set);
+            final StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-14s %-10s", r.backend, set));
+            for (Mode[] modes : new Mode[][] {{Mode.STRING, Mode.GLYPH_VECTOR, Mode.CACHED_GLYPH_VECTOR},
+                    {Mode.ITERATOR, Mode.TEXT_LAYOUT, Mode.CACHED_TEXT_LAYOUT}}) {
+                final WorkloadRunner.Result base = find(results, r.backend, set + "-" + modes[0].id);
+                final WorkloadRunner.Result created = find(results, r.backend, set + "-" + modes[1].id);
+                final WorkloadRunner.Result cached = find(results, r.backend, set + "-" + modes[2].id);
+                sb.append(ratio(created, base, false)).append(ratio(cached, base, false))
+                        .append(ratio(cached, base, true));
+            }
+            System.out.println(sb);
+        }
+    }
+
+    private static String ratio(WorkloadRunner.Result r, WorkloadRunner.Result base, boolean bytes) {
+        if (r == null || base == null) {
+            return String.format(Locale.ROOT, " %10s", "-");
+        }
+        final double value = bytes ? (double) r.bytes / base.bytes : r.getRate() / base.getRate();
+        return String.format(Locale.ROOT, " %9.2fx", value);
+    }
+
+    /**
+     * Runs the shaping suite.  The options are {@code --strings=N} (strings
+     * per iteration) and those of {@link WorkloadRunner#runSuite}; the
+     * report is written to {@code shaping.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int strings = DEFAULT_STRINGS;
+        final List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--strings=")) {
+                strings = Integer.parseInt(arg.substring("--strings=".length()));
+            } else {
+                rest.add(arg);
+            }
+        }
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("shaping", createWorkloads(strings),
+                rest);
+        printReuseSummary(results);
+        System.exit(0);
+    }
+
+}
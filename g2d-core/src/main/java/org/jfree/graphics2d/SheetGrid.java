@@ -0,0 +1,137 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.util.Locale;
+
+/**
+ * The layout of a scaled-up test sheet: a grid of copies of the test output,
+ * {@code columns} across and {@code rows} down.  The default grid (1x1) is the
+ * regular test sheet.  Large grids give documents and images of the size of
+ * real exports (a 10x10 grid is 11000 x 22100) with the same content mix.
+ * <p>
+ * The grid for the harness and the other runners is set with the system
+ * property "tester.grid" ("N" for an N x N grid, or "CxR").
+ */
+public final class SheetGrid {
+
+    /** The system property for the default grid. */
+    public static final String PROPERTY = "tester.grid";
+
+    /** The regular test sheet (a single copy). */
+    public static final SheetGrid SINGLE = new SheetGrid(1, 1);
+
+    /** The number of copies across. */
+    private final int columns;
+
+    /** The number of copies down. */
+    private final int rows;
+
+    /**
+     * Creates a new grid.
+     *
+     * @param columns  the number of copies across (at least 1).
+     * @param rows  the number of copies down (at least 1).
+     */
+    public SheetGrid(int columns, int rows) {
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException("The grid needs at least one column and one row.");
+        }
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Parses a grid specification: "N" (N x N copies) or "CxR" (C columns, R
+     * rows).
+     *
+     * @param spec  the specification ({@code null} not permitted).
+     *
+     * @return The grid.
+     *
+     * @throws IllegalArgumentException if the specification is not valid.
+     */
+    public static SheetGrid parse(String spec) {
+        final String s = spec.trim().toLowerCase(Locale.ROOT);
+        try {
+            final int x = s.indexOf('x');
+            if (x < 0) {
+                final int n = Integer.parseInt(s);
+                return new SheetGrid(n, n);
+            }
+            return new SheetGrid(Integer.parseInt(s.substring(0, x)), Integer.parseInt(s.substring(x + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid grid '" + spec + "', expected N or CxR.");
+        }
+    }
+
+    /**
+     * Returns the grid selected by the system property "tester.grid" (the
+     * regular sheet if the property is not set).
+     *
+     * @return The grid.
+     */
+    public static SheetGrid fromSystemProperty() {
+        final String spec = System.getProperty(PROPERTY);
+        return spec == null ? SINGLE : parse(spec);
+    }
+
+    /**
+     * Returns the number of copies across.
+     *
+     * @return The column count.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns the number of copies down.
+     *
+     * @return The row count.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the total number of copies.
+     *
+     * @return The copy count.
+     */
+    public int getCopies() {
+        return this.columns * this.rows;
+    }
+
+    /**
+     * Returns the width of the scaled-up sheet in Java2D units.
+     *
+     * @return The width.
+     */
+    public int getWidth() {
+        return this.columns * Tester.getTestSheetWidth();
+    }
+
+    /**
+     * Returns the height of the scaled-up sheet in Java2D units.
+     *
+     * @return The height.
+     */
+    public int getHeight() {
+        return this.rows * Tester.getTestSheetHeight();
+    }
+
+    /**
+     * Returns the grid specification ("CxR").
+     *
+     * @return The specification.
+     */
+    @Override
+    public String toString() {
+        return this.columns + "x" + this.rows;
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A graphics state suite: the cost and the allocation per call of the two
+ * ways of saving and restoring the state - by hand, as the tiles do
+ * ({@code getTransform()} / {@code setTransform()} in the
+ * {@link TransformTests}, {@code getClip()} / {@code setClip()} in the
+ * {@link ClippingTests}), and with {@code create()} / {@code dispose()}, as
+ * chart and table renderers do - at high frequency.  The workloads cover
+ * {@code getClip()} with no clip, a rectangle and an ellipse, clip and
+ * transform round trips, nested {@code create()} to several depths and a
+ * table cell drawn with each pattern.  A summary shows whether each backend
+ * returns a new clip for every {@code getClip()} call.
+ */
+public final class StateBenchmark {
+
+    /** The default number of operations per iteration. */
+    static final int DEFAULT_OPS = 100000;
+
+    /** The nesting depths for {@code create()}. */
+    static final int[] DEPTHS = {1, 4, 16};
+
+    private static final int CELL_WIDTH = 60;
+
+    private static final int CELL_HEIGHT = 16;
+
+    /**
+     * A state operation.
+     */
+    interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @param g2  the graphics target.
+         * @param i  the index of the operation (for positions).
+         * @param columns  the number of table columns on the target.
+         * @param rows  the number of table rows on the target.
+         *
+         * @return A value derived from the result (so the call is not elided).
+         */
+        int run(Graphics2D g2, int i, int columns, int rows);
+    }
+
+    /**
+     * Runs one operation repeatedly under a fixed clip.
+     */
+    static final class StateWorkload implements Workload {
+
+        private final String name;
+
+        private final Shape clip;
+
+        private final Operation operation;
+
+        private final int ops;
+
+        /** The units counted for each operation. */
+        private final int weight;
+
+        /**
+         * Creates a workload.
+         *
+         * @param name  the name.
+         * @param clip  the clip set before the operations ({@code null} for
+         *     none).
+         * @param operation  the operation.
+         * @param ops  the number of operations per iteration.
+         */
+        StateWorkload(String name, Shape clip, Operation operation, int ops) {
+            this(name, clip, operation, ops, 1);
+        }
+
+        /**
+         * Creates a workload that counts several units for each operation
+         * (for example the {@code create()} calls of a nested operation).
+         *
+         * @param name  the name.
+         * @param clip  the clip set before the operations ({@code null} for
+         *     none).
+         * @param operation  the operation.
+         * @param ops  the number of operations per iteration.
+         * @param weight  the units counted for each operation.
+         */
+        StateWorkload(String name, Shape clip, Operation operation, int ops, int weight) {
+            this.name = name;
+            this.clip = clip;
+            this.operation = operation;
+            this.ops = ops;
+            this.weight = weight;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getUnit() {
+            return "ops";
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            g2.setPaint(Color.LIGHT_GRAY);
+            if (this.clip != null) {
+                g2.setClip(this.clip);
+            }
+            final int columns = Math.max(1, width / CELL_WIDTH);
+            final int rows = Math.max(1, height / CELL_HEIGHT);
+            int sum = 0;
+            for (int i = 0; i < this.ops; i++) {
+                sum += this.operation.run(g2, i, columns, rows);
+            }
+            WorkloadRunner.consume(sum);
+            g2.setClip(null);
+            return (long) this.ops * this.weight;
+        }
+    }
+
+    private StateBenchmark() {
+        // no-op
+    }
+
+    private static int present(Shape shape) {
+        return shape == null ? 0 : 1;
+    }
+
+    /**
+     * Fills a table cell (in cell coordinates).
+     *
+     * @param g2  the graphics target.
+     * @param i  the cell index.
+     */
+    private static void fillCell(Graphics2D g2, int i) {
+        g2.fill(new Rectangle2D.Double(1, 1, CELL_WIDTH - 2 + (i % 5), CELL_HEIGHT - 2));
+    }
+
+    /**
+     * Creates the workloads of the suite.
+     *
+     * @param ops  the number of operations per iteration.
+     *
+     * @return The workloads.
+     */
+    static List<Workload> createWorkloads(int ops) {
+        final Shape rect = new Rectangle2D.Double(10, 10, 800, 1200);
+        final Shape ellipse = new Ellipse2D.Double(10, 10, 800, 1200);
+        final List<Workload> result = new ArrayList<>();
+        result.add(new StateWorkload("getClip-none", null, (g2, i, c, r) -> present(g2.getClip()), ops));
+        result.add(new StateWorkload("getClip-rect", rect, (g2, i, c, r) -> present(g2.getClip()), ops));
+        result.add(new StateWorkload("getClip-ellipse", ellipse, (g2, i, c, r) -> present(g2.getClip()), ops));
+        result.add(new StateWorkload("getClipBounds-rect", rect, (g2, i, c, r) -> g2.getClipBounds().width, ops));
+        result.add(new StateWorkload("clip-roundtrip-rect", rect, (g2, i, c, r) -> {
+            final Shape saved = g2.getClip();
+            g2.clip(new Rectangle2D.Double(i % 100, 20, 100, 100));
+            g2.setClip(saved);
+            return 1;
+        }, ops));
+        // the intersection with a non-rectangular clip can cost 1000 times more (Area), so fewer operations:
+        result.add(new StateWorkload("clip-roundtrip-ellipse", ellipse, (g2, i, c, r) -> {
+            final Shape saved = g2.getClip();
+            g2.clip(new Rectangle2D.Double(i % 100, 20, 100, 100));
+            g2.setClip(saved);
+            return 1;
+        }, Math.max(1, ops / 100)));
+        result.add(new StateWorkload("getTransform", null, (g2, i, c, r) -> g2.getTransform().getType(), ops));
+        result.add(new StateWorkload("transform-roundtrip", null, (g2, i, c, r) -> {
+            final AffineTransform saved = g2.getTransform();
+            g2.translate(i % 100, 20);
+            g2.rotate(0.1);
+            g2.setTransform(saved);
+            return 1;
+        }, ops));
+        result.add(new StateWorkload("translate-pair", null, (g2, i, c, r) -> {
+            g2.translate(i % 100, 20);
+            g2.translate(-(i % 100), -20);
+            return 1;
+        }, ops));
+        for (int depth : DEPTHS) {
+            result.add(new StateWorkload("create-depth-" + depth, rect, (g2, i, c, r) -> {
+                final Graphics2D[] nested = new Graphics2D[depth];
+                Graphics2D g = g2;
+                for (int d = 0; d < depth; d++) {
+                    nested[d] = (Graphics2D) g.create();
+                    g = nested[d];
+                }
+                for (int d = depth - 1; d >= 0; d--) {
+                    nested[d].dispose();
+                }
+                return depth;
+            }, Math.max(1, ops / depth), depth));
+        }
+        result.add(new StateWorkload("cell-manual", rect, (g2, i, c, r) -> {
+            final AffineTransform savedTransform = g2.getTransform();
+            final Shape savedClip = g2.getClip();
+            g2.translate((i % c) * CELL_WIDTH, ((i / c) % r) * CELL_HEIGHT);
+            g2.clip(new Rectangle2D.Double(0, 0, CELL_WIDTH, CELL_HEIGHT));
+            fillCell(g2, i);
+            // the saved clip is in the coordinates of the saved transform, so the transform is restored first:
+            g2.setTransform(savedTransform);
+            g2.setClip(savedClip);
+            return 1;
+        }, ops));
+        result.add(new StateWorkload("cell-create", rect, (g2, i, c, r) -> {
+            final Graphics2D g = (Graphics2D) g2.create();
+            try {
+                g.translate((i % c) * CELL_WIDTH, ((i / c) % r) * CELL_HEIGHT);
+                g.clip(new Rectangle2D.Double(0, 0, CELL_WIDTH, CELL_HEIGHT));
+                fillCell(g, i);
+            } finally {
+                g.dispose();
+            }
+            return 1;
+        }, ops));
+        return result;
+    }
+
+    /**
+     * Prints the time and the allocation per operation of each workload
+     * (rows) for each backend (columns); the operations of the nested
+     * {@code create()} workloads are the {@code create()} and
+     * {@code dispose()} pairs.
+     *
+     * @param results  the suite results.
+     */
+    static void printCostSummary(List<WorkloadRunner.Result> results) {
+        System.out.println("Nanoseconds and bytes allocated per operation:");
+        WorkloadRunner.printPivot(results, "operation", r -> String.format(Locale.ROOT, "%.1f ns %s",
+                1e6 * r.render / r.units, r.allocated < 0 ? "" : String.format(Locale.ROOT, "%.0f B", r.allocated)));
+    }
+
+    /**
+     * Prints, for each backend, whether {@code getClip()} returns the same
+     * instance for repeated calls and whether modifying the transform
+     * returned by {@code getTransform()} changes the state of the target.
+     *
+     * @param backends  the backends.
+     */
+    static void printCopySummary(List<Graphics2DBackend> backends) {
+        System.out.println("State returned to the caller:");
+        System.out.println(String.format(Locale.ROOT, "%-14s %-16s %-20s", "backend", "getClip()",
+                "getTransform()"));
+        for (Graphics2DBackend backend : backends) {
+            backend.create(Tester.getTestSheetWidth(), Tester.getTestSheetHeight());
+            try {
+                final Graphics2D g2 = backend.reset();
+                g2.setClip(new Rectangle2D.Double(10, 10, 100, 100));
+                final Shape clip = g2.getClip();
+                final AffineTransform t = g2.getTransform();
+                t.translate(5, 5);
+                System.out.println(String.format(Locale.ROOT, "%-14s %-16s %-20s", backend.getName(),
+                        clip == g2.getClip() ? "same instance" : "new per call",
+                        g2.getTransform().equals(t) ? "shared (unsafe)" : "copy"));
+            } finally {
+                backend.dispose();
+            }
+        }
+    }
+
+    /**
+     * Runs the state suite.  The options are {@code --ops=N} (operations per
+     * iteration) and those of {@link WorkloadRunner#runSuite}; the report is
+     * written to {@code state.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int ops = DEFAULT_OPS;
+        final List<String> rest = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--ops=")) {
+                ops = Integer.parseInt(arg.substring("--ops=".length()));
+            } else {
+                rest.add(arg);
+                if (!arg.startsWith("--")) {
+                    names.add(arg);
+                }
+            }
+        }
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("state", createWorkloads(ops), rest);
+        printCostSummary(results);
+        printCopySummary(WorkloadRunner.selectBackends(names));
+        System.exit(0);
+    }
+
+}
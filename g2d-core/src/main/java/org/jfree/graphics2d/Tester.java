@@ -25,7 +25,6 @@ import org.jfree.chart3d.renderer.xyz.SurfaceRenderer;
 import org.jfree.data.flow.DefaultFlowDataset;
 import org.jfree.data.flow.FlowDataset;
 
-import javax.imageio.ImageIO;
 import java.awt.font.LineMetrics;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Arc2D;
@@ -38,16 +37,26 @@ import java.awt.geom.QuadCurve2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.swing.JButton;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 /**
@@ -61,6 +70,14 @@ public class Tester {
 
     final static boolean DO_CLIP = true;
 
+    /**
+     * Paint the Swing tile without a JFrame (no display needed)?  This is
+     * always the case in a headless JVM, set the system property
+     * "tester.headlessSwing" to true to use it with a display too.
+     */
+    static final boolean HEADLESS_SWING = GraphicsEnvironment.isHeadless()
+            || Boolean.getBoolean("tester.headlessSwing");
+
     private static final int TILE_COUNT_H = 11;
 
     private static final int TILE_COUNT_V = 34;
@@ -93,22 +110,60 @@ public class Tester {
         new Color(238, 130, 238) // VIOLET
     };
 
-    private static void moveTo(int tileX, int tileY, Graphics2D g2) {
+    private static void moveTo(final TesterContext tc, int tileX, int tileY, Graphics2D g2) {
+        if (tc.tileTimer != null) {
+            tc.tileTimer.enter(tileX, tileY);
+        }
         AffineTransform t = AffineTransform.getTranslateInstance(tileX * TILE_WIDTH, tileY * TILE_HEIGHT);
+        if (tc.origin != null) {
+            t.preConcatenate(tc.origin);
+        }
         g2.setTransform(t);
     }
 
     private static void prepareSwingUI(final TesterContext tc, final Rectangle2D bounds) {
         final JComponent content = createContent();
+        if (HEADLESS_SWING) {
+            prepareSwingUIHeadless(tc, content);
+            return;
+        }
         final JFrame frame = new JFrame("Title");
         frame.getContentPane().add(content);
         frame.setBounds((int) bounds.getX(), (int) bounds.getY(), (int) bounds.getWidth(), (int) bounds.getHeight());
         frame.pack();
         tc.frame = frame;
+        tc.swingContent = (JComponent) frame.getContentPane();
+    }
+
+    /**
+     * Lays out the Swing content off-screen, without a frame and without
+     * native peers: the content gets its preferred size (as with
+     * {@code JFrame.pack()}) and each container is laid out top-down (as
+     * {@code validate()} would do if there was a peer).
+     *
+     * @param tc  the tester context.
+     * @param content  the Swing content.
+     */
+    private static void prepareSwingUIHeadless(final TesterContext tc, final JComponent content) {
+        content.setSize(content.getPreferredSize());
+        layoutTree(content);
+        tc.swingContent = content;
+    }
+
+    private static void layoutTree(final Component component) {
+        if (component instanceof Container) {
+            final Container container = (Container) component;
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layoutTree(child);
+            }
+        }
     }
 
-    private static void drawSwingUI(final JFrame frame, final Graphics2D g2) {
-        frame.getContentPane().paint(g2);
+    private static void drawSwingUI(final TesterContext tc, final Graphics2D g2) {
+        final long start = System.nanoTime();
+        tc.getSwingContent().paint(g2);
+        tc.swingPaintNanos = System.nanoTime() - start;
     }
 
     private static void prepareOrsonChartSample(final TesterContext tc) {
@@ -136,7 +191,7 @@ public class Tester {
     }
 
     private static void drawOrsonChartSample(final TesterContext tc, Graphics2D g2, Rectangle2D bounds) {
-        tc.orsonChart.draw(g2, bounds);
+        tc.getOrsonChart().draw(g2, bounds);
     }
 
     /**
@@ -222,25 +277,84 @@ public class Tester {
     }
 
     private static void drawJFreeChartSample(final TesterContext tc, Graphics2D g2, Rectangle2D bounds) {
-        tc.jfreeChart.draw(g2, bounds);
+        tc.getJFreeChart().draw(g2, bounds);
     }
 
     /**
-     * Prepare test sheets
+     * Prepare test sheets.  The preparation steps are independent, so they
+     * run concurrently (the Swing UI on the event dispatch thread) and the
+     * time until each step is ready is reported.
+     *
      * @param tc  the tester context.
      */
     public static void prepareTestSheet(final TesterContext tc) {
-        try {
-            ImageTests.prepareQRCodeImage(tc);
-
-            prepareJFreeChartSample(tc);
-
-            prepareOrsonChartSample(tc);
+        final Map<String, Runnable> steps = new LinkedHashMap<>();
+        steps.put("qrcode", tc::getQRCodeImage);
+        steps.put("jfreechart", tc::getJFreeChart);
+        steps.put("orsonchart", tc::getOrsonChart);
+        steps.put("image", tc::getTriumphImage);
+        steps.put("swing", tc::getSwingContent);
+        runPrepareSteps(tc, "prepareTestSheet", steps);
+    }
 
-            ImageTests.prepareImage(tc);
+    /**
+     * Runs preparation steps concurrently, waits until all of them are ready
+     * and records (in {@link TesterContext#readyTimes}) and reports the time
+     * from the start of the preparation until each step was ready.  On the
+     * event dispatch thread the steps run one after another on that thread
+     * (a step that waits for the event dispatch thread would deadlock).
+     *
+     * @param tc  the tester context.
+     * @param caller  the name used in the report.
+     * @param steps  the steps (name to task).
+     */
+    private static void runPrepareSteps(final TesterContext tc, final String caller,
+            final Map<String, Runnable> steps) {
+        final long start = System.nanoTime();
+        final boolean inline = SwingUtilities.isEventDispatchThread();
+        final Map<String, CompletableFuture<long[]>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Runnable> step : steps.entrySet()) {
+            final Supplier<long[]> task = () -> {
+                final long t0 = System.nanoTime();
+                step.getValue().run();
+                return new long[]{t0, System.nanoTime()};
+            };
+            futures.put(step.getKey(), inline ? CompletableFuture.completedFuture(task.get())
+                    : CompletableFuture.supplyAsync(task));
+        }
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        for (Map.Entry<String, CompletableFuture<long[]>> entry : futures.entrySet()) {
+            final long[] times = entry.getValue().join();
+            final double ready = 1e-6d * (times[1] - start);
+            tc.readyTimes.put(entry.getKey(), ready);
+            System.out.println(String.format(Locale.ROOT, "%s: %-10s took %8.3f ms, ready after %8.3f ms",
+                    caller, entry.getKey(), 1e-6d * (times[1] - times[0]), ready));
+        }
+        System.out.println(String.format(Locale.ROOT, "%s: all steps ready after %.3f ms", caller,
+                1e-6d * (System.nanoTime() - start)));
+    }
 
-            prepareSwingUI(tc, new Rectangle2D.Double(0, 0, TILE_WIDTH * 4, TILE_HEIGHT * 4));
-        } catch (Exception e) {
+    /**
+     * Runs a task on the event dispatch thread and waits for it (the task runs
+     * directly if this is the event dispatch thread).
+     *
+     * @param task  the task.
+     */
+    private static void invokeOnEDT(final Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+            return;
+        }
+        try {
+            SwingUtilities.invokeAndWait(task);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
     }
@@ -259,7 +373,7 @@ public class Tester {
         Rectangle2D bounds = new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT);
 
         row++; // ***** HEADER
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         g2.setPaint(Color.WHITE);
         g2.fill(new Rectangle2D.Double(2, 2, TILE_WIDTH * TILE_COUNT_H, TILE_HEIGHT - 2));
         g2.setPaint(Color.BLACK);
@@ -276,401 +390,401 @@ public class Tester {
         g2.drawString(str, x, y);
 
         row++;
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         drawTestProperties(g2, tc.g2UnderTest);
         row--;
 
         // QR CODE AT RIGHT SIDE
         row += 4;
-        moveTo(TILE_COUNT_H - 4, row, g2);
+        moveTo(tc, TILE_COUNT_H - 4, row, g2);
         ImageTests.drawQRCodeImage(tc, g2, new Rectangle2D.Double(0, 0, TILE_WIDTH * 2, TILE_HEIGHT * 2), 5);
         row -= 4;
 
         // JFREECHART AT RIGHT SIDE
         row += 7;
-        moveTo(TILE_COUNT_H - 4, row, g2);
+        moveTo(tc, TILE_COUNT_H - 4, row, g2);
         drawJFreeChartSample(tc, g2, new Rectangle2D.Double(0, 0, TILE_WIDTH * 4, TILE_HEIGHT * 4));
         row -= 7;
 
         // ORSON CHARTS AT RIGHT SIDE
         row += 12;
-        moveTo(TILE_COUNT_H - 4, row, g2);
+        moveTo(tc, TILE_COUNT_H - 4, row, g2);
         drawOrsonChartSample(tc, g2, new Rectangle2D.Double(0, 0, TILE_WIDTH * 4, TILE_HEIGHT * 4));
         row -= 12;
 
         row++;  // ***** LINES SPECIAL
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 0.0f, Color.RED);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 1.0f, Color.RED);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0f, 1.0f, Color.RED);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.drawLineCapAndDash(g2, bounds, 5.0, 1.0f, new float[]{2f, 2f}, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.drawLineCapAndDash(g2, bounds, 5.0, 3.0f, new float[]{4f, 8f}, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0f, 5.0f, Color.BLACK);
 
         row++; // ***** LINE2D
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.drawLines(g2, bounds, 5.0, new BasicStroke(0.0f), Color.RED);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.drawLines(g2, bounds, 5.0, OUTLINE, Color.RED);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.drawLines(g2, bounds, 5.0, OUTLINE, Color.RED);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.drawLines(g2, bounds, 5.0, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.drawLines(g2, bounds, 5.0, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.drawLines(g2, bounds, 5.0, OUTLINE_3, Color.BLACK);
 
         row++; // ***** RECTANGLE2D
         Rectangle2D rect = new Rectangle2D.Double(5, 5, TILE_WIDTH - 10, TILE_HEIGHT - 10);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, rect, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, rect, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, rect, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, rect, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, rect, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, rect, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++;  // ***** ROUNDRECTANGLE2D
         RoundRectangle2D roundRect = new RoundRectangle2D.Double(5, 5, TILE_WIDTH - 10, TILE_HEIGHT - 10, 8.0, 12.0);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** QUADCURVE2D
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeQuadCurve2D(g2, bounds, 5.0, Color.RED, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeQuadCurve2D(g2, bounds, 5.0, null, OUTLINE, Color.RED);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeQuadCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, OUTLINE, Color.RED);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeQuadCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeQuadCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeQuadCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** CUBICCURVE2D
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeCubicCurve2D(g2, bounds, 5.0, Color.RED, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeCubicCurve2D(g2, bounds, 5.0, null, OUTLINE, Color.RED);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeCubicCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, OUTLINE, Color.RED);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeCubicCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeCubicCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeCubicCurve2D(g2, bounds, 5.0, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++;  // ***** ELLIPSE2D
         Ellipse2D ellipse = new Ellipse2D.Double(MARGIN, MARGIN, bounds.getWidth() - 2 * MARGIN, bounds.getHeight() - 2 * MARGIN);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++;  // ***** ARC2D PIE
         Arc2D arc = ShapeTests.createArc2D(Arc2D.PIE, 45, 270, bounds, 5);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++;  // ***** ARC2D CHORD
         Arc2D arc2 = ShapeTests.createArc2D(Arc2D.CHORD, 210, 300, bounds, 5);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc2, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc2, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc2, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc2, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc2, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc2, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++;  // ***** ARC2D OPEN
         Arc2D arc3 = ShapeTests.createArc2D(Arc2D.OPEN, -45, 270, bounds, 5);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc3, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc3, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc3, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc3, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc3, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, arc3, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** GeneralPATH
         Path2D path = ShapeTests.createPath2D(bounds, MARGIN);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.RED, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, null, OUTLINE, Color.RED);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, OUTLINE, Color.RED);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** GeneralPATH WIND_NON_ZERO FILL
         path.setWindingRule(Path2D.WIND_NON_ZERO);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.RED, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, null, OUTLINE, Color.RED);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, OUTLINE, Color.RED);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, path, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** Area - add
         Area areaAdd = ShapeTests.createCombinedArea("add", new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaAdd, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaAdd, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaAdd, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaAdd, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaAdd, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaAdd, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** Area - intersect
         Area areaIntersect = ShapeTests.createCombinedArea("intersect", new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaIntersect, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaIntersect, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaIntersect, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaIntersect, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaIntersect, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaIntersect, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** Area - subtract
         Area areaSubtract = ShapeTests.createCombinedArea("subtract", new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaSubtract, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaSubtract, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaSubtract, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaSubtract, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaSubtract, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaSubtract, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++; // ***** Area - XOR
         Area areaXOR = ShapeTests.createCombinedArea("exclusiveOr", new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaXOR, Color.BLUE, null, null);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaXOR, null, OUTLINE, Color.BLUE);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaXOR, Color.LIGHT_GRAY, OUTLINE, Color.BLUE);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaXOR, Color.LIGHT_GRAY, DASHED, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaXOR, Color.LIGHT_GRAY, DASHED_3, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, areaXOR, Color.LIGHT_GRAY, OUTLINE_3, Color.BLACK);
 
         row++;  // ***** ALPHACOMPOSITE
         // show a set of tiles with standard AlphaComposite settings
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.Clear, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.Src, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.SrcOver, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.DstOver, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.SrcIn, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.DstIn, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.SrcOut, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.DstOut, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(8, row, g2);
+        moveTo(tc, 8, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.Dst, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(9, row, g2);
+        moveTo(tc, 9, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.SrcAtop, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(10, row, g2);
+        moveTo(tc, 10, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.DstAtop, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
 
         row++;  // ***** ALPHACOMPOSITE
         // show a set of tiles with standard AlphaComposite settings
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.CLEAR, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.SRC, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.DST_OVER, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.SRC_IN, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.DST_IN, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.SRC_OUT, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.DST_OUT, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(8, row, g2);
+        moveTo(tc, 8, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.DST, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(9, row, g2);
+        moveTo(tc, 9, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.SRC_ATOP, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
-        moveTo(10, row, g2);
+        moveTo(tc, 10, row, g2);
         ShapeTests.drawShapesWithAlphaComposite(g2, AlphaComposite.getInstance(AlphaComposite.DST_ATOP, 0.6f), new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH, TILE_HEIGHT), 5.0);
 
         g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
 
         row++;  // ***** GRADIENTPAINT
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         GradientPaint gp = new GradientPaint(0f, 0f, Color.YELLOW, TILE_WIDTH, 0f, Color.RED);
         ShapeTests.fillAndStrokeShape(g2, roundRect, gp, null, null);
 
         // here we change the gradient to start one quarter of the way across the shape
         // and finish at the three-quarter mark - the default should be non-cyclic
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         float p = TILE_WIDTH / 4.0f;
         GradientPaint gp2 = new GradientPaint(p, 0f, Color.YELLOW, p * 3, 0f, Color.RED);
         ShapeTests.fillAndStrokeShape(g2, roundRect, gp2, null, null);
 
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         GradientPaint gp3 = new GradientPaint(p, 0f, Color.YELLOW, p * 3, 0f, Color.RED, true);
         ShapeTests.fillAndStrokeShape(g2, roundRect, gp3, null, null);
 
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         LinearGradientPaint lgp1 = new LinearGradientPaint(10f, 0f, TILE_WIDTH - 10, 0f, new float[]{0f, 1 / 6f, 2 / 6f, 3 / 6f, 4 / 6f, 5 / 6f, 1f}, RAINBOW_COLORS);
         ShapeTests.fillAndStrokeShape(g2, roundRect, lgp1, null, null);
 
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         GradientPaint gp4 = new GradientPaint(0f, 0f, Color.YELLOW, TILE_WIDTH, TILE_HEIGHT, Color.RED);
         ShapeTests.fillAndStrokeShape(g2, roundRect, gp4, null, null);
 
         // here we change the gradient to start one quarter of the way across the shape
         // and finish at the three quarter mark - the default should be non-cyclic
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         GradientPaint gp5 = new GradientPaint(p, 0f, Color.YELLOW, p * 3, TILE_HEIGHT, Color.RED);
         ShapeTests.fillAndStrokeShape(g2, roundRect, gp5, null, null);
 
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         GradientPaint gp6 = new GradientPaint(p, 0f, Color.YELLOW, p * 3, TILE_HEIGHT, Color.RED, true);
         ShapeTests.fillAndStrokeShape(g2, roundRect, gp6, null, null);
 
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         LinearGradientPaint lgp2 = new LinearGradientPaint(10f, 0f, TILE_WIDTH - 10, TILE_HEIGHT, new float[]{0f, 1 / 6f, 2 / 6f, 3 / 6f, 4 / 6f, 5 / 6f, 1f}, RAINBOW_COLORS);
         ShapeTests.fillAndStrokeShape(g2, roundRect, lgp2, null, null);
 
         row++;  // ***** LINES WITH GRADIENT PAINT
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, gp);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, gp2);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, gp3);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, lgp1);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, gp4);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, gp5);
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, gp6);
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         ShapeTests.drawLineCaps(g2, bounds, 5.0, 5.0f, lgp2);
 
         row++;  // ***** RADIAL GRADIENT PAINT
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         Point2D center = new Point2D.Double(TILE_WIDTH / 2.0, TILE_HEIGHT / 2.0);
         RadialGradientPaint rgp = new RadialGradientPaint(center, (float) (TILE_HEIGHT / 2.0 - 5), new float[]{0.0f, 0.75f, 1.0f}, new Color[]{Color.YELLOW, Color.RED, Color.LIGHT_GRAY});
         ShapeTests.fillAndStrokeShape(g2, roundRect, rgp, null, null);
 
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         RadialGradientPaint rgp2 = new RadialGradientPaint(center, (float) (TILE_HEIGHT / 2.0 - 5), new float[]{0.0f, 0.75f, 1.0f}, new Color[]{Color.YELLOW, Color.RED, Color.LIGHT_GRAY}, MultipleGradientPaint.CycleMethod.REPEAT);
         ShapeTests.fillAndStrokeShape(g2, roundRect, rgp2, null, null);
 
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         RadialGradientPaint rgp3 = new RadialGradientPaint(center, (float) (TILE_HEIGHT / 2.0 - 5), new float[]{0.0f, 0.75f, 1.0f}, new Color[]{Color.YELLOW, Color.RED, Color.LIGHT_GRAY}, MultipleGradientPaint.CycleMethod.REFLECT);
         ShapeTests.fillAndStrokeShape(g2, roundRect, rgp3, null, null);
 
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         Point2D focus = new Point2D.Double(TILE_WIDTH / 3.0, TILE_HEIGHT / 3.0);
         RadialGradientPaint rgp4 = new RadialGradientPaint(center, (float) (TILE_HEIGHT / 2.0 - 5), focus, new float[]{0.0f, 0.75f, 1.0f}, new Color[]{Color.YELLOW, Color.RED, Color.LIGHT_GRAY}, MultipleGradientPaint.CycleMethod.NO_CYCLE);
         ShapeTests.fillAndStrokeShape(g2, roundRect, rgp4, null, null);
 
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         RadialGradientPaint rgp5 = new RadialGradientPaint(center, (float) (TILE_HEIGHT / 2.0 - 5), focus, new float[]{0.0f, 0.75f, 1.0f}, new Color[]{Color.YELLOW, Color.RED, Color.LIGHT_GRAY}, MultipleGradientPaint.CycleMethod.REPEAT);
         ShapeTests.fillAndStrokeShape(g2, roundRect, rgp5, null, null);
 
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         RadialGradientPaint rgp6 = new RadialGradientPaint(center, (float) (TILE_HEIGHT / 2.0 - 5), focus, new float[]{0.0f, 0.75f, 1.0f}, new Color[]{Color.YELLOW, Color.RED, Color.LIGHT_GRAY}, MultipleGradientPaint.CycleMethod.REFLECT);
         ShapeTests.fillAndStrokeShape(g2, roundRect, rgp6, null, null);
 
         row++;  // ***** TexturePaint
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         int w = 5;
         int h = 3;
         BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
@@ -684,194 +798,198 @@ public class Tester {
         Paint tp = new TexturePaint(image, new Rectangle(5, 5, w, h));
         ShapeTests.fillAndStrokeShape(g2, rect, tp, null, null);
 
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, tp, null, null);
 
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, tp, new BasicStroke(1.0f), Color.BLACK);
 
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         tp = new TexturePaint(image, new Rectangle(0, 0, w * 2, h * 2));
         ShapeTests.fillAndStrokeShape(g2, rect, tp, null, null);
 
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ShapeTests.fillAndStrokeShape(g2, roundRect, tp, null, null);
 
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ShapeTests.fillAndStrokeShape(g2, ellipse, tp, new BasicStroke(2.0f), Color.BLACK);
 
         row++; // ***** TRANSLATION
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         Rectangle2D rectToTranslate = new Rectangle2D.Double(5, 5, TILE_WIDTH / 2.0 - 10, TILE_HEIGHT / 2.0 - 10);
         TransformTests.translateShape(g2, bounds, rectToTranslate, Color.YELLOW, new BasicStroke(1.0f), Color.BLACK);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         RoundRectangle2D roundRectToTranslate = new RoundRectangle2D.Double(5, 5, TILE_WIDTH / 2.0 - 10, TILE_HEIGHT / 2.0 - 10, 8, 8);
         TransformTests.translateShape(g2, bounds, roundRectToTranslate, Color.ORANGE, new BasicStroke(1.0f), Color.BLACK);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         QuadCurve2D quadCurveToTranslate = ShapeTests.createQuadCurve2D1(new Rectangle2D.Double(0, 0, TILE_WIDTH / 2.0, TILE_HEIGHT / 2.0), 3);
         TransformTests.translateShape(g2, bounds, quadCurveToTranslate, Color.YELLOW, new BasicStroke(1.0f), Color.BLACK);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         CubicCurve2D cubicCurveToTranslate = ShapeTests.createCubicCurve2D(new Rectangle2D.Double(0, 0, TILE_WIDTH / 2.0, TILE_HEIGHT / 2.0), 3);
         TransformTests.translateShape(g2, bounds, cubicCurveToTranslate, Color.ORANGE, new BasicStroke(1.0f), Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         Ellipse2D ellipseToTranslate = new Ellipse2D.Double(5, 5, TILE_WIDTH / 2.0 - 10, TILE_HEIGHT / 2.0 - 10);
         TransformTests.translateShape(g2, bounds, ellipseToTranslate, Color.YELLOW, new BasicStroke(1.0f), Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         Arc2D arcToTranslate = new Arc2D.Double(new Rectangle2D.Double(5, 5, TILE_WIDTH / 2.0 - 10, TILE_HEIGHT / 2.0 - 10), 45, 290, Arc2D.PIE);
         TransformTests.translateShape(g2, bounds, arcToTranslate, Color.ORANGE, new BasicStroke(1.0f), Color.BLACK);
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         Area areaToTranslate = ShapeTests.createCombinedArea("exclusiveOr", new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH / 2.0, TILE_HEIGHT / 2.0), 2.5);
         TransformTests.translateShape(g2, bounds, areaToTranslate, Color.YELLOW, new BasicStroke(1.0f), Color.BLACK);
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         Path2D pathToTranslate = ShapeTests.createPath2D(new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH / 2.0, TILE_HEIGHT / 2.0), 2.5);
         TransformTests.translateShape(g2, bounds, pathToTranslate, Color.ORANGE, new BasicStroke(1.0f), Color.BLACK);
 
         row++; // ***** ROTATION
         double m = 0.33 * TILE_HEIGHT;
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         Rectangle2D rectToRotate = new Rectangle2D.Double(m, m, TILE_WIDTH - m * 2, TILE_HEIGHT - m * 2);
         TransformTests.rotateShape(g2, bounds, rectToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         RoundRectangle2D roundRectToRotate = new RoundRectangle2D.Double(m, m, TILE_WIDTH - m * 2, TILE_HEIGHT - m * 2, 8, 8);
         TransformTests.rotateShape(g2, bounds, roundRectToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         QuadCurve2D quadCurveToRotate = ShapeTests.createQuadCurve2D2(new Rectangle2D.Double(0, 0, TILE_WIDTH, TILE_HEIGHT), 15);
         TransformTests.rotateShape(g2, bounds, quadCurveToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         CubicCurve2D cubicCurveToRotate = ShapeTests.createCubicCurve2D(new Rectangle2D.Double(0, 0, TILE_WIDTH, TILE_HEIGHT), 15);
         TransformTests.rotateShape(g2, bounds, cubicCurveToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         Ellipse2D ellipseToRotate = new Ellipse2D.Double(m, m, TILE_WIDTH - m * 2, TILE_HEIGHT - m * 2);
         TransformTests.rotateShape(g2, bounds, ellipseToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         Arc2D arcToRotate = new Arc2D.Double(new Rectangle2D.Double(m, m, TILE_WIDTH - m * 2, TILE_HEIGHT - m * 2), 45, 290, Arc2D.PIE);
         TransformTests.rotateShape(g2, bounds, arcToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         Area areaToRotate = ShapeTests.createCombinedArea("add", new Rectangle2D.Double(0, 0, TILE_WIDTH, TILE_HEIGHT), m);
         TransformTests.rotateShape(g2, bounds, areaToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         double mmm = 0.50;
         Path2D pathToRotate = ShapeTests.createPath2D(new Rectangle2D.Double(TILE_WIDTH * (mmm / 2.0), TILE_HEIGHT * (mmm / 2.0), TILE_WIDTH * (1 - mmm), TILE_HEIGHT * (1 - mmm)), 0.0);
         TransformTests.rotateShape(g2, bounds, pathToRotate, Math.PI / 4, Color.BLUE, OUTLINE, Color.BLACK);
 
         row++; // ***** SHEAR X & Y
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         double shx = -2.0;
         double shy = -0.5;
         double mm = 0.33 * TILE_HEIGHT;
         Rectangle2D rectToSkew = new Rectangle2D.Double(m, m, TILE_WIDTH - mm * 2, TILE_HEIGHT - mm * 2);
         TransformTests.shearShape(g2, bounds, rectToSkew, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(0, row + 1, g2);
+        moveTo(tc, 0, row + 1, g2);
         TransformTests.shearShape(g2, bounds, rectToSkew, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         RoundRectangle2D roundRectToShear = new RoundRectangle2D.Double(m, m, TILE_WIDTH - m * 2, TILE_HEIGHT - m * 2, 8, 8);
         TransformTests.shearShape(g2, bounds, roundRectToShear, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(1, row + 1, g2);
+        moveTo(tc, 1, row + 1, g2);
         TransformTests.shearShape(g2, bounds, roundRectToShear, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
 
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         QuadCurve2D quadCurveToShear = ShapeTests.createQuadCurve2D2(new Rectangle2D.Double(0, 0, TILE_WIDTH, TILE_HEIGHT), 15);
         TransformTests.shearShape(g2, bounds, quadCurveToShear, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(2, row + 1, g2);
+        moveTo(tc, 2, row + 1, g2);
         TransformTests.shearShape(g2, bounds, quadCurveToShear, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
 
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         CubicCurve2D cubicCurveToShear = ShapeTests.createCubicCurve2D(new Rectangle2D.Double(0, 0, TILE_WIDTH, TILE_HEIGHT), 15);
         TransformTests.shearShape(g2, bounds, cubicCurveToShear, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(3, row + 1, g2);
+        moveTo(tc, 3, row + 1, g2);
         TransformTests.shearShape(g2, bounds, cubicCurveToShear, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
 
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         Ellipse2D ellipseToSkew = new Ellipse2D.Double(m, m, TILE_WIDTH - m * 2, TILE_HEIGHT - m * 2);
         TransformTests.shearShape(g2, bounds, ellipseToSkew, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(4, row + 1, g2);
+        moveTo(tc, 4, row + 1, g2);
         TransformTests.shearShape(g2, bounds, ellipseToSkew, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
 
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         Arc2D arcToShear = new Arc2D.Double(new Rectangle2D.Double(m, m, TILE_WIDTH - m * 2, TILE_HEIGHT - m * 2), 45, 290, Arc2D.PIE);
         TransformTests.shearShape(g2, bounds, arcToShear, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(5, row + 1, g2);
+        moveTo(tc, 5, row + 1, g2);
         TransformTests.shearShape(g2, bounds, arcToShear, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
 
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         Area areaToShear = ShapeTests.createCombinedArea("add", new Rectangle2D.Double(0, 0, TILE_WIDTH, TILE_HEIGHT), m);
         TransformTests.shearShape(g2, bounds, areaToShear, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(6, row + 1, g2);
+        moveTo(tc, 6, row + 1, g2);
         TransformTests.shearShape(g2, bounds, areaToShear, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
 
-        moveTo(7, row, g2);
+        moveTo(tc, 7, row, g2);
         Path2D pathToShear = ShapeTests.createPath2D(new Rectangle2D.Double(TILE_WIDTH * (mmm / 2.0), TILE_HEIGHT * (mmm / 2.0), TILE_WIDTH * (1 - mmm), TILE_HEIGHT * (1 - mmm)), 0.0);
         TransformTests.shearShape(g2, bounds, pathToShear, 0.0, shy, Color.BLUE, OUTLINE, Color.BLACK);
-        moveTo(7, row + 1, g2);
+        moveTo(tc, 7, row + 1, g2);
         TransformTests.shearShape(g2, bounds, pathToShear, shx, 0.0, Color.BLUE, OUTLINE, Color.BLACK);
 
         row++; // to cover the shearing above taking up two rows
 
         row++;  // drawArc() / fillArc()
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         g2.setColor(Color.BLUE);
         g2.fillArc(5, 5, TILE_WIDTH - 10, TILE_HEIGHT - 10, 45, 270);
 
-        moveTo(1, row, g2);
+        moveTo(tc, 1, row, g2);
         g2.fillArc(5, 5, TILE_WIDTH - 10, TILE_HEIGHT -10, 90, 180);
 
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         g2.fillArc(5, 5, TILE_WIDTH - 10, TILE_HEIGHT - 10, 135, 90);
 
         g2.setColor(Color.RED);
-        moveTo(3, row, g2);
+        moveTo(tc, 3, row, g2);
         g2.drawArc(5, 5, TILE_WIDTH - 10, TILE_HEIGHT - 10, 45, 270);
 
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         g2.drawArc(5, 5, TILE_WIDTH - 10, TILE_HEIGHT - 10, 90, 180);
 
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         g2.drawArc(5, 5, TILE_WIDTH - 10, TILE_HEIGHT - 10, 135, 90);
 
         row++;  // ***** STRINGS & FONTS
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         FontTests.drawString(g2, new Rectangle2D.Double(0.0, 0.0, TILE_WIDTH * 2, TILE_HEIGHT));
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         FontTests.drawAttributedString(g2, bounds);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         FontTests.drawAttributedString2(g2, bounds);
-        moveTo(6, row, g2);
+        moveTo(tc, 6, row, g2);
         FontTests.drawUnicodeCharacters(g2, bounds);
 
         row++;  // ***** UNICODE
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         FontTests.drawAttributedStringWithKerning(g2, bounds);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         FontTests.drawAttributedStringWithLigatures(g2, bounds);
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         FontTests.drawTextWithTracking(g2, bounds);
+        moveTo(tc, 7, row, g2);
+        FontTests.drawGlyphVectors(g2, bounds);
+        moveTo(tc, 9, row, g2);
+        FontTests.drawTextLayouts(g2, bounds);
 
         row++;
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         FontTests.drawStringBounds(g2, bounds);
-        moveTo(2, row, g2);
+        moveTo(tc, 2, row, g2);
         FontTests.drawTextMetrics(g2, bounds);
 
-        moveTo(4, row, g2);
+        moveTo(tc, 4, row, g2);
         ClippingTests.fillRectangularClippingRegions(g2, bounds);
 
-        moveTo(5, row, g2);
+        moveTo(tc, 5, row, g2);
         ClippingTests.drawArc2DWithRectangularClip(g2, bounds, 5);
 
         row++;  // ***** IMAGE
-        moveTo(0, row, g2);
+        moveTo(tc, 0, row, g2);
         Rectangle2D imageBounds = new Rectangle2D.Double(0, 0, TILE_WIDTH * 3, TILE_WIDTH * 2);
         ImageTests.drawImage(tc, g2, imageBounds, 5);
 
         if (DO_CLIP) {
-            moveTo(4, row, g2);
+            moveTo(tc, 4, row, g2);
             imageBounds = new Rectangle2D.Double(0, 0, TILE_WIDTH * 3, TILE_WIDTH * 2);
             Shape savedClip = g2.getClip();
             g2.clip(new Ellipse2D.Double(15, 15, TILE_WIDTH * 3 - 30, TILE_WIDTH * 2 - 30));
             ImageTests.drawImage(tc, g2, imageBounds, 5);
             g2.setClip(savedClip);
 
-            moveTo(8, row, g2);
+            moveTo(tc, 8, row, g2);
             imageBounds = new Rectangle2D.Double(0, 0, TILE_WIDTH * 3, TILE_WIDTH * 2);
             AffineTransform savedTransform = g2.getTransform();
             savedClip = g2.getClip();
@@ -880,11 +998,15 @@ public class Tester {
             g2.rotate(Math.PI / 4);
             g2.translate(-TILE_WIDTH * 1.5, -TILE_WIDTH);
             ImageTests.drawImage(tc, g2, imageBounds, 5);
-            g2.setClip(savedClip);
+            // the saved clip is in the unrotated space:
             g2.setTransform(savedTransform);
+            g2.setClip(savedClip);
+        }
+        moveTo(tc, TILE_COUNT_H - 2, 20, g2);
+        drawSwingUI(tc, g2);
+        if (tc.tileTimer != null) {
+            tc.tileTimer.endSheet();
         }
-        moveTo(TILE_COUNT_H - 2, 20, g2);
-        drawSwingUI(tc.frame, g2);
 
         // System.out.println("drawTestSheet: out ------");
     }
@@ -910,7 +1032,10 @@ public class Tester {
     }
 
     private static void prepareTestSingle(final TesterContext tc) {
-        prepareSwingUI(tc, new Rectangle2D.Double(0, 0, TILE_WIDTH * 4, TILE_HEIGHT * 4));
+        // the other assets are loaded on first use (see the TesterContext getters):
+        final Map<String, Runnable> steps = new LinkedHashMap<>();
+        steps.put("swing", tc::getSwingContent);
+        runPrepareSteps(tc, "prepareTestSingle", steps);
     }
 
     /**
@@ -920,8 +1045,11 @@ public class Tester {
      * @param g2  the graphics target.
      */
     private static void drawTestSingle(final TesterContext tc, Graphics2D g2) {
-        moveTo(0, 0, g2);
-        drawSwingUI(tc.frame, g2);
+        moveTo(tc, 0, 0, g2);
+        drawSwingUI(tc, g2);
+        if (tc.tileTimer != null) {
+            tc.tileTimer.endSheet();
+        }
     }
 
     /**
@@ -946,12 +1074,49 @@ public class Tester {
 
     /**
      * Renders the test output (checks whether generating the whole test
-     * sheet or just one single test).
+     * sheet or just one single test).  For a scaled-up sheet (see
+     * {@link TesterContext#setGrid(SheetGrid)}) the output is drawn once for
+     * each copy in the grid.  The tests set absolute transforms, so a
+     * transform already set on the target (for example the translation to a
+     * band, see {@link BandRenderer}) is kept as the origin of each copy.
      *
      * @param tc  the tester context.
      * @param g2  the graphics target.
      */
     public static void drawTestOutput(final TesterContext tc, final Graphics2D g2) {
+        if (tc.grid.getCopies() == 1 && g2.getTransform().isIdentity()) {
+            drawTestCopy(tc, g2);
+            return;
+        }
+        // each copy is drawn with its own origin (the tests set absolute
+        // transforms), copies outside the current clip are skipped:
+        final AffineTransform saved = g2.getTransform();
+        final Rectangle clip = g2.getClipBounds();
+        final int w = getTestSheetWidth();
+        final int h = getTestSheetHeight();
+        long swingNanos = 0L;
+        try {
+            for (int row = 0; row < tc.grid.getRows(); row++) {
+                for (int col = 0; col < tc.grid.getColumns(); col++) {
+                    if (clip != null && !clip.intersects(col * w, row * h, w, h)) {
+                        continue;
+                    }
+                    tc.origin = new AffineTransform(saved);
+                    tc.origin.translate(col * w, row * h);
+                    g2.setTransform(tc.origin);
+                    tc.swingPaintNanos = 0L;
+                    drawTestCopy(tc, g2);
+                    swingNanos += Math.max(0L, tc.swingPaintNanos);
+                }
+            }
+        } finally {
+            tc.origin = null;
+            tc.swingPaintNanos = swingNanos;
+            g2.setTransform(saved);
+        }
+    }
+
+    private static void drawTestCopy(final TesterContext tc, final Graphics2D g2) {
         if (tc.single) {
             drawTestSingle(tc, g2);
         } else {
@@ -963,58 +1128,13 @@ public class Tester {
      * Run the tests with a Graphics2D from a Java2D BufferedImage and save
      * the results to the specified file.
      *
-     * @param fileName  the PNG file name.
+     * @param fileName  the base PNG file name.
      * @param single  set to true if just generating a single test
      *
      * @throws IOException if there is an I/O problem.
      */
     private static void testJava2D(String fileName, boolean single) throws IOException {
-        if (single) {
-            fileName += "-single.png";
-        } else {
-            fileName += ".png";
-        }
-        // Prepare context:
-        final TesterContext tc = prepareTestOutput(
-                "Java2D/BufferedImage",
-                "https://github.com/jfree", single);
-
-        final int width = Tester.getTestSheetWidth();
-        final int height = Tester.getTestSheetHeight();
-
-        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-
-        for (int i = 0; i < REPEATS; i++) {
-            final Graphics2D g2 = image.createGraphics();
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-            g2.setBackground(Color.WHITE);
-            g2.clearRect(0, 0, width, height);
-
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            final long startTime = System.nanoTime();
-
-            try {
-                drawTestOutput(tc, g2);
-
-                // Sync CPU / GPU:
-                Toolkit.getDefaultToolkit().sync();
-                // image is ready
-
-                final double elapsedTime = 1e-6d * (System.nanoTime() - startTime);
-                System.out.println("drawTestOutput(Java2D) duration = " + elapsedTime + " ms.");
-
-                if (i == 0) {
-                    try {
-                        ImageIO.write(image, "png", new File(fileName));
-                    } catch (IOException e) {
-                        System.err.println(e.getMessage());
-                        e.printStackTrace(System.err);
-                    }
-                }
-            } finally {
-                g2.dispose();
-            }
-        }
+        BenchmarkHarness.run(new Java2DBackend(), fileName, single, 0, REPEATS);
     }
 
     private static JComponent createContent() {
@@ -1033,11 +1153,19 @@ public class Tester {
 
         JPanel content = new JPanel(new BorderLayout());
         JTabbedPane tabs = new JTabbedPane();
-        final Radial gauge = new Radial();
-        gauge.setTitle("SteelSeries");
-        gauge.setUnitString("Units");
-        gauge.setDigitalFont(true);
-        gauge.setValue(45.0);
+        final JComponent gauge;
+        if (GraphicsEnvironment.isHeadless()) {
+            // the SteelSeries images need a screen device, use a placeholder of the same size
+            // (with a short text, only the left part of the tab is inside the test sheet):
+            gauge = new JLabel("<html><center>SteelSeries<br>(no screen)</center></html>", SwingConstants.CENTER);
+        } else {
+            final Radial radial = new Radial();
+            radial.setTitle("SteelSeries");
+            radial.setUnitString("Units");
+            radial.setDigitalFont(true);
+            radial.setValue(45.0);
+            gauge = radial;
+        }
         gauge.setPreferredSize(new Dimension(300, 200));
         JPanel panel1 = new JPanel(new BorderLayout());
         panel1.add(gauge, BorderLayout.CENTER);
@@ -1050,6 +1178,35 @@ public class Tester {
         return content;
     }
 
+    /**
+     * Returns the area of the test sheet whose content changes from run to
+     * run (the test properties include a timestamp), to be ignored when
+     * comparing the output of two runs.
+     *
+     * @return The area in Java2D units.
+     */
+    static Rectangle getVolatileRegion() {
+        return new Rectangle(7 * TILE_WIDTH, TILE_HEIGHT, 4 * TILE_WIDTH, 3 * TILE_HEIGHT);
+    }
+
+    /**
+     * Returns the width of a tile in Java2D units.
+     *
+     * @return The tile width.
+     */
+    static int getTileWidth() {
+        return TILE_WIDTH;
+    }
+
+    /**
+     * Returns the height of a tile in Java2D units.
+     *
+     * @return The tile height.
+     */
+    static int getTileHeight() {
+        return TILE_HEIGHT;
+    }
+
     /**
      * Returns the width of the test sheet in Java2D units.
      *
@@ -1073,11 +1230,18 @@ public class Tester {
     }
 
     /**
-     * Creates Java2D output that exercises many features of the API.
+     * Creates Java2D output that exercises many features of the API.  With
+     * the first argument {@code --sweep} the Marlin renderer settings are
+     * swept instead (the remaining arguments are passed to
+     * {@link MarlinSweep#main(String[])}).
      *
-     * @param args  ignored
+     * @param args  the command line arguments.
      */
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            MarlinSweep.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         // ensure no hi-dpi to ensure scale = 1.0:
         System.out.println("Use 'java -Dsun.java2d.uiScale=1.0 ...' ");
 
@@ -1096,18 +1260,183 @@ public class Tester {
         String qrLink;
         boolean single;
 
-        // preparation state
-        JFrame frame;
-        BufferedImage qrCodeImage;
-        BufferedImage TRIUMPH_IMAGE;
-        JFreeChart jfreeChart;
-        Chart3D orsonChart;
+        // preparation state (created on first use by the getters, which can
+        // be called from several threads, with one lock per asset so that the
+        // preparation steps still run concurrently)
+        volatile JFrame frame;
+        volatile JComponent swingContent;
+        volatile BufferedImage qrCodeImage;
+        volatile BufferedImage TRIUMPH_IMAGE;
+        volatile JFreeChart jfreeChart;
+        volatile Chart3D orsonChart;
+        private final Object qrCodeLock = new Object();
+        private final Object imageLock = new Object();
+        private final Object jfreeChartLock = new Object();
+        private final Object orsonChartLock = new Object();
+        private final Object swingLock = new Object();
+
+        // optional per-tile timing (not shared by forTarget())
+        TileTimer tileTimer;
+
+        // time spent painting the Swing tile in the last draw [ns]
+        long swingPaintNanos = -1L;
+
+        // time from the start of the preparation until each step was ready [ms]
+        final Map<String, Double> readyTimes = new LinkedHashMap<>();
+
+        // the copies of the test output to draw
+        SheetGrid grid = SheetGrid.SINGLE;
+
+        // the transform for the copy being drawn (null for a single copy)
+        AffineTransform origin;
 
         TesterContext(final String g2UnderTest, final String qrLink, final boolean single) {
             this.g2UnderTest = g2UnderTest;
             this.qrLink = qrLink;
             this.single = single;
         }
+
+        /**
+         * Returns a context that shares the prepared state of this context
+         * but describes another Graphics2D implementation under test.
+         *
+         * @param g2UnderTest  a description of the Graphics2D implementation under test.
+         *
+         * @return A new context.
+         */
+        TesterContext forTarget(final String g2UnderTest) {
+            final TesterContext tc = new TesterContext(g2UnderTest, this.qrLink, this.single);
+            tc.frame = this.frame;
+            tc.swingContent = this.swingContent;
+            tc.qrCodeImage = this.qrCodeImage;
+            tc.TRIUMPH_IMAGE = this.TRIUMPH_IMAGE;
+            tc.jfreeChart = this.jfreeChart;
+            tc.orsonChart = this.orsonChart;
+            tc.grid = this.grid;
+            return tc;
+        }
+
+        /**
+         * Returns the grid of copies drawn by
+         * {@link Tester#drawTestOutput(TesterContext, Graphics2D)}.
+         *
+         * @return The grid (never {@code null}).
+         */
+        public SheetGrid getGrid() {
+            return this.grid;
+        }
+
+        /**
+         * Sets the grid of copies drawn by
+         * {@link Tester#drawTestOutput(TesterContext, Graphics2D)}.  The
+         * drawing target must be created with the size of the grid.
+         *
+         * @param grid  the grid ({@code null} not permitted).
+         */
+        public void setGrid(SheetGrid grid) {
+            if (grid == null) {
+                throw new IllegalArgumentException("Null 'grid' argument.");
+            }
+            this.grid = grid;
+        }
+
+        /**
+         * Returns the QR code image, creating it on first use.
+         *
+         * @return The QR code image.
+         */
+        BufferedImage getQRCodeImage() {
+            if (this.qrCodeImage == null) {
+                synchronized (this.qrCodeLock) {
+                    if (this.qrCodeImage == null) {
+                        try {
+                            ImageTests.prepareQRCodeImage(this);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }
+            }
+            return this.qrCodeImage;
+        }
+
+        /**
+         * Returns the motorcycle image, loading it on first use.
+         *
+         * @return The image.
+         */
+        BufferedImage getTriumphImage() {
+            if (this.TRIUMPH_IMAGE == null) {
+                synchronized (this.imageLock) {
+                    if (this.TRIUMPH_IMAGE == null) {
+                        ImageTests.prepareImage(this);
+                    }
+                }
+            }
+            return this.TRIUMPH_IMAGE;
+        }
+
+        /**
+         * Returns the JFreeChart sample, creating it on first use.
+         *
+         * @return The chart.
+         */
+        JFreeChart getJFreeChart() {
+            if (this.jfreeChart == null) {
+                synchronized (this.jfreeChartLock) {
+                    if (this.jfreeChart == null) {
+                        prepareJFreeChartSample(this);
+                    }
+                }
+            }
+            return this.jfreeChart;
+        }
+
+        /**
+         * Returns the Orson Charts sample, creating it on first use.
+         *
+         * @return The chart.
+         */
+        Chart3D getOrsonChart() {
+            if (this.orsonChart == null) {
+                synchronized (this.orsonChartLock) {
+                    if (this.orsonChart == null) {
+                        prepareOrsonChartSample(this);
+                    }
+                }
+            }
+            return this.orsonChart;
+        }
+
+        /**
+         * Returns the Swing UI content (the content pane of the frame, or the
+         * off-screen content in headless mode), creating it on the event
+         * dispatch thread on first use.
+         *
+         * @return The Swing content.
+         */
+        JComponent getSwingContent() {
+            if (this.swingContent == null) {
+                synchronized (this.swingLock) {
+                    if (this.swingContent == null) {
+                        invokeOnEDT(() -> prepareSwingUI(this,
+                                new Rectangle2D.Double(0, 0, TILE_WIDTH * 4, TILE_HEIGHT * 4)));
+                    }
+                }
+            }
+            return this.swingContent;
+        }
+
+        /**
+         * Returns the time spent painting the Swing tile in the last call to
+         * {@link Tester#drawTestOutput(TesterContext, Graphics2D)}, so that
+         * runners can report it separately from the rest of the sheet.
+         *
+         * @return The time in nanoseconds (-1 if not painted yet).
+         */
+        public long getSwingPaintNanos() {
+            return this.swingPaintNanos;
+        }
     }
 
 }
@@ -0,0 +1,258 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.font.TextAttribute;
+import java.io.IOException;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A text throughput suite, scaled up from the {@link FontTests}: thousands
+ * of chart-label strings per iteration across a growing working set of
+ * fonts (families, sizes and styles), the {@code TextAttribute} cases of the
+ * tests (tracking, kerning, ligatures, superscript and subscript, underline
+ * and strikethrough) and the attributed strings of the tests.  The rate is
+ * reported in glyphs (characters drawn) per second, and a summary shows how
+ * the rate drops as the font working set grows; a drop below half of the
+ * single-font rate is flagged as glyph cache thrashing.
+ */
+public final class TextBenchmark {
+
+    /** The default number of strings drawn per iteration. */
+    static final int DEFAULT_STRINGS = 2000;
+
+    /** The font working set sizes. */
+    static final int[] WORKING_SETS = {1, 16, 128, 1024};
+
+    /** Typical chart labels (tick labels, categories, titles). */
+    static final String[] LABELS = {"0", "25", "50.0", "1,234.5", "Q1 2024", "Revenue (EUR m)", "Jan", "Feb",
+        "Mar", "Sales by Region", "-12.5%", "Apr 2025", "Category 7", "Series 3", "1.0E-3", "Value"};
+
+    private static final int CELL_WIDTH = 110;
+
+    private static final int CELL_HEIGHT = 16;
+
+    /**
+     * Draws labels with a set of fonts, changing the font for each string.
+     */
+    static final class LabelWorkload implements Workload {
+
+        private final String name;
+
+        private final List<Font> fonts;
+
+        private final int strings;
+
+        LabelWorkload(String name, List<Font> fonts, int strings) {
+            this.name = name;
+            this.fonts = fonts;
+            this.strings = strings;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getUnit() {
+            return "glyphs";
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            g2.setPaint(Color.BLACK);
+            final int columns = Math.max(1, width / CELL_WIDTH);
+            final int rows = Math.max(1, height / CELL_HEIGHT);
+            long glyphs = 0L;
+            for (int i = 0; i < this.strings; i++) {
+                final String label = LABELS[i % LABELS.length];
+                g2.setFont(this.fonts.get(i % this.fonts.size()));
+                g2.drawString(label, 5 + (i % columns) * CELL_WIDTH,
+                        CELL_HEIGHT + ((i / columns) % rows) * CELL_HEIGHT);
+                glyphs += label.length();
+            }
+            return glyphs;
+        }
+    }
+
+    /**
+     * Draws attributed strings (the iterators are created for each call, as
+     * the tests do).
+     */
+    static final class AttributedWorkload implements Workload {
+
+        private final String name;
+
+        private final AttributedString[] text;
+
+        private final int[] lengths;
+
+        private final int strings;
+
+        AttributedWorkload(String name, AttributedString[] text, int strings) {
+            this.name = name;
+            this.text = text;
+            this.lengths = new int[text.length];
+            for (int i = 0; i < text.length; i++) {
+                this.lengths[i] = text[i].getIterator().getEndIndex();
+            }
+            this.strings = strings;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getUnit() {
+            return "glyphs";
+        }
+
+        @Override
+        public long run(Graphics2D g2, int width, int height) {
+            g2.setPaint(Color.BLACK);
+            final int columns = Math.max(1, width / (2 * CELL_WIDTH));
+            final int rows = Math.max(1, height / (CELL_HEIGHT + 4));
+            long glyphs = 0L;
+            for (int i = 0; i < this.strings; i++) {
+                final int k = i % this.text.length;
+                g2.drawString(this.text[k].getIterator(), 5 + (i % columns) * 2 * CELL_WIDTH,
+                        CELL_HEIGHT + ((i / columns) % rows) * (CELL_HEIGHT + 4));
+                glyphs += this.lengths[k];
+            }
+            return glyphs;
+        }
+    }
+
+    private TextBenchmark() {
+        // no-op
+    }
+
+    /**
+     * Returns a working set of distinct fonts: the logical font families and
+     * then the installed families (up to 8 families), in 4 styles and sizes
+     * from 8 to 39 points, varying the family first, then the style and then
+     * the size.
+     *
+     * @param count  the number of fonts (capped by the available combinations).
+     *
+     * @return The fonts.
+     */
+    static List<Font> createWorkingSet(int count) {
+        final List<String> families = new ArrayList<>(Arrays.asList(Font.SERIF, Font.SANS_SERIF, Font.MONOSPACED,
+                Font.DIALOG, Font.DIALOG_INPUT));
+        final List<String> installed = new ArrayList<>(Arrays.asList(
+                GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames(Locale.ROOT)));
+        installed.removeAll(families);
+        Collections.sort(installed);
+        for (int i = 0; families.size() < 8 && i < installed.size(); i++) {
+            families.add(installed.get(i));
+        }
+        final int[] styles = {Font.PLAIN, Font.BOLD, Font.ITALIC, Font.BOLD | Font.ITALIC};
+        final int n = Math.min(count, families.size() * styles.length * 32);
+        final List<Font> result = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            final String family = families.get(k % families.size());
+            final int style = styles[(k / families.size()) % styles.length];
+            final int size = 8 + (k / (families.size() * styles.length)) % 32;
+            result.add(new Font(family, style, size));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the workloads of the suite.
+     *
+     * @param strings  the number of strings per iteration.
+     *
+     * @return The workloads.
+     */
+    static List<Workload> createWorkloads(int strings) {
+        final List<Workload> result = new ArrayList<>();
+        for (int n : WORKING_SETS) {
+            result.add(new LabelWorkload("labels-ws" + n, createWorkingSet(n), strings));
+        }
+        final Font base = new Font(Font.SERIF, Font.PLAIN, 14);
+        final Object[][] attributes = {
+            {"tracking-loose", TextAttribute.TRACKING, TextAttribute.TRACKING_LOOSE},
+            {"tracking-tight", TextAttribute.TRACKING, TextAttribute.TRACKING_TIGHT},
+            {"kerning", TextAttribute.KERNING, TextAttribute.KERNING_ON},
+            {"ligatures", TextAttribute.LIGATURES, TextAttribute.LIGATURES_ON},
+            {"superscript", TextAttribute.SUPERSCRIPT, TextAttribute.SUPERSCRIPT_SUPER},
+            {"subscript", TextAttribute.SUPERSCRIPT, TextAttribute.SUPERSCRIPT_SUB},
+            {"underline", TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON},
+            {"strikethrough", TextAttribute.STRIKETHROUGH, TextAttribute.STRIKETHROUGH_ON}
+        };
+        result.add(new LabelWorkload("attr-none", Collections.singletonList(base), strings));
+        for (Object[] a : attributes) {
+            final Font font = base.deriveFont(Collections.singletonMap((TextAttribute) a[1], a[2]));
+            result.add(new LabelWorkload("attr-" + a[0], Collections.singletonList(font), strings));
+        }
+        result.add(new AttributedWorkload("attributed-styles", FontTests.createAttributedStrings(), strings));
+        result.add(new AttributedWorkload("attributed-colors", FontTests.createAttributedStrings2(), strings));
+        result.add(new AttributedWorkload("attributed-kerning", FontTests.createKerningStrings(), strings));
+        result.add(new AttributedWorkload("attributed-ligatures", FontTests.createLigatureStrings(), strings));
+        return result;
+    }
+
+    /**
+     * Prints, for each backend, the rate for each font working set relative
+     * to the single-font rate.
+     *
+     * @param results  the suite results.
+     */
+    static void printWorkingSetSummary(List<WorkloadRunner.Result> results) {
+        System.out.println("Font working set (glyphs/s relative to one font):");
+        double reference = Double.NaN;
+        for (WorkloadRunner.Result r : results) {
+            if (!r.workload.startsWith("labels-ws")) {
+                continue;
+            }
+            if (r.workload.equals("labels-ws1")) {
+                reference = r.getRate();
+            }
+            final double relative = r.getRate() / reference;
+            System.out.println(String.format(Locale.ROOT, "%-14s %-14s %14.0f %7.2f%s", r.backend, r.workload,
+                    r.getRate(), relative, relative < 0.5 ? "  <- glyph cache thrashing" : ""));
+        }
+    }
+
+    /**
+     * Runs the text suite.  The options are {@code --strings=N} (strings per
+     * iteration) and those of {@link WorkloadRunner#runSuite}; the report is
+     * written to {@code text.csv}.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int strings = DEFAULT_STRINGS;
+        final List<String> rest = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--strings=")) {
+                strings = Integer.parseInt(arg.substring("--strings=".length()));
+            } else {
+                rest.add(arg);
+            }
+        }
+        final List<WorkloadRunner.Result> results = WorkloadRunner.runSuite("text", createWorkloads(strings), rest);
+        printWorkingSetSummary(results);
+        System.exit(0);
+    }
+
+}
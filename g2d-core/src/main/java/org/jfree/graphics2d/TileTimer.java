@@ -0,0 +1,170 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records the time spent drawing each tile of the test sheet.  The tester
+ * calls {@link #enter(int, int)} each time it moves to a tile; the time until
+ * the next move is attributed to that tile (tiles that are visited more than
+ * once in a sheet accumulate their times).  The times are only meaningful for
+ * targets that draw synchronously, such as Java2D on a {@code BufferedImage}.
+ */
+public final class TileTimer {
+
+    /** The recorded samples (in nanoseconds, one per sheet) for each tile. */
+    private final Map<String, long[]> samples = new LinkedHashMap<>();
+
+    /** The tile times for the current sheet. */
+    private final Map<String, Long> current = new LinkedHashMap<>();
+
+    /** The number of completed sheets. */
+    private int sheets;
+
+    /** The current tile (null before the first move of a sheet). */
+    private String tile;
+
+    /** The time of the last move. */
+    private long last;
+
+    /**
+     * Creates a new timer.
+     */
+    public TileTimer() {
+        // no-op
+    }
+
+    /**
+     * Returns the key for a tile ("r" + row + "c" + column).
+     *
+     * @param tileX  the tile column.
+     * @param tileY  the tile row.
+     *
+     * @return The key.
+     */
+    static String key(int tileX, int tileY) {
+        return "r" + tileY + "c" + tileX;
+    }
+
+    /**
+     * Ends the current tile and starts timing the specified tile.
+     *
+     * @param tileX  the tile column.
+     * @param tileY  the tile row.
+     */
+    public void enter(int tileX, int tileY) {
+        final long now = System.nanoTime();
+        if (this.tile != null) {
+            this.current.merge(this.tile, now - this.last, Long::sum);
+        }
+        this.tile = key(tileX, tileY);
+        this.last = System.nanoTime();
+    }
+
+    /**
+     * Ends the current tile and stores the tile times of the sheet.
+     */
+    public void endSheet() {
+        if (this.tile != null) {
+            this.current.merge(this.tile, System.nanoTime() - this.last, Long::sum);
+        }
+        for (Map.Entry<String, Long> entry : this.current.entrySet()) {
+            long[] values = this.samples.get(entry.getKey());
+            if (values == null) {
+                values = new long[0];
+            }
+            values = Arrays.copyOf(values, values.length + 1);
+            values[values.length - 1] = entry.getValue();
+            this.samples.put(entry.getKey(), values);
+        }
+        this.current.clear();
+        this.tile = null;
+        this.sheets++;
+    }
+
+    /**
+     * Returns the number of completed sheets.
+     *
+     * @return The sheet count.
+     */
+    public int getSheetCount() {
+        return this.sheets;
+    }
+
+    /**
+     * Returns the keys of the tiles in drawing order.
+     *
+     * @return The tile keys.
+     */
+    public List<String> getTiles() {
+        return new ArrayList<>(this.samples.keySet());
+    }
+
+    /**
+     * Returns a percentile of the recorded times for a tile.
+     *
+     * @param tile  the tile key.
+     * @param p  the percentile (0 to 100).
+     *
+     * @return The percentile in milliseconds ({@code Double.NaN} if the tile
+     *     has no samples).
+     */
+    public double getPercentile(String tile, int p) {
+        final long[] values = this.samples.get(tile);
+        if (values == null) {
+            return Double.NaN;
+        }
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return 1e-6d * PhaseTimer.percentile(sorted, p);
+    }
+
+    /**
+     * Writes the tiles with the highest median times (with their p50 and p90
+     * times and their share of the sum of the tile medians) to
+     * {@code System.out}.
+     *
+     * @param title  the title of the report.
+     * @param limit  the maximum number of tiles to list.
+     */
+    public void printSummary(String title, int limit) {
+        final List<String> tiles = getTiles();
+        tiles.sort((a, b) -> Double.compare(getPercentile(b, 50), getPercentile(a, 50)));
+        double sum = 0.0;
+        for (String tile : tiles) {
+            sum += getPercentile(tile, 50);
+        }
+        System.out.println("Slowest tiles for " + title + " [ms] (" + this.sheets + " sheets):");
+        System.out.println(String.format(Locale.ROOT, "  %-8s %10s %10s %8s", "tile", "p50", "p90", "share"));
+        for (String tile : tiles.subList(0, Math.min(limit, tiles.size()))) {
+            final double p50 = getPercentile(tile, 50);
+            System.out.println(String.format(Locale.ROOT, "  %-8s %10.3f %10.3f %7.1f%%", tile, p50,
+                    getPercentile(tile, 90), sum > 0.0 ? 100.0 * p50 / sum : 0.0));
+        }
+    }
+
+    /**
+     * Writes one CSV row per tile with the columns tile, n, p50 and p90
+     * (times in milliseconds).
+     *
+     * @param out  the output.
+     */
+    public void writeCsv(PrintWriter out) {
+        for (Map.Entry<String, long[]> entry : this.samples.entrySet()) {
+            out.println(String.format(Locale.ROOT, "%s,%d,%.4f,%.4f", entry.getKey(),
+                    entry.getValue().length, getPercentile(entry.getKey(), 50),
+                    getPercentile(entry.getKey(), 90)));
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Graphics2D;
+
+/**
+ * A repeatable unit of work for a throughput benchmark (for example a few
+ * thousand strings, or a series of font metrics queries), run by the
+ * {@link WorkloadRunner} against each {@link Graphics2DBackend}.  A workload
+ * counts the units it has processed (glyphs, pixels, calls...), so that the
+ * runner can report a rate per backend.
+ */
+public interface Workload {
+
+    /**
+     * Returns a short identifier for the workload (used in the reports).
+     *
+     * @return The name.
+     */
+    String getName();
+
+    /**
+     * Returns the name of the units counted by {@link #run}, in the plural
+     * (for example "glyphs").
+     *
+     * @return The unit.
+     */
+    String getUnit();
+
+    /**
+     * Creates the inputs of the workload (fonts, images, shapes...).  This is
+     * called once before the first run and is not timed.
+     *
+     * @param tc  the tester context (holds the shared test images).
+     */
+    default void prepare(Tester.TesterContext tc) {
+        // no inputs
+    }
+
+    /**
+     * Creates the inputs that must be new for each run (for example fonts
+     * that no cache has seen yet).  This is called before every run, including
+     * the warmup runs, and is not timed.
+     */
+    default void prepareRun() {
+        // no inputs
+    }
+
+    /**
+     * Runs the workload once.
+     *
+     * @param g2  the graphics target.
+     * @param width  the width of the target.
+     * @param height  the height of the target.
+     *
+     * @return The number of units processed.
+     */
+    long run(Graphics2D g2, int width, int height);
+
+}
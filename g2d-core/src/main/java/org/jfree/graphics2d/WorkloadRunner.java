@@ -0,0 +1,343 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d;
+
+import java.awt.Graphics2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Runs {@link Workload}s against the backends and reports the throughput.
+ * Each iteration prepares the inputs of the run (untimed), resets the target, runs the workload on a copy of the
+ * graphics ({@code create()}, disposed after the workload, so that the
+ * hints, stroke, font, transform and clip a workload sets do not carry over
+ * to the next one on the backends that reuse their graphics), flushes and
+ * takes the snapshot (together the render time, so that deferred backends
+ * are charged for their work) and then encodes the output (the encode time and the
+ * output size are reported separately).  The bytes allocated by the calling
+ * thread during the workload itself are reported per unit.  The benchmark
+ * suites (for example {@link TextBenchmark}) build the workloads and call
+ * {@link #runSuite(String, List, List)}.
+ */
+public final class WorkloadRunner {
+
+    /** The default number of warmup iterations per workload. */
+    static final int DEFAULT_WARMUPS = 3;
+
+    /** The default number of measured iterations per workload. */
+    static final int DEFAULT_REPEATS = 10;
+
+    /** The sum of the values passed to {@link #consume(double)}. */
+    private static volatile double consumed;
+
+    /**
+     * The result for one backend and workload.
+     */
+    static final class Result {
+
+        final String backend;
+
+        final String workload;
+
+        final String unit;
+
+        /** The units processed per iteration. */
+        final long units;
+
+        /** The median render time (milliseconds). */
+        final double render;
+
+        /** The median encode time (milliseconds). */
+        final double encode;
+
+        /** The size of the encoded output. */
+        final long bytes;
+
+        /** The bytes allocated per unit (-1 if unknown). */
+        final double allocated;
+
+        Result(String backend, String workload, String unit, long units, double render, double encode, long bytes,
+                double allocated) {
+            this.backend = backend;
+            this.workload = workload;
+            this.unit = unit;
+            this.units = units;
+            this.render = render;
+            this.encode = encode;
+            this.bytes = bytes;
+            this.allocated = allocated;
+        }
+
+        /**
+         * Returns the units per second (from the median render time).
+         *
+         * @return The rate.
+         */
+        double getRate() {
+            return this.units / (this.render / 1000.0);
+        }
+    }
+
+    private WorkloadRunner() {
+        // no-op
+    }
+
+    /**
+     * Consumes a value derived from the results of a workload (for example
+     * the sum of the widths returned by the metrics queries), so that the JIT
+     * cannot eliminate the calls that produced it as dead code.  Call it once
+     * per run, with the values accumulated in a local variable.
+     *
+     * @param value  the value.
+     */
+    static void consume(double value) {
+        consumed += value;
+    }
+
+    /**
+     * Runs one workload against a backend (which must have been created).
+     *
+     * @param backend  the backend.
+     * @param workload  the workload (prepared).
+     * @param width  the target width.
+     * @param height  the target height.
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     *
+     * @return The result.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static Result run(Graphics2DBackend backend, Workload workload, int width, int height, int warmups,
+            int repeats) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 * 1024);
+        final long[] render = new long[repeats];
+        final long[] encode = new long[repeats];
+        long units = 0L;
+        long allocated = 0L;
+        for (int i = -warmups; i < repeats; i++) {
+            workload.prepareRun();
+            final Graphics2D g2 = (Graphics2D) backend.reset().create();
+            final long start = System.nanoTime();
+            final long allocStart = MemoryProbe.allocatedBytes();
+            units = workload.run(g2, width, height);
+            final long allocEnd = MemoryProbe.allocatedBytes();
+            // the copy is disposed outside the timed sections:
+            final long ran = System.nanoTime();
+            g2.dispose();
+            final long disposed = System.nanoTime();
+            backend.flush();
+            backend.snapshotPixels();
+            final long rendered = System.nanoTime();
+            bytes.reset();
+            backend.encode(bytes);
+            if (i >= 0) {
+                render[i] = (ran - start) + (rendered - disposed);
+                encode[i] = System.nanoTime() - rendered;
+                allocated = allocStart < 0L || allocated < 0L ? -1L : allocated + allocEnd - allocStart;
+            }
+        }
+        Arrays.sort(render);
+        Arrays.sort(encode);
+        return new Result(backend.getName(), workload.getName(), workload.getUnit(), units,
+                1e-6d * PhaseTimer.percentile(render, 50), 1e-6d * PhaseTimer.percentile(encode, 50),
+                bytes.size(), allocated < 0L || units == 0L ? -1.0 : (double) allocated / repeats / units);
+    }
+
+    /**
+     * Prints the results as a table.
+     *
+     * @param results  the results.
+     */
+    static void printTable(List<Result> results) {
+        System.out.println(String.format(Locale.ROOT, "%-14s %-28s %10s %12s %14s %11s %12s %10s",
+                "backend", "workload", "units", "render [ms]", "rate [1/s]", "enc [ms]", "bytes", "alloc/unit"));
+        for (Result r : results) {
+            System.out.println(String.format(Locale.ROOT, "%-14s %-28s %10d %12.3f %14.0f %11.3f %12d %10s",
+                    r.backend, r.workload, r.units, r.render, r.getRate(), r.encode, r.bytes,
+                    r.allocated < 0 ? "-" : String.format(Locale.ROOT, "%.1f", r.allocated)));
+        }
+    }
+
+    /**
+     * Prints one value for each workload (rows) and backend (columns), in
+     * the order of the results.  The columns are as wide as their longest
+     * value (at least 20 characters).
+     *
+     * @param results  the results.
+     * @param label  the heading of the workload column.
+     * @param value  the text of the cell for a result.
+     */
+    static void printPivot(List<Result> results, String label, Function<Result, String> value) {
+        final List<String> backends = new ArrayList<>();
+        final Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        int first = label.length();
+        int width = 20;
+        for (Result r : results) {
+            if (!backends.contains(r.backend)) {
+                backends.add(r.backend);
+                width = Math.max(width, r.backend.length());
+            }
+            final String cell = value.apply(r);
+            rows.computeIfAbsent(r.workload, k -> new LinkedHashMap<>()).put(r.backend, cell);
+            first = Math.max(first, r.workload.length());
+            width = Math.max(width, cell.length());
+        }
+        final String firstFormat = "%-" + first + "s";
+        final String cellFormat = " %" + width + "s";
+        final StringBuilder header = new StringBuilder(String.format(Locale.ROOT, firstFormat, label));
+        for (String backend : backends) {
+            header.append(String.format(Locale.ROOT, cellFormat, backend));
+        }
+        System.out.println(header);
+        for (Map.Entry<String, Map<String, String>> entry : rows.entrySet()) {
+            final StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, firstFormat, entry.getKey()));
+            for (String backend : backends) {
+                sb.append(String.format(Locale.ROOT, cellFormat, entry.getValue().getOrDefault(backend, "-")));
+            }
+            System.out.println(sb);
+        }
+    }
+
+    /**
+     * Writes the results as CSV.
+     *
+     * @param results  the results.
+     * @param path  the report file.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static void writeReport(List<Result> results, Path path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("backend,workload,unit,units,render_p50,rate,encode_p50,bytes,alloc_per_unit");
+            for (Result r : results) {
+                out.println(String.format(Locale.ROOT, "%s,%s,%s,%d,%.4f,%.1f,%.4f,%d,%.2f", r.backend, r.workload,
+                        r.unit, r.units, r.render, r.getRate(), r.encode, r.bytes, r.allocated));
+            }
+        }
+    }
+
+    /**
+     * Returns the backends with the specified names.
+     *
+     * @param names  the backend names (all available backends if empty).
+     *
+     * @return The backends.
+     */
+    static List<Graphics2DBackend> selectBackends(List<String> names) {
+        if (names.isEmpty()) {
+            return BenchmarkHarness.loadBackends();
+        }
+        final List<Graphics2DBackend> result = new ArrayList<>();
+        for (String name : names) {
+            result.add(BenchmarkHarness.findBackend(name));
+        }
+        return result;
+    }
+
+    /**
+     * Runs a suite of workloads against the selected backends, prints the
+     * results and writes them to {@code <suite>.csv}.  The arguments are
+     * backend names (all available backends if none are given) and the
+     * options {@code --warmup=N}, {@code --repeats=N} and
+     * {@code --only=text} (run only the workloads whose name contains the
+     * text).  The suites parse their own options first and pass the rest.
+     *
+     * @param suite  the suite name.
+     * @param workloads  the workloads.
+     * @param args  the remaining command line arguments.
+     *
+     * @return The results (grouped by backend, in the order of the workloads).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static List<Result> runSuite(String suite, List<? extends Workload> workloads, List<String> args)
+            throws IOException {
+        return runSuite(suite, workloads, args, DEFAULT_WARMUPS, DEFAULT_REPEATS, null);
+    }
+
+    /**
+     * Runs a suite of workloads against the selected backends, as
+     * {@link #runSuite(String, List, List)} does, with other default
+     * iteration counts and a rule that can skip a workload on a backend (for
+     * example when the previous results project an iteration that is too
+     * long).
+     *
+     * @param suite  the suite name.
+     * @param workloads  the workloads.
+     * @param args  the remaining command line arguments.
+     * @param warmups  the number of warmup iterations (unless {@code --warmup} is given).
+     * @param repeats  the number of measured iterations (unless {@code --repeats} is given).
+     * @param skip  returns {@code true} to skip a workload, given the results
+     *     of the current backend so far ({@code null} permitted).
+     *
+     * @return The results (grouped by backend, in the order of the workloads).
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static List<Result> runSuite(String suite, List<? extends Workload> workloads, List<String> args, int warmups,
+            int repeats, BiPredicate<Workload, List<Result>> skip) throws IOException {
+        String only = null;
+        final List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--warmup=")) {
+                warmups = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--repeats=")) {
+                repeats = Integer.parseInt(arg.substring("--repeats=".length()));
+            } else if (arg.startsWith("--only=")) {
+                only = arg.substring("--only=".length());
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            } else {
+                names.add(arg);
+            }
+        }
+        final List<Graphics2DBackend> backends = selectBackends(names);
+        final Tester.TesterContext tc = Tester.prepareTestOutput("(" + suite + ")", ComparisonRunner.LINK, false);
+        final List<Workload> selected = new ArrayList<>();
+        for (Workload workload : workloads) {
+            if (only == null || workload.getName().contains(only)) {
+                workload.prepare(tc);
+                selected.add(workload);
+            }
+        }
+        final int width = Tester.getTestSheetWidth();
+        final int height = Tester.getTestSheetHeight();
+        final List<Result> results = new ArrayList<>();
+        for (Graphics2DBackend backend : backends) {
+            System.out.println("Running the " + suite + " suite on " + backend.getName());
+            final List<Result> backendResults = new ArrayList<>();
+            backend.create(width, height);
+            try {
+                for (Workload workload : selected) {
+                    if (skip == null || !skip.test(workload, backendResults)) {
+                        backendResults.add(run(backend, workload, width, height, warmups, repeats));
+                    }
+                }
+            } finally {
+                backend.dispose();
+            }
+            results.addAll(backendResults);
+        }
+        printTable(results);
+        writeReport(results, Paths.get(suite + ".csv"));
+        return results;
+    }
+
+}
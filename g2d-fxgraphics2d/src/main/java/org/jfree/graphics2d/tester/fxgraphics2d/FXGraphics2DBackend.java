@@ -0,0 +1,149 @@
+package org.jfree.graphics2d.tester.fxgraphics2d;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javafx.application.Platform;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javax.imageio.ImageIO;
+import org.jfree.fx.FXGraphics2D;
+import org.jfree.graphics2d.Graphics2DBackend;
+import org.jfree.graphics2d.ParallelPngEncoder;
+
+/**
+ * The FXGraphics2D backend, drawing to an off-screen JavaFX {@code Canvas}.
+ * The JavaFX platform is started on first use.  The canvas is not part of a
+ * live scene, so the drawing can be done on the calling thread; the canvas
+ * content is only rasterized by the snapshot (on the FX application thread),
+ * which is why the flush hook does nothing.
+ */
+public class FXGraphics2DBackend implements Graphics2DBackend {
+
+    private Canvas canvas;
+
+    private FXGraphics2D g2;
+
+    private WritableImage fxImage;
+
+    private BufferedImage pixels;
+
+    /** The PNG encoder ({@code null} to use ImageIO), closed by {@link #dispose()}. */
+    private ParallelPngEncoder pngEncoder;
+
+    /**
+     * Default constructor (used by the service loader).
+     */
+    public FXGraphics2DBackend() {
+        // no-op
+    }
+
+    @Override
+    public String getName() {
+        return "fxgraphics2d";
+    }
+
+    @Override
+    public String getDescription() {
+        return "JFree/FXGraphics2D (2.1.5)";
+    }
+
+    @Override
+    public String getLink() {
+        return "https://github.com/jfree/fxgraphics2d";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "png";
+    }
+
+    @Override
+    public void create(int width, int height) {
+        startPlatform();
+        this.canvas = new Canvas(width, height);
+        this.g2 = new FXGraphics2D(this.canvas.getGraphicsContext2D());
+        this.g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        this.fxImage = new WritableImage(width, height);
+        this.pngEncoder = ParallelPngEncoder.fromSystemProperty();
+    }
+
+    @Override
+    public Graphics2D reset() {
+        final GraphicsContext gc = this.canvas.getGraphicsContext2D();
+        // a full clear also discards the buffered commands of the last iteration:
+        gc.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
+        return this.g2;
+    }
+
+    @Override
+    public void flush() {
+        // the canvas is rendered by the snapshot
+    }
+
+    @Override
+    public BufferedImage snapshotPixels() {
+        runOnFXThread(() -> this.canvas.snapshot(new SnapshotParameters(), this.fxImage));
+        this.pixels = SwingFXUtils.fromFXImage(this.fxImage, this.pixels);
+        return this.pixels;
+    }
+
+    @Override
+    public void encode(OutputStream out) throws IOException {
+        if (this.pngEncoder != null) {
+            this.pngEncoder.encode(this.pixels, out);
+        } else {
+            ImageIO.write(this.pixels, "png", out);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        this.g2 = null;
+        this.canvas = null;
+        this.fxImage = null;
+        this.pixels = null;
+        if (this.pngEncoder != null) {
+            // the encoder owns a thread pool and native deflaters:
+            this.pngEncoder.close();
+            this.pngEncoder = null;
+        }
+    }
+
+    private static void startPlatform() {
+        try {
+            Platform.startup(() -> Platform.setImplicitExit(false));
+        } catch (IllegalStateException ise) {
+            // the platform is already running
+        }
+    }
+
+    private static void runOnFXThread(Runnable task) {
+        if (Platform.isFxApplicationThread()) {
+            task.run();
+            return;
+        }
+        final FutureTask<Void> future = new FutureTask<>(task, null);
+        Platform.runLater(future);
+        try {
+            future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ie);
+        } catch (ExecutionException ee) {
+            throw new RuntimeException(ee.getCause());
+        }
+    }
+
+}
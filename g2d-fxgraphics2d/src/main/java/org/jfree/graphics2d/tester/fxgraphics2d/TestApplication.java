@@ -10,12 +10,16 @@ import javafx.scene.image.WritableImage;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import org.jfree.fx.FXGraphics2D;
+import org.jfree.graphics2d.OutputSink;
+import org.jfree.graphics2d.ParallelPngEncoder;
+import org.jfree.graphics2d.PhaseTimer;
 import org.jfree.graphics2d.Tester;
 
 import javax.imageio.ImageIO;
-import java.awt.image.RenderedImage;
-import java.io.File;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Locale;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
@@ -33,6 +37,12 @@ public class TestApplication extends Application {
         private final Tester.TesterContext tc;
         private boolean saveFirst = true;
 
+        private final PhaseTimer timer = new PhaseTimer("FXGraphics2D");
+
+        private final OutputSink sink = OutputSink.fromSystemProperty();
+
+        private final ParallelPngEncoder pngEncoder = ParallelPngEncoder.fromSystemProperty();
+
         private final FXGraphics2D g2;
 
         MyCanvas() {
@@ -42,15 +52,17 @@ public class TestApplication extends Application {
                     RenderingHints.VALUE_ANTIALIAS_ON);
 
             // Prepare context:
+            this.timer.start();
             this.tc = Tester.prepareTestOutput(
                     "JFree/FXGraphics2D (2.1.5)",
                     "https://github.com/jfree/fxgraphics2d", single);
+            this.timer.mark(PhaseTimer.Phase.PREPARE);
         }
 
         int nFrame = 0;
 
         void draw() {
-            final long startTime = System.nanoTime();
+            timer.start();
 
             final GraphicsContext gc = getGraphicsContext2D();
             gc.save();
@@ -62,28 +74,45 @@ public class TestApplication extends Application {
                 gc.setFill(((nFrame++) % 2 == 0) ? Color.WHITE : Color.GREEN);
                 gc.fillRect(0, 0, width, height);
             }
+            timer.mark(PhaseTimer.Phase.CLEAR);
 
             Tester.drawTestOutput(tc, g2);
 
             gc.restore();
+            timer.mark(PhaseTimer.Phase.DRAW);
+            timer.split(PhaseTimer.Phase.DRAW, PhaseTimer.Phase.SWING, tc.getSwingPaintNanos());
 
-            // TODO: sync ?
+            // TODO: sync ? (the canvas is rendered on the next pulse, no flush phase)
             // image is ready
-            final double elapsedTime = 1e-6d * (System.nanoTime() - startTime);
-            System.out.println("drawTestOutput(FXGraphics2D) duration = " + elapsedTime + " ms.");
 
+            // the output is only saved for the first frame (to keep the animation running):
             if (saveFirst) {
                 saveFirst = false;
 
                 final WritableImage writableImage = pixelScaleAwareCanvasSnapshot(this, 1.0);
+                final BufferedImage renderedImage = SwingFXUtils.fromFXImage(writableImage, null);
+                timer.mark(PhaseTimer.Phase.SNAPSHOT);
 
-                final RenderedImage renderedImage = SwingFXUtils.fromFXImage(writableImage, null);
                 try {
-                    ImageIO.write(renderedImage, "png", new File("fxgraphics2d.png"));
+                    final ByteArrayOutputStream pngBytes = new ByteArrayOutputStream(1024 * 1024);
+                    if (pngEncoder != null) {
+                        pngEncoder.encode(renderedImage, pngBytes);
+                    } else {
+                        ImageIO.write(renderedImage, "png", pngBytes);
+                    }
+                    timer.mark(PhaseTimer.Phase.ENCODE);
+
+                    sink.write(pngBytes, Paths.get("fxgraphics2d.png"));
+                    timer.mark(PhaseTimer.Phase.WRITE);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
             }
+            timer.endIteration();
+        }
+
+        void printSummary() {
+            timer.printSummary();
         }
 
         public static WritableImage pixelScaleAwareCanvasSnapshot(Canvas canvas, double pixelScale) {
@@ -113,10 +142,13 @@ public class TestApplication extends Application {
 
     private AnimationTimer timer = null;
 
+    private MyCanvas canvas = null;
+
     @Override
     public void start(Stage stage) throws Exception {
         StackPane stackPane = new StackPane();
         MyCanvas canvas = new MyCanvas();
+        this.canvas = canvas;
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setCache(false);
         scrollPane.setContent(canvas);
@@ -166,6 +198,9 @@ public class TestApplication extends Application {
     public void stop() {
         System.out.println("Stop application ...");
         timer.stop();
+        if (canvas != null) {
+            canvas.printSummary();
+        }
         Platform.runLater(() -> System.exit(0));
         Platform.exit();
     }
@@ -0,0 +1,248 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d.tester.jfreepdf;
+
+import org.jfree.graphics2d.CompressedOutput;
+import org.jfree.graphics2d.Graphics2DBackend;
+import org.jfree.pdf.PDFDocument;
+import org.jfree.pdf.PDFGraphics2D;
+import org.jfree.pdf.Page;
+import org.jfree.pdf.filter.Filter;
+import org.jfree.pdf.filter.FilterType;
+import org.jfree.pdf.stream.Stream;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The JFreePDF backend.  A fresh {@code PDFDocument} with a single page is
+ * created for each iteration.  The document is serialized in a single step,
+ * so the snapshot hook does nothing and all the work is done in
+ * {@link #encode(OutputStream)}.
+ * <p>
+ * With a compression level (see {@link #setCompressionLevel(int)}) the page
+ * content stream is deflated at that level by a reused {@code Deflater}
+ * instead of the library's default filter.  JFreePDF adds the filters for
+ * images internally, so they are always compressed at the default level.
+ */
+public class JFreePDFBackend implements Graphics2DBackend, CompressedOutput {
+
+    /** The end of a stream dictionary and the "stream" keyword with its end of line. */
+    private static final Pattern STREAM = Pattern.compile(">>\\s*stream\\r?\\n");
+
+    /** The /Length entry of a stream dictionary (the second group matches an indirect reference). */
+    private static final Pattern LENGTH = Pattern.compile("/Length\\s+(\\d+)(\\s+\\d+\\s+R)?");
+
+    /** The "endstream" keyword after the stream data. */
+    private static final Pattern END_STREAM = Pattern.compile("\\s*endstream");
+
+    private int width;
+
+    private int height;
+
+    private PDFDocument pdfDoc;
+
+    private int compressionLevel = DEFAULT_LEVEL;
+
+    private DeflateFilter filter;
+
+    /**
+     * Default constructor (used by the service loader).
+     */
+    public JFreePDFBackend() {
+        // no-op
+    }
+
+    @Override
+    public String getName() {
+        return "jfreepdf";
+    }
+
+    @Override
+    public String getDescription() {
+        return "JFree/PDFGraphics2D (v2.0.1)";
+    }
+
+    @Override
+    public String getLink() {
+        return "https://github.com/jfree/jfreepdf";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "pdf";
+    }
+
+    @Override
+    public int getCompressionLevel() {
+        return this.compressionLevel;
+    }
+
+    @Override
+    public void setCompressionLevel(int level) {
+        if (level != DEFAULT_LEVEL && (level < 0 || level > 9)) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.compressionLevel = level;
+    }
+
+    @Override
+    public void create(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public Graphics2D reset() {
+        this.pdfDoc = new PDFDocument();
+        if (this.compressionLevel == DEFAULT_LEVEL) {
+            return this.pdfDoc.createPage(new Rectangle(this.width, this.height)).getGraphics2D();
+        }
+        // in debug mode the page content stream has no filter:
+        this.pdfDoc.setDebugMode(true);
+        final Page page = this.pdfDoc.createPage(new Rectangle(this.width, this.height));
+        if (this.filter == null) {
+            this.filter = new DeflateFilter();
+        }
+        this.filter.deflater.setLevel(this.compressionLevel);
+        ((Stream) page.getContents()).addFilter(this.filter);
+        final PDFGraphics2D g2 = page.getGraphics2D();
+        return g2;
+    }
+
+    @Override
+    public void flush() {
+        // PDFGraphics2D draws synchronously
+    }
+
+    @Override
+    public BufferedImage snapshotPixels() {
+        return null;
+    }
+
+    @Override
+    public void encode(OutputStream out) throws IOException {
+        out.write(this.pdfDoc.getPDFBytes());
+    }
+
+    /**
+     * Inflates all the Flate-encoded streams in the document (the content
+     * stream and the images).  The data of each stream is located with the
+     * direct {@code /Length} entry of its dictionary, which must be followed
+     * by the "endstream" keyword.
+     *
+     * @param encoded  the PDF bytes.
+     *
+     * @return The number of bytes after inflating the streams.
+     *
+     * @throws IOException if the streams cannot be located or a stream cannot
+     *     be inflated.
+     */
+    @Override
+    public long decode(byte[] encoded) throws IOException {
+        // the PDF syntax is ASCII, so ISO-8859-1 maps the bytes to the same offsets:
+        final String text = new String(encoded, StandardCharsets.ISO_8859_1);
+        final Inflater inflater = new Inflater();
+        final byte[] buffer = new byte[64 * 1024];
+        long result = encoded.length;
+        int streams = 0;
+        try {
+            final Matcher stream = STREAM.matcher(text);
+            int dictStart = 0;
+            while (stream.find(dictStart)) {
+                final int dataStart = stream.end();
+                final String dict = text.substring(dictStart, stream.start());
+                final Matcher m = LENGTH.matcher(dict);
+                int length = -1;
+                while (m.find()) {
+                    if (m.group(2) != null) {
+                        throw new IOException("Indirect /Length not supported at offset " + dataStart);
+                    }
+                    length = Integer.parseInt(m.group(1));
+                }
+                if (length < 0 || dataStart + length > encoded.length) {
+                    throw new IOException("No valid /Length for the stream at offset " + dataStart);
+                }
+                final Matcher end = END_STREAM.matcher(text).region(dataStart + length, text.length());
+                if (!end.lookingAt()) {
+                    throw new IOException("No endstream after /Length " + length + " at offset " + dataStart);
+                }
+                dictStart = end.end();
+                streams++;
+                if (!dict.contains("/FlateDecode")) {
+                    continue;
+                }
+                inflater.reset();
+                inflater.setInput(encoded, dataStart, length);
+                while (!inflater.finished()) {
+                    final int n = inflater.inflate(buffer);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Truncated stream at offset " + dataStart);
+                    }
+                    result += n;
+                }
+                result -= length;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+        if (streams == 0) {
+            throw new IOException("No stream found in the document");
+        }
+        return result;
+    }
+
+    @Override
+    public void dispose() {
+        this.pdfDoc = null;
+        if (this.filter != null) {
+            this.filter.deflater.end();
+            this.filter = null;
+        }
+    }
+
+    /**
+     * A Flate filter with a selectable level (JFreePDF's own filter uses the
+     * default level and a new {@code Deflater} for each stream).
+     */
+    private static final class DeflateFilter implements Filter {
+
+        private final Deflater deflater = new Deflater();
+
+        private final byte[] buffer = new byte[64 * 1024];
+
+        @Override
+        public FilterType getFilterType() {
+            return FilterType.FLATE;
+        }
+
+        @Override
+        public byte[] encode(byte[] source) {
+            this.deflater.reset();
+            this.deflater.setInput(source);
+            this.deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, source.length / 4));
+            while (!this.deflater.finished()) {
+                final int n = this.deflater.deflate(this.buffer);
+                out.write(this.buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d.tester.jfreepdf;
+
+import org.jfree.graphics2d.MemoryProbe;
+import org.jfree.graphics2d.OutputSink;
+import org.jfree.graphics2d.SheetGrid;
+import org.jfree.graphics2d.Tester;
+import org.jfree.pdf.PDFDocument;
+import org.jfree.pdf.Page;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the test sheet onto N pages of one {@code PDFDocument} (a batch,
+ * like a multi-page report) and reports the total time, the time per page,
+ * the file size and the peak and live heap (see {@link MemoryProbe}), so
+ * that the growth of memory with the page count can be checked.  The
+ * output is also analysed for duplicated resources: the image and font
+ * objects are counted and compared by content, which shows how much of the
+ * file is taken by copies of the motorcycle image and the fonts that are
+ * repeated on every page.  The report is written to
+ * {@code pdf-batch.csv}.  Each page holds the grid selected by the system
+ * property "tester.grid" (see {@link SheetGrid#fromSystemProperty()}).
+ */
+public class JFreePDFBatchRunner {
+
+    /** The start of an indirect object. */
+    private static final Pattern OBJECT = Pattern.compile("(?m)^\\d+ 0 obj\\n");
+
+    /** An indirect reference (ignored when comparing objects). */
+    private static final Pattern REFERENCE = Pattern.compile("\\d+ 0 R");
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    /** The columns of the report. */
+    private static final String HEADER = "pages,total_s,page_ms,bytes,peak_heap,live_heap,gc_count,gc_time,images,"
+            + "unique_images,duplicate_image_bytes,fonts,unique_fonts,duplicate_font_bytes";
+
+    /**
+     * The objects of one kind in a document.
+     */
+    static final class ResourceStats {
+
+        /** The number of objects. */
+        int count;
+
+        /** The number of objects with distinct content. */
+        int unique;
+
+        /** The total size of the objects. */
+        long bytes;
+
+        /** The size of the objects that duplicate an earlier object. */
+        long duplicateBytes;
+    }
+
+    /**
+     * Renders one batch (call {@code System.gc()} first, for comparable
+     * memory figures).
+     *
+     * @param tc  the tester context.
+     * @param pages  the number of pages.
+     * @param sink  the output sink.
+     * @param probe  the memory probe (measures the rendering and the output).
+     *
+     * @return The PDF bytes.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static byte[] renderBatch(Tester.TesterContext tc, int pages, OutputSink sink, MemoryProbe probe)
+            throws IOException {
+        final Rectangle bounds = new Rectangle(tc.getGrid().getWidth(), tc.getGrid().getHeight());
+        probe.start();
+        try {
+            PDFDocument pdfDoc = new PDFDocument();
+            for (int i = 0; i < pages; i++) {
+                final Page page = pdfDoc.createPage(bounds);
+                Tester.drawTestOutput(tc, page.getGraphics2D());
+            }
+            final byte[] bytes = pdfDoc.getPDFBytes();
+            pdfDoc = null;
+            try (OutputStream out = sink.open(Paths.get("jfreepdf-batch-" + pages + ".pdf"))) {
+                out.write(bytes);
+            }
+            return bytes;
+        } finally {
+            probe.stop();
+        }
+    }
+
+    /**
+     * Counts the image and font objects in a PDF file, and compares them by
+     * content (ignoring the object references they contain).
+     *
+     * @param pdf  the PDF bytes.
+     *
+     * @return The image statistics (index 0) and the font statistics (index 1).
+     */
+    static ResourceStats[] analyse(byte[] pdf) {
+        // the PDF syntax is ASCII, so ISO-8859-1 maps the bytes to the same offsets:
+        final String text = new String(pdf, StandardCharsets.ISO_8859_1);
+        final ResourceStats images = new ResourceStats();
+        final ResourceStats fonts = new ResourceStats();
+        final Set<String> seen = new HashSet<>();
+        final Matcher m = OBJECT.matcher(text);
+        int start = m.find() ? m.end() : -1;
+        while (start >= 0) {
+            final int next = m.find() ? m.start() : -1;
+            final String body = text.substring(start, next >= 0 ? next : text.length());
+            final int dictEnd = body.indexOf(">>");
+            final String dict = dictEnd >= 0 ? body.substring(0, dictEnd) : body;
+            final ResourceStats stats = dict.contains("/Subtype /Image") ? images
+                    : dict.contains("/Type /Font") ? fonts : null;
+            if (stats != null) {
+                stats.count++;
+                stats.bytes += body.length();
+                if (seen.add(sha256(REFERENCE.matcher(body).replaceAll("R")))) {
+                    stats.unique++;
+                } else {
+                    stats.duplicateBytes += body.length();
+                }
+            }
+            start = next >= 0 ? m.end() : -1;
+        }
+        return new ResourceStats[] {images, fonts};
+    }
+
+    private static String sha256(String s) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final StringBuilder sb = new StringBuilder(64);
+            for (byte b : digest.digest(s.getBytes(StandardCharsets.ISO_8859_1))) {
+                sb.append(String.format("%02x", b & 0xFF));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the report row of a batch that ran out of memory ("OOM" and
+     * empty fields for the remaining columns).
+     *
+     * @param pages  the number of pages.
+     *
+     * @return The row.
+     */
+    static String oomRow(int pages) {
+        final StringBuilder sb = new StringBuilder().append(pages).append(",OOM");
+        for (int i = 2; i < HEADER.split(",").length; i++) {
+            sb.append(',');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Runs the batches.  The options are {@code --pages=10,100,1000} (the
+     * page counts) and {@code --sink=name} (see {@link OutputSink#NAMES}).  A
+     * batch that runs out of memory is reported as "OOM" and ends the run.
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        String pageCounts = "10,100,1000";
+        String sinkName = System.getProperty(OutputSink.PROPERTY, "file");
+        for (String arg : args) {
+            if (arg.startsWith("--pages=")) {
+                pageCounts = arg.substring("--pages=".length());
+            } else if (arg.startsWith("--sink=")) {
+                sinkName = arg.substring("--sink=".length());
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        final JFreePDFBackend backend = new JFreePDFBackend();
+        final Tester.TesterContext tc = Tester.prepareTestOutput(backend.getDescription(), backend.getLink(), false);
+        tc.setGrid(SheetGrid.fromSystemProperty());
+        final MemoryProbe probe = new MemoryProbe();
+
+        // one untimed page to load the classes and fill the caches:
+        System.gc();
+        renderBatch(tc, 1, OutputSink.create("discard"), probe);
+
+        final List<String> rows = new ArrayList<>();
+        System.out.println(String.format(Locale.ROOT, "%6s %10s %10s %12s %10s %10s %6s %14s %14s",
+                "pages", "total [s]", "page [ms]", "bytes", "peak [MB]", "live [MB]", "gc",
+                "images (uniq)", "fonts (uniq)"));
+        for (String spec : pageCounts.split(",")) {
+            final int pages = Integer.parseInt(spec.trim());
+            final OutputSink sink = OutputSink.create(sinkName);
+            // the collection is not part of the batch time:
+            System.gc();
+            final long start = System.nanoTime();
+            final byte[] pdf;
+            final double seconds;
+            final ResourceStats[] stats;
+            try {
+                pdf = renderBatch(tc, pages, sink, probe);
+                seconds = 1e-9d * (System.nanoTime() - start);
+                // the analysis copies the file into a string, so it can also run out of memory:
+                stats = analyse(pdf);
+            } catch (OutOfMemoryError e) {
+                System.out.println(String.format(Locale.ROOT, "%6d  OOM (max heap %.0f MB)", pages,
+                        Runtime.getRuntime().maxMemory() / MB));
+                rows.add(oomRow(pages));
+                break;
+            }
+            System.out.println(String.format(Locale.ROOT, "%6d %10.2f %10.2f %12d %10.1f %10.1f %6d %14s %14s",
+                    pages, seconds, 1000.0 * seconds / pages, pdf.length, probe.getPeakHeap() / MB,
+                    probe.getMaxLiveHeap() / MB, probe.getGcCount(),
+                    stats[0].count + " (" + stats[0].unique + ")", stats[1].count + " (" + stats[1].unique + ")"));
+            rows.add(String.format(Locale.ROOT, "%d,%.4f,%.4f,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d", pages, seconds,
+                    1000.0 * seconds / pages, pdf.length, probe.getPeakHeap(), probe.getMaxLiveHeap(),
+                    probe.getGcCount(), probe.getGcTime(), stats[0].count, stats[0].unique,
+                    stats[0].duplicateBytes, stats[1].count, stats[1].unique, stats[1].duplicateBytes));
+        }
+        final Path report = Paths.get("pdf-batch.csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+            out.println(HEADER);
+            rows.forEach(out::println);
+        }
+        System.exit(0);
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d.tester.jfreesvg;
+
+import org.jfree.graphics2d.CompressedOutput;
+import org.jfree.graphics2d.Graphics2DBackend;
+import org.jfree.svg.SVGGraphics2D;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The JFreeSVG backend.  A fresh {@code SVGGraphics2D} is created for each
+ * iteration (the SVG element cannot be reset).
+ * <p>
+ * In the default (string) mode the document is built with
+ * {@code getSVGDocument()} and encoded with {@code String.getBytes()}, so
+ * the whole document exists several times over (the growing builders, the
+ * element and document strings and the byte array).  In streaming mode (see
+ * {@link JFreeSVGStreamingBackend}) the content is drawn into a
+ * {@code StringBuilder} that is reused across iterations, only the SVG element
+ * is built as a string, and it is encoded to the output stream in small
+ * chunks.  JFreeSVG has no API to write the element to a stream, so this is
+ * as close to streaming as the library allows.
+ * <p>
+ * With a compression level (see {@link #setCompressionLevel(int)}) the
+ * output is gzipped SVG (SVGZ).
+ */
+public class JFreeSVGBackend implements Graphics2DBackend, CompressedOutput {
+
+    /** The XML declaration and DOCTYPE written by getSVGDocument(). */
+    private static final String DOCUMENT_HEADER = "<?xml version=\"1.0\"?>\n"
+            + "<!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.0//EN\" "
+            + "\"http://www.w3.org/TR/2001/REC-SVG-20010904/DTD/svg10.dtd\">\n";
+
+    /** The number of characters encoded at a time in streaming mode. */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * A gzip stream with a compression level, that can release the native
+     * memory of its {@code Deflater} without closing the target stream
+     * ({@code close()} would).
+     */
+    private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+
+        LevelGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 64 * 1024);
+            this.def.setLevel(level);
+        }
+
+        /**
+         * Releases the {@code Deflater} (call after {@code finish()}).
+         */
+        void end() {
+            this.def.end();
+        }
+    }
+
+    private final boolean streaming;
+
+    private int compressionLevel = DEFAULT_LEVEL;
+
+    private int width;
+
+    private int height;
+
+    private SVGGraphics2D g2;
+
+    /** The document (string mode) or the SVG element (streaming mode). */
+    private String svg;
+
+    /** The reusable content buffer (streaming mode only). */
+    private StringBuilder content;
+
+    /** The reusable encoding buffer (streaming mode only). */
+    private char[] chunk;
+
+    /**
+     * Default constructor (used by the service loader).
+     */
+    public JFreeSVGBackend() {
+        this(false);
+    }
+
+    /**
+     * Creates a backend.
+     *
+     * @param streaming  stream the output (see the class description)?
+     */
+    protected JFreeSVGBackend(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Returns {@code true} if the output is streamed.
+     *
+     * @return A boolean.
+     */
+    public boolean isStreaming() {
+        return this.streaming;
+    }
+
+    @Override
+    public String getName() {
+        return this.streaming ? "jfreesvg-stream" : "jfreesvg";
+    }
+
+    @Override
+    public String getDescription() {
+        return "JFree/SVGGraphics2D (5.0.7)";
+    }
+
+    @Override
+    public String getLink() {
+        return "https://github.com/jfree/jfreesvg";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return this.compressionLevel == DEFAULT_LEVEL ? "svg" : "svgz";
+    }
+
+    @Override
+    public int getCompressionLevel() {
+        return this.compressionLevel;
+    }
+
+    @Override
+    public void setCompressionLevel(int level) {
+        if (level != DEFAULT_LEVEL && (level < 0 || level > 9)) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.compressionLevel = level;
+    }
+
+    @Override
+    public void create(int width, int height) {
+        this.width = width;
+        this.height = height;
+        if (this.streaming) {
+            this.content = new StringBuilder();
+            this.chunk = new char[CHUNK_SIZE];
+        }
+    }
+
+    @Override
+    public Graphics2D reset() {
+        this.svg = null;
+        if (this.streaming) {
+            // the buffer keeps its capacity, so it only grows in the first iteration:
+            this.content.setLength(0);
+            this.g2 = new SVGGraphics2D(this.width, this.height, null, this.content);
+        } else {
+            this.g2 = new SVGGraphics2D(this.width, this.height);
+        }
+        return this.g2;
+    }
+
+    @Override
+    public void flush() {
+        // SVGGraphics2D draws synchronously
+    }
+
+    @Override
+    public BufferedImage snapshotPixels() {
+        this.svg = this.streaming ? this.g2.getSVGElement() : this.g2.getSVGDocument();
+        return null;
+    }
+
+    @Override
+    public void encode(OutputStream out) throws IOException {
+        if (this.compressionLevel == DEFAULT_LEVEL) {
+            write(out);
+            return;
+        }
+        final LevelGZIPOutputStream gzip = new LevelGZIPOutputStream(out, this.compressionLevel);
+        try {
+            write(gzip);
+            gzip.finish();
+        } finally {
+            gzip.end();
+        }
+    }
+
+    private void write(OutputStream out) throws IOException {
+        if (!this.streaming) {
+            out.write(this.svg.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        // Writer.write(String) would copy the whole string into a char array,
+        // so the element is passed to the encoder in chunks:
+        final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(DOCUMENT_HEADER);
+        final int length = this.svg.length();
+        for (int start = 0; start < length; start += CHUNK_SIZE) {
+            final int end = Math.min(length, start + CHUNK_SIZE);
+            this.svg.getChars(start, end, this.chunk, 0);
+            writer.write(this.chunk, 0, end - start);
+        }
+        writer.write('\n');
+        writer.flush();
+    }
+
+    @Override
+    public long decode(byte[] encoded) throws IOException {
+        if (this.compressionLevel == DEFAULT_LEVEL) {
+            return encoded.length;
+        }
+        final byte[] buffer = new byte[64 * 1024];
+        long result = 0L;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(encoded), buffer.length)) {
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                result += n;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void dispose() {
+        this.g2 = null;
+        this.svg = null;
+        this.content = null;
+        this.chunk = null;
+    }
+
+}
@@ -0,0 +1,21 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d.tester.jfreesvg;
+
+/**
+ * The JFreeSVG backend in streaming mode (see {@link JFreeSVGBackend}), for
+ * the service loader.
+ */
+public class JFreeSVGStreamingBackend extends JFreeSVGBackend {
+
+    /**
+     * Default constructor (used by the service loader).
+     */
+    public JFreeSVGStreamingBackend() {
+        super(true);
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2021-present, by David Gilbert.
+ */
+package org.jfree.graphics2d.tester.jfreesvg;
+
+import org.jfree.graphics2d.MemoryProbe;
+import org.jfree.graphics2d.OutputSink;
+import org.jfree.graphics2d.PhaseTimer;
+import org.jfree.graphics2d.SheetGrid;
+import org.jfree.graphics2d.Tester;
+
+import java.awt.Graphics2D;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares the memory use and the time of the string and streaming output
+ * modes of the JFreeSVG backend (see {@link JFreeSVGBackend}) on the regular
+ * and on scaled-up test sheets.  The encoder writes directly to the output
+ * sink (there is no intermediate buffer as in the benchmark harness), and for
+ * each mode and grid the peak heap, the live heap after collections, the
+ * garbage collections and the bytes allocated per iteration are reported
+ * (in {@code svg-streaming.csv}).
+ */
+public class JFreeSVGStreamingBenchmark {
+
+    private static final int DEFAULT_WARMUPS = 3;
+
+    private static final int DEFAULT_REPEATS = 10;
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    /**
+     * Runs one mode on one grid.
+     *
+     * @param backend  the backend.
+     * @param tc  the tester context (with the grid set).
+     * @param sink  the output sink.
+     * @param warmups  the number of warmup iterations.
+     * @param repeats  the number of measured iterations.
+     * @param probe  the memory probe.
+     *
+     * @return The timer.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    static PhaseTimer run(JFreeSVGBackend backend, Tester.TesterContext tc, OutputSink sink,
+            int warmups, int repeats, MemoryProbe probe) throws IOException {
+        final SheetGrid grid = tc.getGrid();
+        final Path path = Paths.get(backend.getName() + "-" + grid + ".svg");
+        final PhaseTimer timer = new PhaseTimer(backend.getName() + "@" + grid, false);
+        backend.create(grid.getWidth(), grid.getHeight());
+        try {
+            final PhaseTimer warmupTimer = new PhaseTimer(backend.getName() + " warmup", false);
+            for (int i = 0; i < warmups; i++) {
+                runIteration(backend, tc, sink, path, warmupTimer);
+            }
+            System.gc();
+            probe.start();
+            for (int i = 0; i < repeats; i++) {
+                runIteration(backend, tc, sink, path, timer);
+            }
+            probe.stop();
+        } finally {
+            backend.dispose();
+        }
+        return timer;
+    }
+
+    private static void runIteration(JFreeSVGBackend backend, Tester.TesterContext tc, OutputSink sink,
+            Path path, PhaseTimer timer) throws IOException {
+        timer.start();
+        final Graphics2D g2 = backend.reset();
+        timer.mark(PhaseTimer.Phase.CLEAR);
+        Tester.drawTestOutput(tc, g2);
+        timer.mark(PhaseTimer.Phase.DRAW);
+        timer.split(PhaseTimer.Phase.DRAW, PhaseTimer.Phase.SWING, tc.getSwingPaintNanos());
+        backend.snapshotPixels();
+        timer.mark(PhaseTimer.Phase.SNAPSHOT);
+        try (OutputStream out = sink.open(path)) {
+            backend.encode(out);
+            timer.mark(PhaseTimer.Phase.ENCODE);
+        }
+        timer.mark(PhaseTimer.Phase.WRITE);
+        timer.endIteration();
+    }
+
+    /**
+     * Runs the comparison.  The options are {@code --grid=N[,N...]} (the
+     * grids, default "1,4", see {@link SheetGrid#parse(String)}),
+     * {@code --warmup=N}, {@code --repeats=N} and {@code --sink=name} (see
+     * {@link OutputSink#NAMES}).
+     *
+     * @param args  the command line arguments.
+     *
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void main(String[] args) throws IOException {
+        int warmups = DEFAULT_WARMUPS;
+        int repeats = DEFAULT_REPEATS;
+        String grids = "1,4";
+        String sinkName = System.getProperty(OutputSink.PROPERTY, "file");
+        for (String arg : args) {
+            if (arg.startsWith("--grid=")) {
+                grids = arg.substring("--grid=".length());
+            } else if (arg.startsWith("--warmup=")) {
+                warmups = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--repeats=")) {
+                repeats = Integer.parseInt(arg.substring("--repeats=".length()));
+            } else if (arg.startsWith("--sink=")) {
+                sinkName = arg.substring("--sink=".length());
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        final JFreeSVGBackend[] backends = {new JFreeSVGBackend(), new JFreeSVGStreamingBackend()};
+        final Tester.TesterContext tc = Tester.prepareTestOutput(backends[0].getDescription(),
+                backends[0].getLink(), false);
+        final MemoryProbe probe = new MemoryProbe();
+        final List<String> rows = new ArrayList<>();
+        System.out.println(String.format(Locale.ROOT, "%-8s %-16s %10s %10s %10s %12s %10s %10s %6s %8s %12s",
+                "grid", "mode", "p50 [ms]", "snap [ms]", "enc [ms]", "bytes", "peak [MB]", "live [MB]",
+                "gc", "gc [ms]", "alloc [MB]"));
+        for (String spec : grids.split(",")) {
+            tc.setGrid(SheetGrid.parse(spec));
+            for (JFreeSVGBackend backend : backends) {
+                final OutputSink sink = OutputSink.create(sinkName);
+                final PhaseTimer timer = run(backend, tc, sink, warmups, repeats, probe);
+                final double alloc = probe.getAllocatedBytes() < 0 ? Double.NaN
+                        : probe.getAllocatedBytes() / MB / repeats;
+                System.out.println(String.format(Locale.ROOT,
+                        "%-8s %-16s %10.2f %10.2f %10.2f %12d %10.1f %10.1f %6d %8d %12.1f",
+                        tc.getGrid(), backend.getName(), timer.getTotalPercentile(50),
+                        timer.getPercentile(PhaseTimer.Phase.SNAPSHOT, 50),
+                        timer.getPercentile(PhaseTimer.Phase.ENCODE, 50), sink.getAverageBytes(),
+                        probe.getPeakHeap() / MB, probe.getMaxLiveHeap() / MB, probe.getGcCount(),
+                        probe.getGcTime(), alloc));
+                rows.add(String.format(Locale.ROOT, "%s,%s,%s,%d,%.4f,%.4f,%.4f,%d,%d,%d,%d,%d,%d",
+                        tc.getGrid(), backend.getName(), sink.getName(), repeats, timer.getTotalPercentile(50),
+                        timer.getPercentile(PhaseTimer.Phase.SNAPSHOT, 50),
+                        timer.getPercentile(PhaseTimer.Phase.ENCODE, 50), sink.getAverageBytes(),
+                        probe.getPeakHeap(), probe.getMaxLiveHeap(), probe.getGcCount(), probe.getGcTime(),
+                        probe.getAllocatedBytes()));
+            }
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get("svg-streaming.csv"),
+                StandardCharsets.UTF_8))) {
+            out.println("grid,mode,sink,n,p50,snapshot_p50,encode_p50,bytes,peak_heap,live_heap,gc_count,"
+                    + "gc_time,allocated");
+            rows.forEach(out::println);
+        }
+        System.exit(0);
+    }
+
+}
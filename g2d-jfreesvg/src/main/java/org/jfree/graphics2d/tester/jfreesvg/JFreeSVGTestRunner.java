@@ -5,11 +5,8 @@
  */
 package org.jfree.graphics2d.tester.jfreesvg;
 
-import org.jfree.svg.SVGGraphics2D;
-import org.jfree.svg.SVGUtils;
-import org.jfree.graphics2d.Tester;
+import org.jfree.graphics2d.BenchmarkHarness;
 
-import java.io.File;
 import java.io.IOException;
 
 public class JFreeSVGTestRunner {
@@ -17,29 +14,7 @@ public class JFreeSVGTestRunner {
     private final static int REPEATS = 10;
 
     public static void testJFreeSVG(String filename, boolean single) throws IOException {
-        if (single) {
-            filename += "-single.svg";
-        } else {
-            filename += ".svg";
-        }
-
-        // Prepare context:
-        final Tester.TesterContext tc = Tester.prepareTestOutput(
-                "JFree/SVGGraphics2D (5.0.7)",
-                "https://github.com/jfree/jfreesvg", single);
-
-        for (int i = 0; i < REPEATS; i++) {
-            final long startTime = System.nanoTime();
-
-            final SVGGraphics2D g2 = new SVGGraphics2D(Tester.getTestSheetWidth(), Tester.getTestSheetHeight());
-
-            Tester.drawTestOutput(tc, g2);
-
-            SVGUtils.writeToSVG(new File(filename), g2.getSVGElement());
-
-            final double elapsedTime = 1e-6d * (System.nanoTime() - startTime);
-            System.out.println("drawTestOutput(SVGGraphics2D) duration = " + elapsedTime + " ms.");
-        }
+        BenchmarkHarness.run(new JFreeSVGBackend(), filename, single, 0, REPEATS);
     }
 
     /**
@@ -52,4 +27,4 @@ public class JFreeSVGTestRunner {
         testJFreeSVG("jfreesvg", single);
         System.exit(0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package org.jfree.graphics2d.tester.skija;
+
+/**
+ * The SkijaGraphics2D backend in direct mode (see
+ * {@link SkijaGraphics2DBackend}), for the service loader.
+ */
+public class SkijaGraphics2DDirectBackend extends SkijaGraphics2DBackend {
+
+    /**
+     * Default constructor (used by the service loader).
+     */
+    public SkijaGraphics2DDirectBackend() {
+        super(true);
+    }
+
+}
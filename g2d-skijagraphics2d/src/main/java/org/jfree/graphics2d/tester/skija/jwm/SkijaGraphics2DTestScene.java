@@ -5,6 +5,9 @@ import io.github.humbleui.skija.Data;
 import io.github.humbleui.skija.EncodedImageFormat;
 import io.github.humbleui.skija.Surface;
 import java.io.IOException;
+import java.io.OutputStream;
+import org.jfree.graphics2d.OutputSink;
+import org.jfree.graphics2d.PhaseTimer;
 import org.jfree.graphics2d.Tester;
 import org.jfree.skija.SkijaGraphics2D;
 
@@ -15,42 +18,53 @@ public class SkijaGraphics2DTestScene extends Scene {
     private final Tester.TesterContext tc;
     private boolean saveFirst = true;
 
+    private final PhaseTimer timer = new PhaseTimer("SkijaGraphics2D/JWM");
+
+    private final OutputSink sink = OutputSink.fromSystemProperty();
+
     /**
      * Public constructor used by introspection
      */
     public SkijaGraphics2DTestScene() {
         // Prepare context:
+        timer.start();
         this.tc = Tester.prepareTestOutput(
                 "JFree/" + SkijaGraphics2D.VERSION,
                 "https://github.com/jfree/skijagraphics2d", single);
+        timer.mark(PhaseTimer.Phase.PREPARE);
     }
 
     @Override
     public void draw(final Canvas canvas, int width, int height, float dpi, int xpos, int ypos) {
         String fileName = "SkijaGraphics2D";
 
-        final long startTime = System.nanoTime();
+        timer.start();
 
         final SkijaGraphics2D g2 = new SkijaGraphics2D(canvas);
         try {
+            // wrapper creation only, the canvas itself is cleared in Scenes.draw():
+            timer.mark(PhaseTimer.Phase.CLEAR);
+
             Tester.drawTestOutput(tc, g2);
+            timer.mark(PhaseTimer.Phase.DRAW);
+            timer.split(PhaseTimer.Phase.DRAW, PhaseTimer.Phase.SWING, tc.getSwingPaintNanos());
 
             // Sync CPU / GPU:
             final Surface surface = canvas.getSurface();
             if (surface != null) {
                 surface.flushAndSubmit(true); // full SYNC (GPU)
             }
+            timer.mark(PhaseTimer.Phase.FLUSH);
             // image is ready
 
-            final double elapsedTime = 1e-6d * (System.nanoTime() - startTime);
-            System.out.println("drawTestOutput(SkijaGraphics2D) duration = " + elapsedTime + " ms.");
-
             if (saveFirst) {
                 saveFirst = false;
 
                 final io.github.humbleui.skija.Image image = surface.makeImageSnapshot();
+                timer.mark(PhaseTimer.Phase.SNAPSHOT);
                 final Data pngData = image.encodeToData(EncodedImageFormat.PNG);
                 final byte[] pngBytes = pngData.getBytes();
+                timer.mark(PhaseTimer.Phase.ENCODE);
                 try {
                     if (single) {
                         fileName += "-single.png";
@@ -58,11 +72,15 @@ public class SkijaGraphics2DTestScene extends Scene {
                         fileName += ".png";
                     }
                     java.nio.file.Path path = java.nio.file.Path.of(fileName);
-                    java.nio.file.Files.write(path, pngBytes);
+                    try (OutputStream out = sink.open(path)) {
+                        out.write(pngBytes);
+                    }
                 } catch (IOException e) {
                     System.err.println(e);
                 }
+                timer.mark(PhaseTimer.Phase.WRITE);
             }
+            timer.endIteration();
         } finally {
             g2.dispose();
         }
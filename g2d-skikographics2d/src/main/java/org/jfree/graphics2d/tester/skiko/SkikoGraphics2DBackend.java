@@ -0,0 +1,233 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2023-today, by David Gilbert.
+ */
+package org.jfree.graphics2d.tester.skiko;
+
+import org.jetbrains.skia.ColorAlphaType;
+import org.jetbrains.skia.ColorType;
+import org.jetbrains.skia.Data;
+import org.jetbrains.skia.EncodedImageFormat;
+import org.jetbrains.skia.Image;
+import org.jetbrains.skia.ImageInfo;
+import org.jetbrains.skia.Pixmap;
+import org.jetbrains.skia.Surface;
+import org.jetbrains.skia.impl.BufferUtil;
+import org.jfree.graphics2d.Graphics2DBackend;
+import org.jfree.skiko.SkikoGraphics2D;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The SkikoGraphics2D backend (raster surface).  The surface is reused and
+ * cleared for each iteration, {@link #snapshotPixels()} takes an image
+ * snapshot of the surface and the PNG output is encoded from it by Skia.
+ * <p>
+ * In direct mode (see {@link SkikoGraphics2DDirectBackend}) the pixels are
+ * read with {@code Surface.readPixels(Pixmap)} into a reusable direct
+ * {@code ByteBuffer} (BGRA, unpremultiplied), which is available with
+ * {@link #getPixelBuffer()} for comparisons or an encoder of our own, and
+ * the output is the raw pixel data (no image snapshot, no PNG encoding and no
+ * {@code byte[]} copies of the frame).  A {@code BufferedImage} is only built
+ * when a caller asks for one with {@link #toImage()}.
+ */
+public class SkikoGraphics2DBackend implements Graphics2DBackend {
+
+    /** The size of the chunks used to write the pixel buffer. */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final boolean direct;
+
+    private SkikoGraphics2D g2;
+
+    /** The image snapshot taken by the last call to {@link #snapshotPixels()} (PNG mode only). */
+    private Image snapshot;
+
+    /** The layout of the pixel buffer (direct mode only). */
+    private ImageInfo pixelInfo;
+
+    /** The pixel buffer (direct mode only). */
+    private ByteBuffer pixelBuffer;
+
+    /** The pixmap that describes the pixel buffer (direct mode only). */
+    private Pixmap pixmap;
+
+    /** The reusable chunk for writing the pixel buffer (direct mode only). */
+    private byte[] chunk;
+
+    /**
+     * Default constructor (used by the service loader).
+     */
+    public SkikoGraphics2DBackend() {
+        this(false);
+    }
+
+    /**
+     * Creates a backend.
+     *
+     * @param direct  read the pixels into a direct buffer and write them
+     *     without encoding (see the class description)?
+     */
+    protected SkikoGraphics2DBackend(boolean direct) {
+        this.direct = direct;
+    }
+
+    @Override
+    public String getName() {
+        return this.direct ? "skiko-direct" : "skiko";
+    }
+
+    @Override
+    public String getDescription() {
+        return "JFree/SkikoGraphics2D (1.0.0)";
+    }
+
+    @Override
+    public String getLink() {
+        return "https://github.com/jfree/skikographics2d";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return this.direct ? "bgra" : "png";
+    }
+
+    @Override
+    public void create(int width, int height) {
+        this.g2 = new SkikoGraphics2D(width, height);
+        if (this.direct) {
+            this.pixelInfo = new ImageInfo(width, height, ColorType.BGRA_8888, ColorAlphaType.UNPREMUL);
+            this.pixelBuffer = ByteBuffer.allocateDirect(width * height * 4).order(ByteOrder.LITTLE_ENDIAN);
+            // the pixmap does not own the memory (no Managed owner), the buffer is kept in a field:
+            this.pixmap = Pixmap.Companion.make(this.pixelInfo,
+                    BufferUtil.INSTANCE.getPointerFromByteBuffer(this.pixelBuffer), this.pixelInfo.getMinRowBytes(),
+                    null);
+            this.chunk = new byte[CHUNK_SIZE];
+        }
+    }
+
+    @Override
+    public Graphics2D reset() {
+        // a live snapshot would make the surface copy its pixels on the next write:
+        closeSnapshot();
+        // reset to the initial (transparent) state:
+        this.g2.getSurface().getCanvas().clear(0x00000000);
+        return this.g2;
+    }
+
+    @Override
+    public void flush() {
+        // Sync CPU / GPU:
+        this.g2.getSurface().flushAndSubmit(false); // full SYNC (GPU)
+    }
+
+    /**
+     * Returns the pixels read by the last call to {@link #snapshotPixels()}
+     * in direct mode: BGRA bytes, unpremultiplied, with the minimum row
+     * stride (as little-endian ints these are ARGB values).
+     *
+     * @return The pixel buffer ({@code null} if not in direct mode).
+     */
+    public ByteBuffer getPixelBuffer() {
+        return this.pixelBuffer;
+    }
+
+    /**
+     * Returns a new image with the pixels read by the last call to
+     * {@link #snapshotPixels()} in direct mode (one copy of the frame, for
+     * callers that need a {@code BufferedImage}).
+     *
+     * @return The image.
+     *
+     * @throws IllegalStateException if not in direct mode.
+     */
+    public BufferedImage toImage() {
+        if (!this.direct) {
+            throw new IllegalStateException("The pixels are only read in direct mode.");
+        }
+        final BufferedImage result = new BufferedImage(this.pixelInfo.getWidth(), this.pixelInfo.getHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        final int[] argb = ((DataBufferInt) result.getRaster().getDataBuffer()).getData();
+        final ByteBuffer buffer = this.pixelBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.clear();
+        buffer.asIntBuffer().get(argb);
+        return result;
+    }
+
+    /**
+     * Captures the surface: in direct mode the pixels are read into the
+     * pixel buffer (see {@link #getPixelBuffer()}), otherwise an image
+     * snapshot is taken for {@link #encode(OutputStream)}.  No
+     * {@code BufferedImage} is created (see {@link #toImage()}).
+     *
+     * @return {@code null}.
+     */
+    @Override
+    public BufferedImage snapshotPixels() {
+        final Surface surface = this.g2.getSurface();
+        if (this.direct) {
+            // one copy (and the conversion to unpremultiplied BGRA) into native memory:
+            if (!surface.readPixels(this.pixmap, 0, 0)) {
+                throw new IllegalStateException("Surface.readPixels(Pixmap) failed");
+            }
+            return null;
+        }
+        closeSnapshot();
+        this.snapshot = surface.makeImageSnapshot();
+        return null;
+    }
+
+    @Override
+    public void encode(OutputStream out) throws IOException {
+        if (this.direct) {
+            final ByteBuffer buffer = this.pixelBuffer.duplicate();
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                final int n = Math.min(buffer.remaining(), this.chunk.length);
+                buffer.get(this.chunk, 0, n);
+                out.write(this.chunk, 0, n);
+            }
+            return;
+        }
+        final Data pngData = this.snapshot.encodeToData(EncodedImageFormat.PNG, 0);
+        try {
+            out.write(pngData.getBytes());
+        } finally {
+            pngData.close();
+            closeSnapshot();
+        }
+    }
+
+    /**
+     * Releases the image snapshot (if any).
+     */
+    private void closeSnapshot() {
+        if (this.snapshot != null) {
+            this.snapshot.close();
+            this.snapshot = null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        closeSnapshot();
+        if (this.pixmap != null) {
+            this.pixmap.close();
+            this.pixmap = null;
+        }
+        this.pixelBuffer = null;
+        this.chunk = null;
+        if (this.g2 != null) {
+            this.g2.dispose();
+            this.g2 = null;
+        }
+    }
+
+}
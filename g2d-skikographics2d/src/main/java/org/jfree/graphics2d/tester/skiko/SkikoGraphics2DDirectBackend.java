@@ -0,0 +1,21 @@
+/*
+ * Graphics2D Tester
+ *
+ * (C)opyright 2023-today, by David Gilbert.
+ */
+package org.jfree.graphics2d.tester.skiko;
+
+/**
+ * The SkikoGraphics2D backend in direct mode (see
+ * {@link SkikoGraphics2DBackend}), for the service loader.
+ */
+public class SkikoGraphics2DDirectBackend extends SkikoGraphics2DBackend {
+
+    /**
+     * Default constructor (used by the service loader).
+     */
+    public SkikoGraphics2DDirectBackend() {
+        super(true);
+    }
+
+}
@@ -5,17 +5,10 @@
  */
 package org.jfree.graphics2d.tester.skiko;
 
-import org.jetbrains.skia.Data;
-import org.jetbrains.skia.EncodedImageFormat;
-import org.jetbrains.skia.Image;
-import org.jetbrains.skia.Surface;
-import org.jfree.graphics2d.Tester;
-import org.jfree.skiko.SkikoGraphics2D;
+import org.jfree.graphics2d.BenchmarkHarness;
 
 import java.io.IOException;
 
-import static org.jfree.graphics2d.Tester.prepareTestOutput;
-
 public class SkikoGraphics2DTestRunner {
 
     private final static int REPEATS = 100;
@@ -27,49 +20,10 @@ public class SkikoGraphics2DTestRunner {
      * @param single  run the current single test?
      */
     public static void testSkikoGraphics2D(String fileName, boolean single) {
-        if (single) {
-            fileName += "-single.png";
-        } else {
-            fileName += ".png";
-        }
-        // Prepare context:
-        final Tester.TesterContext tc = prepareTestOutput("JFree/SkikoGraphics2D (1.0.0)",
-                "https://github.com/jfree/skikographics2d", single);
-
-        final int width = Tester.getTestSheetWidth();
-        final int height = Tester.getTestSheetHeight();
-
-        final SkikoGraphics2D g2 = new SkikoGraphics2D(width, height);
         try {
-            for (int i = 0; i < REPEATS; i++) {
-                final long startTime = System.nanoTime();
-
-                Tester.drawTestOutput(tc, g2);
-
-                // Sync CPU / GPU:
-                final Surface surface = g2.getSurface();
-                if (surface != null) {
-                    surface.flushAndSubmit(false); // full SYNC (GPU)
-                }
-                // image is ready
-
-                final double elapsedTime = 1e-6d * (System.nanoTime() - startTime);
-                System.out.println("drawTestOutput(SkikoGraphics2D) duration = " + elapsedTime + " ms.");
-
-                if (i == 0) {
-                    final Image image = surface.makeImageSnapshot();
-                    final Data pngData = image.encodeToData(EncodedImageFormat.PNG, 0);
-                    final byte[] pngBytes = pngData.getBytes();
-                    try {
-                        java.nio.file.Path path = java.nio.file.Path.of(fileName);
-                        java.nio.file.Files.write(path, pngBytes);
-                    } catch (IOException ioe) {
-                        throw new RuntimeException(ioe);
-                    }
-                }
-            }
-        } finally {
-            g2.dispose();
+            BenchmarkHarness.run(new SkikoGraphics2DBackend(), fileName, single, 0, REPEATS);
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
         }
     }
 
@@ -83,4 +37,4 @@ public class SkikoGraphics2DTestRunner {
         testSkikoGraphics2D("SkikoGraphics2D", single);
         System.exit(0);
     }
-}
\ No newline at end of file
+}